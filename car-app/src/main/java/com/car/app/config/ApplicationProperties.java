@@ -1,5 +1,8 @@
 package com.car.app.config;
 
+import com.hazelcast.config.InMemoryFormat;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +12,472 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Cars cars = new Cars();
+
+    private final Cache cache = new Cache();
+
+    private final Datasource datasource = new Datasource();
+
+    private final Security security = new Security();
+
+    public Cars getCars() {
+        return cars;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public static class Cars {
+
+        private final Listing listing = new Listing();
+
+        private final Bulk bulk = new Bulk();
+
+        /**
+         * How long shared caches, such as the gateway, may serve the responses to {@code GET /api/cars} and
+         * {@code GET /api/cars/:id} without asking car-app again. Browsers revalidate them with their {@code ETag}.
+         */
+        private int sharedMaxAgeSeconds = 10;
+
+        public Listing getListing() {
+            return listing;
+        }
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public int getSharedMaxAgeSeconds() {
+            return sharedMaxAgeSeconds;
+        }
+
+        public void setSharedMaxAgeSeconds(int sharedMaxAgeSeconds) {
+            this.sharedMaxAgeSeconds = sharedMaxAgeSeconds;
+        }
+
+        public static class Listing {
+
+            /**
+             * Page size used by the keyset listing when the client does not send one.
+             */
+            private int defaultPageSize = 20;
+
+            /**
+             * Upper bound for the page size a client may request.
+             */
+            private int maxPageSize = 1000;
+
+            /**
+             * Number of rows written to the NDJSON stream between two flushes.
+             */
+            private int streamFlushSize = 100;
+
+            public int getDefaultPageSize() {
+                return defaultPageSize;
+            }
+
+            public void setDefaultPageSize(int defaultPageSize) {
+                this.defaultPageSize = defaultPageSize;
+            }
+
+            public int getMaxPageSize() {
+                return maxPageSize;
+            }
+
+            public void setMaxPageSize(int maxPageSize) {
+                this.maxPageSize = maxPageSize;
+            }
+
+            public int getStreamFlushSize() {
+                return streamFlushSize;
+            }
+
+            public void setStreamFlushSize(int streamFlushSize) {
+                this.streamFlushSize = streamFlushSize;
+            }
+        }
+
+        public static class Bulk {
+
+            /**
+             * Number of cars written per transaction, and per multi-row insert, by the bulk endpoint.
+             */
+            private int chunkSize = 500;
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * How car-app takes part in the Hazelcast cluster.
+         */
+        public enum Topology {
+            /**
+             * Every car-app instance is a full Hazelcast member holding a share of the data.
+             */
+            EMBEDDED,
+            /**
+             * car-app connects as a client to a separately deployed Hazelcast cluster.
+             */
+            CLIENT,
+        }
+
+        private Topology topology = Topology.EMBEDDED;
+
+        private final Client client = new Client();
+
+        private final Discovery discovery = new Discovery();
+
+        private final Domain domain = new Domain();
+
+        private final QueryResults queryResults = new QueryResults();
+
+        public Topology getTopology() {
+            return topology;
+        }
+
+        public void setTopology(Topology topology) {
+            this.topology = topology;
+        }
+
+        public Client getClient() {
+            return client;
+        }
+
+        public Discovery getDiscovery() {
+            return discovery;
+        }
+
+        public Domain getDomain() {
+            return domain;
+        }
+
+        public QueryResults getQueryResults() {
+            return queryResults;
+        }
+
+        /**
+         * Connection to the Hazelcast cluster, used with the {@link Topology#CLIENT} topology.
+         * The map settings (time to live, eviction, backups) are then those of the cluster.
+         */
+        public static class Client {
+
+            private String clusterName = "dev";
+
+            private List<String> addresses = new ArrayList<>(List.of("127.0.0.1:5701"));
+
+            /**
+             * Near-cache kept by the client in front of the entity and query results maps.
+             */
+            private final NearCache nearCache = new NearCache();
+
+            public String getClusterName() {
+                return clusterName;
+            }
+
+            public void setClusterName(String clusterName) {
+                this.clusterName = clusterName;
+            }
+
+            public List<String> getAddresses() {
+                return addresses;
+            }
+
+            public void setAddresses(List<String> addresses) {
+                this.addresses = addresses;
+            }
+
+            public NearCache getNearCache() {
+                return nearCache;
+            }
+        }
+
+        /**
+         * Discovery of the other members, used with the {@link Topology#EMBEDDED} topology.
+         * Besides when a member starts, the members are looked up on every split-brain merge check.
+         */
+        public static class Discovery {
+
+            /**
+             * Delay before the first split-brain merge check after a member starts.
+             */
+            private int mergeFirstRunDelaySeconds = 60;
+
+            /**
+             * Delay between two split-brain merge checks.
+             */
+            private int mergeNextRunDelaySeconds = 30;
+
+            public int getMergeFirstRunDelaySeconds() {
+                return mergeFirstRunDelaySeconds;
+            }
+
+            public void setMergeFirstRunDelaySeconds(int mergeFirstRunDelaySeconds) {
+                this.mergeFirstRunDelaySeconds = mergeFirstRunDelaySeconds;
+            }
+
+            public int getMergeNextRunDelaySeconds() {
+                return mergeNextRunDelaySeconds;
+            }
+
+            public void setMergeNextRunDelaySeconds(int mergeNextRunDelaySeconds) {
+                this.mergeNextRunDelaySeconds = mergeNextRunDelaySeconds;
+            }
+        }
+
+        /**
+         * Hazelcast maps backing the Hibernate entity regions ({@code com.car.app.domain.*}).
+         * Their time to live and backups are set by {@code jhipster.cache.hazelcast}.
+         */
+        public static class Domain {
+
+            private final NearCache nearCache = new NearCache(false);
+
+            public NearCache getNearCache() {
+                return nearCache;
+            }
+        }
+
+        /**
+         * Hazelcast map backing the Hibernate query cache regions ({@code com.car.app.query.*}).
+         */
+        public static class QueryResults {
+
+            private int timeToLiveSeconds = 300;
+
+            /**
+             * Maximum number of cached queries per member, least recently used ones are evicted first.
+             */
+            private int maxSize = 10000;
+
+            private final NearCache nearCache = new NearCache();
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public NearCache getNearCache() {
+                return nearCache;
+            }
+        }
+
+        /**
+         * Hazelcast near-cache kept by every member in front of a distributed map.
+         */
+        public static class NearCache {
+
+            private boolean enabled;
+
+            private int timeToLiveSeconds = 60;
+
+            private int maxSize = 1000;
+
+            /**
+             * {@code OBJECT} keeps deserialized values, cheapest to read; {@code BINARY} keeps serialized values,
+             * smaller and safe to share between readers that mutate what they get.
+             */
+            private InMemoryFormat inMemoryFormat = InMemoryFormat.OBJECT;
+
+            /**
+             * Whether the owner of an entry sends an invalidation event to the near-caches when the entry changes.
+             */
+            private boolean invalidateOnChange = true;
+
+            public NearCache() {
+                this(true);
+            }
+
+            public NearCache(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public InMemoryFormat getInMemoryFormat() {
+                return inMemoryFormat;
+            }
+
+            public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+                this.inMemoryFormat = inMemoryFormat;
+            }
+
+            public boolean isInvalidateOnChange() {
+                return invalidateOnChange;
+            }
+
+            public void setInvalidateOnChange(boolean invalidateOnChange) {
+                this.invalidateOnChange = invalidateOnChange;
+            }
+        }
+    }
+
+    public static class Datasource {
+
+        private final Replica replica = new Replica();
+
+        public Replica getReplica() {
+            return replica;
+        }
+
+        /**
+         * Replica of the database serving the read-only transactions. It is used only when its url is set, and then
+         * shares the {@code spring.datasource.hikari} pool settings of the primary.
+         */
+        public static class Replica {
+
+            private String url;
+
+            /**
+             * User of the replica, {@code spring.datasource.username} when not set.
+             */
+            private String username;
+
+            /**
+             * Password of the replica, {@code spring.datasource.password} when not set.
+             */
+            private String password;
+
+            /**
+             * Replication delay above which read-only transactions go back to the primary.
+             */
+            private int maxLagSeconds = 10;
+
+            private int lagCheckIntervalSeconds = 5;
+
+            /**
+             * Query run on the replica to get its replication delay in seconds, from its
+             * {@code Seconds_Behind_Source} column when it has one, from its first column otherwise.
+             */
+            private String lagQuery = "SHOW REPLICA STATUS";
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public int getMaxLagSeconds() {
+                return maxLagSeconds;
+            }
+
+            public void setMaxLagSeconds(int maxLagSeconds) {
+                this.maxLagSeconds = maxLagSeconds;
+            }
+
+            public int getLagCheckIntervalSeconds() {
+                return lagCheckIntervalSeconds;
+            }
+
+            public void setLagCheckIntervalSeconds(int lagCheckIntervalSeconds) {
+                this.lagCheckIntervalSeconds = lagCheckIntervalSeconds;
+            }
+
+            public String getLagQuery() {
+                return lagQuery;
+            }
+
+            public void setLagQuery(String lagQuery) {
+                this.lagQuery = lagQuery;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final Jwks jwks = new Jwks();
+
+        public Jwks getJwks() {
+            return jwks;
+        }
+
+        /**
+         * Public keys of the gateway, fetched from its {@code /.well-known/jwks.json} when a token names an unknown key.
+         */
+        public static class Jwks {
+
+            /**
+             * Minimum delay between two fetches of the keys.
+             */
+            private int minRefreshIntervalSeconds = 10;
+
+            public int getMinRefreshIntervalSeconds() {
+                return minRefreshIntervalSeconds;
+            }
+
+            public void setMinRefreshIntervalSeconds(int minRefreshIntervalSeconds) {
+                this.minRefreshIntervalSeconds = minRefreshIntervalSeconds;
+            }
+        }
+    }
+}
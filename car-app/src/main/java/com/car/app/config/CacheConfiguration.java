@@ -1,12 +1,26 @@
 package com.car.app.config;
 
+import com.car.app.domain.Car;
+import com.car.app.management.CacheRegionMetrics;
+import com.car.app.management.HazelcastClusterMetrics;
+import com.car.app.repository.CarRepository;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.hibernate.CacheEnvironment;
+import com.hazelcast.spi.properties.ClusterProperty;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
@@ -38,12 +52,20 @@ public class CacheConfiguration {
 
     private final DiscoveryClient discoveryClient;
 
+    private final ApplicationProperties applicationProperties;
+
     private Registration registration;
 
-    public CacheConfiguration(Environment env, ServerProperties serverProperties, DiscoveryClient discoveryClient) {
+    public CacheConfiguration(
+        Environment env,
+        ServerProperties serverProperties,
+        DiscoveryClient discoveryClient,
+        ApplicationProperties applicationProperties
+    ) {
         this.env = env;
         this.serverProperties = serverProperties;
         this.discoveryClient = discoveryClient;
+        this.applicationProperties = applicationProperties;
     }
 
     @Autowired(required = false)
@@ -54,6 +76,7 @@ public class CacheConfiguration {
     @PreDestroy
     public void destroy() {
         log.info("Closing Cache Manager");
+        HazelcastClient.shutdownAll();
         Hazelcast.shutdownAll();
     }
 
@@ -65,6 +88,9 @@ public class CacheConfiguration {
 
     @Bean
     public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+        if (applicationProperties.getCache().getTopology() == ApplicationProperties.Cache.Topology.CLIENT) {
+            return hazelcastClientInstance(applicationProperties.getCache().getClient());
+        }
         log.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("carsapp");
         if (hazelCastInstance != null) {
@@ -81,6 +107,7 @@ public class CacheConfiguration {
             // see the "spring.application.name" standard Spring property
             String serviceId = registration.getServiceId();
             log.debug("Configuring Hazelcast clustering for instanceId: {}", serviceId);
+            Function<ServiceInstance, InetSocketAddress> memberAddress;
             // In development, everything goes through 127.0.0.1, with a different port
             if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
                 log.debug(
@@ -88,28 +115,88 @@ public class CacheConfiguration {
                 );
 
                 config.getNetworkConfig().setPort(serverProperties.getPort() + 5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = "127.0.0.1:" + (instance.getPort() + 5701);
-                    log.debug("Adding Hazelcast (dev) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                // The discovered addresses are on 127.0.0.1, so must be this member's own address
+                config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+                memberAddress = instance -> new InetSocketAddress("127.0.0.1", instance.getPort() + 5701);
             } else { // Production configuration, one host per instance all using port 5701
                 config.getNetworkConfig().setPort(5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = instance.getHost() + ":5701";
-                    log.debug("Adding Hazelcast (prod) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                memberAddress = instance -> new InetSocketAddress(instance.getHost(), 5701);
             }
+
+            /*
+            The members are looked up in the discovery service when this member starts,
+            and again on every split-brain merge check: instances registered later on are
+            found, and clusters formed while the registry was incomplete are merged.
+            */
+            ApplicationProperties.Cache.Discovery discovery = applicationProperties.getCache().getDiscovery();
+            config.setProperty(ClusterProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+            config.setProperty(
+                ClusterProperty.MERGE_FIRST_RUN_DELAY_SECONDS.getName(),
+                String.valueOf(discovery.getMergeFirstRunDelaySeconds())
+            );
+            config.setProperty(
+                ClusterProperty.MERGE_NEXT_RUN_DELAY_SECONDS.getName(),
+                String.valueOf(discovery.getMergeNextRunDelaySeconds())
+            );
+            config
+                .getNetworkConfig()
+                .getJoin()
+                .getDiscoveryConfig()
+                .addDiscoveryStrategyConfig(
+                    new DiscoveryStrategyConfig(new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, serviceId, memberAddress))
+                );
         }
         config.setManagementCenterConfig(new ManagementCenterConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
         config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        config.addMapConfig(initializeQueryResultsMapConfig(applicationProperties.getCache().getQueryResults()));
         return Hazelcast.newHazelcastInstance(config);
     }
 
+    private HazelcastInstance hazelcastClientInstance(ApplicationProperties.Cache.Client clientProperties) {
+        log.debug("Configuring Hazelcast client");
+        HazelcastInstance hazelcastClient = HazelcastClient.getHazelcastClientByName("carsapp");
+        if (hazelcastClient != null) {
+            log.debug("Hazelcast client already initialized");
+            return hazelcastClient;
+        }
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setInstanceName("carsapp");
+        clientConfig.setClusterName(clientProperties.getClusterName());
+        clientConfig.getNetworkConfig().setAddresses(new ArrayList<>(clientProperties.getAddresses()));
+        log.debug(
+            "Connecting Hazelcast client to cluster {} at {}",
+            clientProperties.getClusterName(),
+            clientProperties.getAddresses()
+        );
+
+        /*
+        Without a near-cache, every read of the client is a network call to the
+        cluster: the client keeps the entities and query results it reads.
+        */
+        ApplicationProperties.Cache.NearCache nearCache = clientProperties.getNearCache();
+        if (nearCache.isEnabled()) {
+            clientConfig.addNearCacheConfig(initializeNearCacheConfig(nearCache).setName("com.car.app.domain.*"));
+            clientConfig.addNearCacheConfig(initializeNearCacheConfig(nearCache).setName("com.car.app.query.*"));
+        }
+        return HazelcastClient.newHazelcastClient(clientConfig);
+    }
+
+    /**
+     * With the client topology, Hibernate must look up the Hazelcast client instead of a member.
+     *
+     * @return the customizer setting the Hazelcast Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hazelcastHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            if (applicationProperties.getCache().getTopology() == ApplicationProperties.Cache.Topology.CLIENT) {
+                hibernateProperties.put(CacheEnvironment.USE_NATIVE_CLIENT, "true");
+                hibernateProperties.put(CacheEnvironment.NATIVE_CLIENT_INSTANCE_NAME, "carsapp");
+            }
+        };
+    }
+
     private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig("default");
 
@@ -143,9 +230,73 @@ public class CacheConfiguration {
     private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig("com.car.app.domain.*");
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
+        ApplicationProperties.Cache.NearCache nearCache = applicationProperties.getCache().getDomain().getNearCache();
+        if (nearCache.isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(nearCache));
+        }
         return mapConfig;
     }
 
+    private MapConfig initializeQueryResultsMapConfig(ApplicationProperties.Cache.QueryResults queryResults) {
+        MapConfig mapConfig = new MapConfig("com.car.app.query.*");
+        mapConfig.setTimeToLiveSeconds(queryResults.getTimeToLiveSeconds());
+        mapConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.LRU);
+        mapConfig.getEvictionConfig().setMaxSizePolicy(MaxSizePolicy.PER_NODE);
+        mapConfig.getEvictionConfig().setSize(queryResults.getMaxSize());
+        if (queryResults.getNearCache().isEnabled()) {
+            mapConfig.setNearCacheConfig(initializeNearCacheConfig(queryResults.getNearCache()));
+        }
+        return mapConfig;
+    }
+
+    private NearCacheConfig initializeNearCacheConfig(ApplicationProperties.Cache.NearCache nearCache) {
+        /*
+        A near-cache keeps the entries read by a member in that member,
+        so reading them again does not need a network hop to the member owning the key.
+        Entries owned by the member itself are always read locally and are not near-cached.
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig();
+
+        /*
+        When enabled, the owner of an entry sends an invalidation event to all
+        the near-caches when the entry is updated or removed. Otherwise near-cached
+        entries are only refreshed when they expire.
+        */
+        nearCacheConfig.setInvalidateOnChange(nearCache.isInvalidateOnChange());
+
+        /*
+        Valid values are:
+        OBJECT (deserialized values, no deserialization cost on reads),
+        BINARY (serialized values, less memory and a fresh copy on every read).
+        */
+        nearCacheConfig.setInMemoryFormat(nearCache.getInMemoryFormat());
+        nearCacheConfig.setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds());
+        nearCacheConfig
+            .getEvictionConfig()
+            .setEvictionPolicy(EvictionPolicy.LRU)
+            .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+            .setSize(nearCache.getMaxSize());
+        return nearCacheConfig;
+    }
+
+    @Bean
+    public CacheRegionMetrics cacheRegionMetrics(@Lazy EntityManagerFactory entityManagerFactory, HazelcastInstance hazelcastInstance) {
+        return new CacheRegionMetrics(
+            entityManagerFactory,
+            hazelcastInstance,
+            List.of(Car.class.getName(), CarRepository.QUERY_CACHE_REGION)
+        );
+    }
+
+    @Bean
+    public HazelcastClusterMetrics hazelcastClusterMetrics(HazelcastInstance hazelcastInstance) {
+        if (registration == null || applicationProperties.getCache().getTopology() == ApplicationProperties.Cache.Topology.CLIENT) {
+            return new HazelcastClusterMetrics(hazelcastInstance, () -> 0);
+        }
+        String serviceId = registration.getServiceId();
+        return new HazelcastClusterMetrics(hazelcastInstance, () -> discoveryClient.getInstances(serviceId).size());
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
@@ -0,0 +1,105 @@
+package com.car.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Sends the read-only transactions to a replica of the database, when {@code application.datasource.replica.url} is set.
+ * <p>
+ * The primary and the replica each get a Hikari pool configured by {@code spring.datasource.hikari}, and the
+ * application uses them through a {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.replica", name = "url")
+public class ReplicaDataSourceConfiguration {
+
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaDataSourceConfiguration.class);
+
+    private final Environment env;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final ApplicationProperties.Datasource.Replica replicaProperties;
+
+    public ReplicaDataSourceConfiguration(
+        Environment env,
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        this.env = env;
+        this.dataSourceProperties = dataSourceProperties;
+        this.replicaProperties = applicationProperties.getDatasource().getReplica();
+    }
+
+    @Bean
+    @LiquibaseDataSource
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        return bindHikariProperties(primary, "primary");
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource() {
+        String username = replicaProperties.getUsername() != null
+            ? replicaProperties.getUsername()
+            : dataSourceProperties.determineUsername();
+        String password = replicaProperties.getPassword() != null
+            ? replicaProperties.getPassword()
+            : dataSourceProperties.determinePassword();
+        HikariDataSource replica = dataSourceProperties
+            .initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(replicaProperties.getUrl())
+            .username(username)
+            .password(password)
+            .build();
+        return bindHikariProperties(replica, "replica");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        TaskScheduler taskScheduler
+    ) {
+        log.debug("Sending read-only transactions to the replica {}", replicaProperties.getUrl());
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+            primary,
+            replica,
+            replicaProperties.getLagQuery(),
+            replicaProperties.getMaxLagSeconds()
+        );
+        taskScheduler.scheduleWithFixedDelay(
+            routingDataSource::checkReplicaLag,
+            Duration.ofSeconds(replicaProperties.getLagCheckIntervalSeconds())
+        );
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private HikariDataSource bindHikariProperties(HikariDataSource dataSource, String role) {
+        Binder.get(env).bind(HIKARI_PROPERTIES, Bindable.ofInstance(dataSource));
+        // Both pools would otherwise share the configured name, and so their metrics
+        if (dataSource.getPoolName() != null) {
+            dataSource.setPoolName(dataSource.getPoolName() + "-" + role);
+        }
+        return dataSource;
+    }
+}
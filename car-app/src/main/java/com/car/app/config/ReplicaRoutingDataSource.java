@@ -0,0 +1,137 @@
+package com.car.app.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.OptionalLong;
+import javax.sql.DataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source sending the connections of read-only transactions to a replica of the database, and all the others to
+ * the primary.
+ * <p>
+ * Read-only transactions go back to the primary while the replica lags behind by more than the allowed delay, or
+ * while its delay cannot be known, as last seen by {@link #checkReplicaLag()}. Until the first check, the primary is used.
+ * <p>
+ * Whether a transaction is read-only is only known once it has begun, after the transaction manager got its
+ * connection: this data source must be used through a {@link LazyConnectionDataSourceProxy}, which only fetches the
+ * connection when the first statement is run.
+ * <p>
+ * As the replica may lag behind, the Hibernate session of a transaction sent to the replica only reads from the second
+ * level cache: the rows read from the replica are not cached for the transactions sent to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String[] LAG_COLUMNS = { "Seconds_Behind_Source", "Seconds_Behind_Master" };
+
+    enum Target {
+        PRIMARY,
+        REPLICA,
+    }
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource replica;
+
+    private final String lagQuery;
+
+    private final long maxLagSeconds;
+
+    private volatile boolean replicaInSync;
+
+    /**
+     * @param primary the data source of the writes and of the reads that cannot go to the replica.
+     * @param replica the data source of the read-only transactions.
+     * @param lagQuery the query returning the replication delay of the replica, in seconds.
+     * @param maxLagSeconds the replication delay above which the replica is not read from.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || !replicaInSync) {
+            return Target.PRIMARY;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+            }
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * @return whether the read-only transactions currently go to the replica.
+     */
+    public boolean isReplicaInSync() {
+        return replicaInSync;
+    }
+
+    /**
+     * Checks the replication delay of the replica, and routes the read-only transactions accordingly.
+     */
+    public void checkReplicaLag() {
+        OptionalLong lagSeconds;
+        try {
+            lagSeconds = replicaLagSeconds();
+        } catch (SQLException e) {
+            log.warn("Could not check the replication delay of the replica: {}", e.getMessage());
+            lagSeconds = OptionalLong.empty();
+        }
+        boolean inSync = lagSeconds.isPresent() && lagSeconds.getAsLong() <= maxLagSeconds;
+        if (inSync && !replicaInSync) {
+            log.info("Replica in sync, read-only transactions go to the replica");
+        } else if (!inSync && replicaInSync) {
+            log.warn(
+                "Replica lagging behind ({} seconds), read-only transactions go to the primary",
+                lagSeconds.isPresent() ? lagSeconds.getAsLong() : "unknown"
+            );
+        }
+        replicaInSync = inSync;
+    }
+
+    private OptionalLong replicaLagSeconds() throws SQLException {
+        try (
+            Connection connection = replica.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery(lagQuery)
+        ) {
+            if (!resultSet.next()) {
+                // Not replicating at all
+                return OptionalLong.empty();
+            }
+            long lagSeconds = resultSet.getLong(lagColumn(resultSet.getMetaData()));
+            // The delay is NULL while the replication is stopped
+            return resultSet.wasNull() ? OptionalLong.empty() : OptionalLong.of(lagSeconds);
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            for (String lagColumn : LAG_COLUMNS) {
+                if (lagColumn.equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                    return column;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -1,6 +1,7 @@
 package com.car.app.domain;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import javax.persistence.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -26,8 +27,12 @@ public class Car implements Serializable {
     @Column(name = "model")
     private String model;
 
-    @Column(name = "price")
-    private String price;
+    @Column(name = "price", precision = 21, scale = 2)
+    private BigDecimal price;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
@@ -70,19 +75,32 @@ public class Car implements Serializable {
         this.model = model;
     }
 
-    public String getPrice() {
+    public BigDecimal getPrice() {
         return this.price;
     }
 
-    public Car price(String price) {
+    public Car price(BigDecimal price) {
         this.setPrice(price);
         return this;
     }
 
-    public void setPrice(String price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Car version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -109,7 +127,8 @@ public class Car implements Serializable {
             "id=" + getId() +
             ", make='" + getMake() + "'" +
             ", model='" + getModel() + "'" +
-            ", price='" + getPrice() + "'" +
+            ", price=" + getPrice() +
+            ", version=" + getVersion() +
             "}";
     }
 }
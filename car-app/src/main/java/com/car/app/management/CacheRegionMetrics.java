@@ -0,0 +1,130 @@
+package com.car.app.management;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Binds the hit, miss, put and eviction counts of the Hibernate cache regions to Micrometer, one set of meters per region.
+ * <p>
+ * Hits, misses and puts are read from the Hibernate statistics (so {@code hibernate.generate_statistics} must be enabled).
+ * The near-cache meters are read from the Hazelcast map backing the region: a near-cache miss is a get sent to the
+ * member owning the entry, so comparing near-cache hits and misses tells how many remote gets the near-cache saves.
+ */
+public class CacheRegionMetrics implements MeterBinder {
+
+    public static final String REQUESTS_METER_NAME = "cache.region.requests";
+    public static final String PUTS_METER_NAME = "cache.region.puts";
+    public static final String EVICTIONS_METER_NAME = "cache.region.evictions";
+    public static final String NEAR_CACHE_REQUESTS_METER_NAME = "cache.region.near-cache.requests";
+    public static final String OWNED_GETS_METER_NAME = "cache.region.owned.gets";
+    public static final String REGION_DIMENSION = "region";
+    public static final String RESULT_DIMENSION = "result";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final List<String> regions;
+
+    /**
+     * @param entityManagerFactory the factory the regions belong to, only used once the meters are read.
+     * @param hazelcastInstance the Hazelcast instance holding the maps backing the regions.
+     * @param regions the names of the entity and query regions to report.
+     */
+    public CacheRegionMetrics(EntityManagerFactory entityManagerFactory, HazelcastInstance hazelcastInstance, List<String> regions) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.hazelcastInstance = hazelcastInstance;
+        this.regions = regions;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : regions) {
+            regionCounter(REQUESTS_METER_NAME, region, "The number of requests made to the cache region", CacheRegionStatistics::getHitCount)
+                .tag(RESULT_DIMENSION, "hit")
+                .register(registry);
+            regionCounter(REQUESTS_METER_NAME, region, "The number of requests made to the cache region", CacheRegionStatistics::getMissCount)
+                .tag(RESULT_DIMENSION, "miss")
+                .register(registry);
+            regionCounter(PUTS_METER_NAME, region, "The number of entries put in the cache region", CacheRegionStatistics::getPutCount)
+                .register(registry);
+            FunctionCounter
+                .builder(EVICTIONS_METER_NAME, this, metrics -> metrics.nearCacheEvictions(region))
+                .description("The number of entries evicted from the near-cache of the region")
+                .tag(REGION_DIMENSION, region)
+                .register(registry);
+            nearCacheCounter(region, NearCacheStats::getHits).tag(RESULT_DIMENSION, "hit").register(registry);
+            nearCacheCounter(region, NearCacheStats::getMisses).tag(RESULT_DIMENSION, "miss").register(registry);
+            FunctionCounter
+                .builder(OWNED_GETS_METER_NAME, this, metrics -> metrics.localMapStats(region).getGetOperationCount())
+                .description("The number of gets served by this member for the entries of the region it owns")
+                .tag(REGION_DIMENSION, region)
+                .register(registry);
+        }
+    }
+
+    private FunctionCounter.Builder<CacheRegionMetrics> nearCacheCounter(String region, ToLongFunction<NearCacheStats> count) {
+        return FunctionCounter
+            .builder(NEAR_CACHE_REQUESTS_METER_NAME, this, metrics -> metrics.nearCacheCount(region, count))
+            .description("The number of requests made to the near-cache of the region, misses are sent to the owning member")
+            .tag(REGION_DIMENSION, region);
+    }
+
+    private FunctionCounter.Builder<CacheRegionMetrics> regionCounter(
+        String name,
+        String region,
+        String description,
+        ToLongFunction<CacheRegionStatistics> count
+    ) {
+        return FunctionCounter
+            .builder(name, this, metrics -> metrics.regionCount(region, count))
+            .description(description)
+            .tag(REGION_DIMENSION, region);
+    }
+
+    private double regionCount(String region, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics = regionStatistics(region);
+        return regionStatistics == null ? 0 : count.applyAsLong(regionStatistics);
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return null;
+        }
+        // Query regions are only created on their first use, until then there is nothing to report
+        CacheRegionStatistics queryRegionStatistics = statistics.getQueryRegionStatistics(region);
+        if (queryRegionStatistics != null) {
+            return queryRegionStatistics;
+        }
+        try {
+            return statistics.getCacheRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private double nearCacheEvictions(String region) {
+        return nearCacheCount(region, NearCacheStats::getEvictions);
+    }
+
+    private double nearCacheCount(String region, ToLongFunction<NearCacheStats> count) {
+        // There are no near-cache statistics when the map has no near-cache
+        NearCacheStats nearCacheStats = localMapStats(region).getNearCacheStats();
+        return nearCacheStats == null ? 0 : count.applyAsLong(nearCacheStats);
+    }
+
+    private LocalMapStats localMapStats(String region) {
+        return hazelcastInstance.getMap(region).getLocalMapStats();
+    }
+}
@@ -0,0 +1,115 @@
+package com.car.app.management;
+
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.LifecycleEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.IntSupplier;
+
+/**
+ * Binds the size of the Hazelcast cluster, and what can be seen of a split-brain, to Micrometer.
+ * <p>
+ * The cluster is split when this member sees fewer members than there are instances registered in the discovery
+ * service. It happens for a short while every time an instance starts or stops, so only a split that lasts longer
+ * than the split-brain merge delay means the caches have diverged.
+ */
+public class HazelcastClusterMetrics implements MeterBinder {
+
+    public static final String CLUSTER_SIZE_METER_NAME = "hazelcast.cluster.size";
+    public static final String EXPECTED_CLUSTER_SIZE_METER_NAME = "hazelcast.cluster.expected.size";
+    public static final String SPLIT_BRAIN_METER_NAME = "hazelcast.cluster.split-brain";
+    public static final String MEMBERSHIP_CHANGES_METER_NAME = "hazelcast.cluster.membership.changes";
+    public static final String MERGES_METER_NAME = "hazelcast.cluster.merges";
+    public static final String TYPE_DIMENSION = "type";
+    public static final String RESULT_DIMENSION = "result";
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final IntSupplier expectedClusterSize;
+
+    /**
+     * @param hazelcastInstance the Hazelcast instance whose cluster is reported.
+     * @param expectedClusterSize the number of instances registered in the discovery service, 0 when unknown.
+     */
+    public HazelcastClusterMetrics(HazelcastInstance hazelcastInstance, IntSupplier expectedClusterSize) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.expectedClusterSize = expectedClusterSize;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge
+            .builder(CLUSTER_SIZE_METER_NAME, this, HazelcastClusterMetrics::clusterSize)
+            .description("The number of members this member sees in its Hazelcast cluster")
+            .register(registry);
+        Gauge
+            .builder(EXPECTED_CLUSTER_SIZE_METER_NAME, this, metrics -> metrics.expectedClusterSize.getAsInt())
+            .description("The number of instances registered in the discovery service")
+            .register(registry);
+        Gauge
+            .builder(SPLIT_BRAIN_METER_NAME, this, metrics -> metrics.isSplit() ? 1 : 0)
+            .description("1 when this member sees fewer members than there are registered instances, 0 otherwise")
+            .register(registry);
+
+        Counter added = membershipChanges(registry, "added");
+        Counter removed = membershipChanges(registry, "removed");
+        hazelcastInstance
+            .getCluster()
+            .addMembershipListener(
+                new MembershipListener() {
+                    @Override
+                    public void memberAdded(MembershipEvent membershipEvent) {
+                        added.increment();
+                    }
+
+                    @Override
+                    public void memberRemoved(MembershipEvent membershipEvent) {
+                        removed.increment();
+                    }
+                }
+            );
+
+        Counter merged = merges(registry, "merged");
+        Counter failed = merges(registry, "failed");
+        hazelcastInstance
+            .getLifecycleService()
+            .addLifecycleListener(event -> {
+                if (event.getState() == LifecycleEvent.LifecycleState.MERGED) {
+                    merged.increment();
+                } else if (event.getState() == LifecycleEvent.LifecycleState.MERGE_FAILED) {
+                    failed.increment();
+                }
+            });
+    }
+
+    private Counter membershipChanges(MeterRegistry registry, String type) {
+        return Counter
+            .builder(MEMBERSHIP_CHANGES_METER_NAME)
+            .description("The number of members that joined or left the Hazelcast cluster")
+            .tag(TYPE_DIMENSION, type)
+            .register(registry);
+    }
+
+    private Counter merges(MeterRegistry registry, String result) {
+        return Counter
+            .builder(MERGES_METER_NAME)
+            .description("The number of times this member merged into another cluster after a split-brain")
+            .tag(RESULT_DIMENSION, result)
+            .register(registry);
+    }
+
+    private int clusterSize() {
+        if (!hazelcastInstance.getLifecycleService().isRunning()) {
+            return 0;
+        }
+        return hazelcastInstance.getCluster().getMembers().size();
+    }
+
+    private boolean isSplit() {
+        return clusterSize() < expectedClusterSize.getAsInt();
+    }
+}
@@ -1,7 +1,14 @@
 package com.car.app.repository;
 
 import com.car.app.domain.Car;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,47 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long> {}
+public interface CarRepository extends CarRepositoryWithJdbcWrites, JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
+    /**
+     * Hibernate query cache region of the cacheable Car queries.
+     * Hibernate invalidates it whenever the {@code car} table is written through JPA.
+     */
+    String QUERY_CACHE_REGION = "com.car.app.query.Car";
+
+    /**
+     * Name of the table in {@link com.car.app.domain.TableVersion}.
+     */
+    String TABLE_NAME = "car";
+
+    @Query("select car.version from Car car where car.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @QueryHints(
+        value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION),
+        },
+        forCounting = true
+    )
+    @Override
+    Page<Car> findAll(Specification<Car> spec, Pageable pageable);
+
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION),
+        }
+    )
+    @Override
+    long count(Specification<Car> spec);
+
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query("select car from Car car order by car.id")
+    Stream<Car> streamAllOrderedById();
+}
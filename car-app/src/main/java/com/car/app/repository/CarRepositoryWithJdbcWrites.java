@@ -0,0 +1,38 @@
+package com.car.app.repository;
+
+import com.car.app.domain.Car;
+import java.util.List;
+
+/**
+ * Write operations for the Car entity, issued as plain JDBC statements.
+ * <p>
+ * {@code Car} ids are generated by the database ({@code IDENTITY}), which prevents Hibernate from batching inserts:
+ * these methods are used instead when many cars are written at once, or when a car is changed without loading it.
+ * They bypass Hibernate, so the callers must evict the second-level cache entries of the cars they change.
+ */
+public interface CarRepositoryWithJdbcWrites {
+    /**
+     * Insert the given cars with a single multi-row {@code INSERT}, and set their generated ids.
+     *
+     * @param cars the cars to insert, without id.
+     */
+    void insertAll(List<Car> cars);
+
+    /**
+     * Update the given cars with one JDBC batch of {@code UPDATE} statements.
+     *
+     * @param cars the cars to update, with their id.
+     * @return the number of rows updated for each car, in the same order.
+     */
+    int[] updateAll(List<Car> cars);
+
+    /**
+     * Update the non-null fields of a car with a single {@code UPDATE}, only if the car is still at the given version.
+     * The version of the car is incremented.
+     *
+     * @param car the fields to update, with the id of the car.
+     * @param version the version the car is expected to be at.
+     * @return 1 if the car was updated, 0 if it does not exist or is at another version.
+     */
+    int partialUpdate(Car car, long version);
+}
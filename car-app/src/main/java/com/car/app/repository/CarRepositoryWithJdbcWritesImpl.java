@@ -0,0 +1,92 @@
+package com.car.app.repository;
+
+import com.car.app.domain.Car;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+public class CarRepositoryWithJdbcWritesImpl implements CarRepositoryWithJdbcWrites {
+
+    private static final String INSERT_SQL = "INSERT INTO car (make, model, price) VALUES ";
+
+    private static final String INSERT_VALUES_SQL = "(?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE car SET make = ?, model = ?, price = ?, version = version + 1 WHERE id = ?";
+
+    private static final String PARTIAL_UPDATE_SQL =
+        "UPDATE car SET make = COALESCE(?, make), model = COALESCE(?, model), price = COALESCE(?, price), version = version + 1 " +
+        "WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CarRepositoryWithJdbcWritesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Car> cars) {
+        if (cars.isEmpty()) {
+            return;
+        }
+        String sql = INSERT_SQL + String.join(", ", Collections.nCopies(cars.size(), INSERT_VALUES_SQL));
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql, new String[] { "id" });
+                int index = 1;
+                for (Car car : cars) {
+                    ps.setString(index++, car.getMake());
+                    ps.setString(index++, car.getModel());
+                    ps.setBigDecimal(index++, car.getPrice());
+                }
+                return ps;
+            },
+            keyHolder
+        );
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != cars.size()) {
+            throw new IllegalStateException("Expected " + cars.size() + " generated ids but got " + keys.size());
+        }
+        for (int i = 0; i < cars.size(); i++) {
+            // The generated key column is named "ID" by H2 and "GENERATED_KEY" by MySQL
+            cars.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    @Override
+    public int[] updateAll(List<Car> cars) {
+        if (cars.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate
+            .batchUpdate(
+                UPDATE_SQL,
+                cars,
+                cars.size(),
+                (ps, car) -> {
+                    ps.setString(1, car.getMake());
+                    ps.setString(2, car.getModel());
+                    ps.setBigDecimal(3, car.getPrice());
+                    ps.setLong(4, car.getId());
+                }
+            )[0];
+    }
+
+    @Override
+    public int partialUpdate(Car car, long version) {
+        return jdbcTemplate.update(
+            PARTIAL_UPDATE_SQL,
+            ps -> {
+                ps.setString(1, car.getMake());
+                ps.setString(2, car.getModel());
+                ps.setBigDecimal(3, car.getPrice());
+                ps.setLong(4, car.getId());
+                ps.setLong(5, version);
+            }
+        );
+    }
+}
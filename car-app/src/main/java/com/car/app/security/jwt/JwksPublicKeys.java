@@ -0,0 +1,143 @@
+package com.car.app.security.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Public keys verifying the tokens signed by the gateway, by the {@code kid} header of the tokens, fetched from its
+ * JSON Web Key Set.
+ * <p>
+ * The key set is fetched when a token names a key that is not known yet, which is how a key added to the gateway is
+ * picked up, and at most once per {@code minRefreshInterval} so that tokens with made-up key ids do not turn into
+ * requests to the gateway. Keys stay known when the key set cannot be fetched.
+ */
+public class JwksPublicKeys {
+
+    private final Logger log = LoggerFactory.getLogger(JwksPublicKeys.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Supplier<String> jwksSource;
+
+    private final long minRefreshIntervalMillis;
+
+    private final Clock clock;
+
+    private volatile Map<String, PublicKey> publicKeys = Map.of();
+
+    private long lastRefreshMillis;
+
+    private boolean refreshed;
+
+    /**
+     * @param jwksSource fetches the JSON Web Key Set of the gateway.
+     * @param minRefreshInterval the minimum delay between two fetches.
+     */
+    public JwksPublicKeys(Supplier<String> jwksSource, Duration minRefreshInterval) {
+        this(jwksSource, minRefreshInterval, Clock.systemUTC());
+    }
+
+    JwksPublicKeys(Supplier<String> jwksSource, Duration minRefreshInterval, Clock clock) {
+        this.jwksSource = jwksSource;
+        this.minRefreshIntervalMillis = minRefreshInterval.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * @param keyId the {@code kid} header of a token.
+     * @return the public key verifying the tokens signed with this key, {@code null} if the gateway does not publish it.
+     */
+    public PublicKey getPublicKey(String keyId) {
+        PublicKey publicKey = publicKeys.get(keyId);
+        if (publicKey != null) {
+            return publicKey;
+        }
+        synchronized (this) {
+            // Another thread may have fetched it meanwhile
+            publicKey = publicKeys.get(keyId);
+            if (publicKey == null && refreshAllowed()) {
+                refresh();
+                publicKey = publicKeys.get(keyId);
+            }
+        }
+        return publicKey;
+    }
+
+    private boolean refreshAllowed() {
+        long now = clock.millis();
+        if (refreshed && now - lastRefreshMillis < minRefreshIntervalMillis) {
+            return false;
+        }
+        refreshed = true;
+        lastRefreshMillis = now;
+        return true;
+    }
+
+    private void refresh() {
+        try {
+            publicKeys = parse(jwksSource.get());
+            log.debug("Fetched the JWT public keys {}", publicKeys.keySet());
+        } catch (RuntimeException | IOException e) {
+            log.warn("Could not fetch the JWT public keys, keeping {}: {}", publicKeys.keySet(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the EC P-256 and RSA signing keys of a JSON Web Key Set (RFC 7517), skipping the others.
+     */
+    static Map<String, PublicKey> parse(String jwks) throws IOException {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        for (JsonNode jwk : objectMapper.readTree(jwks).path("keys")) {
+            String keyId = jwk.path("kid").asText(null);
+            if (keyId == null || !"sig".equals(jwk.path("use").asText("sig"))) {
+                continue;
+            }
+            try {
+                PublicKey publicKey = toPublicKey(jwk);
+                if (publicKey != null) {
+                    publicKeys.put(keyId, publicKey);
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                throw new IOException("Invalid JWT public key " + keyId, e);
+            }
+        }
+        return Map.copyOf(publicKeys);
+    }
+
+    private static PublicKey toPublicKey(JsonNode jwk) throws GeneralSecurityException {
+        String keyType = jwk.path("kty").asText();
+        if ("EC".equals(keyType) && "P-256".equals(jwk.path("crv").asText())) {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            ECPoint point = new ECPoint(unsignedInteger(jwk, "x"), unsignedInteger(jwk, "y"));
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+        }
+        if ("RSA".equals(keyType)) {
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(unsignedInteger(jwk, "n"), unsignedInteger(jwk, "e")));
+        }
+        return null;
+    }
+
+    private static BigInteger unsignedInteger(JsonNode jwk, String member) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path(member).asText()));
+    }
+}
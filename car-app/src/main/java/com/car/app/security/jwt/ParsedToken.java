@@ -0,0 +1,70 @@
+package com.car.app.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Result of {@link TokenProvider#parseToken(String)}: the verified claims of a token and its authentication, or why
+ * the token is not valid.
+ */
+public final class ParsedToken {
+
+    /**
+     * Why a token is not valid, as counted by the {@code security.authentication.invalid-tokens} meter.
+     */
+    public enum Failure {
+        EXPIRED,
+        UNSUPPORTED,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        /**
+         * The token is empty, or its claims are.
+         */
+        ILLEGAL_ARGUMENT,
+    }
+
+    private final Claims claims;
+
+    private final Authentication authentication;
+
+    private final Failure failure;
+
+    private ParsedToken(Claims claims, Authentication authentication, Failure failure) {
+        this.claims = claims;
+        this.authentication = authentication;
+        this.failure = failure;
+    }
+
+    static ParsedToken valid(Claims claims, Authentication authentication) {
+        return new ParsedToken(claims, authentication, null);
+    }
+
+    static ParsedToken invalid(Failure failure) {
+        return new ParsedToken(null, null, failure);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+
+    /**
+     * @return the verified claims of the token, {@code null} if it is not valid.
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * @return the authentication of the token, {@code null} if it is not valid.
+     */
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    /**
+     * @return why the token is not valid, {@code null} if it is valid.
+     */
+    public Failure getFailure() {
+        return failure;
+    }
+}
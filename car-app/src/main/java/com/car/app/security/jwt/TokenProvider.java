@@ -7,10 +7,13 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.PublicKey;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -29,8 +32,12 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    private static final int MAX_AUTHORITY_COMBINATIONS = 1000;
+
     private final Key key;
 
+    private final JwksPublicKeys jwksPublicKeys;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
@@ -39,22 +46,41 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
-        byte[] keyBytes;
+        this(jHipsterProperties, securityMetersService, Optional.empty());
+    }
+
+    /**
+     * @param jwksPublicKeys the public keys of the gateway, verifying the tokens it signs with a {@code kid} header;
+     * tokens without one are verified with the JWT secret key while it is configured.
+     */
+    @Autowired
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        SecurityMetersService securityMetersService,
+        Optional<JwksPublicKeys> jwksPublicKeys
+    ) {
+        this.jwksPublicKeys = jwksPublicKeys.orElse(null);
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
             log.debug("Using a Base64-encoded JWT secret key");
-            keyBytes = Decoders.BASE64.decode(secret);
-        } else {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        } else if (!ObjectUtils.isEmpty(jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret())) {
             log.warn(
                 "Warning: the JWT key used is not Base64-encoded. " +
                 "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security."
             );
             secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
-            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        } else if (this.jwksPublicKeys != null) {
+            log.debug("No JWT secret key, only the tokens signed with the keys of the gateway are accepted");
+            key = null;
+        } else {
+            throw new IllegalStateException("Neither a JWT secret key nor the public keys of the gateway are configured");
         }
-        key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KeyIdResolver()).build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
@@ -83,44 +109,109 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return getAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
     }
 
     public boolean validateToken(String authToken) {
+        return parseToken(authToken).isValid();
+    }
+
+    /**
+     * Verifies the token and builds its authentication, parsing the token only once.
+     * <p>
+     * A token that is not valid is counted by the {@link SecurityMetersService}, as with {@link #validateToken(String)}.
+     *
+     * @param authToken the token to parse.
+     * @return the claims and the authentication of the token, or why it is not valid.
+     */
+    public ParsedToken parseToken(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
 
-            return true;
+            return ParsedToken.valid(claims, getAuthentication(claims, authToken));
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
             this.securityMetersService.trackTokenUnsupported();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.UNSUPPORTED);
         } catch (MalformedJwtException e) {
             this.securityMetersService.trackTokenMalformed();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.MALFORMED);
         } catch (SignatureException e) {
             this.securityMetersService.trackTokenInvalidSignature();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.INVALID_SIGNATURE);
         } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
             log.error("Token validation error {}", e.getMessage());
+            return ParsedToken.invalid(ParsedToken.Failure.ILLEGAL_ARGUMENT);
+        }
+    }
+
+    /**
+     * Picks the key verifying a token: the public key of the gateway named by its {@code kid} header, the JWT secret
+     * for a token without one. The parser then rejects a token whose algorithm does not match the type of its key.
+     */
+    private Key getVerificationKey(JwsHeader<?> header) {
+        String keyId = header.getKeyId();
+        if (keyId != null) {
+            PublicKey publicKey = jwksPublicKeys == null ? null : jwksPublicKeys.getPublicKey(keyId);
+            if (publicKey == null) {
+                throw new SignatureException("Unknown JWT signing key " + keyId);
+            }
+            return publicKey;
+        }
+        if (key == null) {
+            throw new SignatureException("Tokens signed with a JWT secret key are not accepted");
+        }
+        return key;
+    }
+
+    private Authentication getAuthentication(Claims claims, String token) {
+        Object authoritiesClaim = claims.get(AUTHORITIES_KEY);
+        List<GrantedAuthority> authorities = getAuthorities(authoritiesClaim == null ? "" : authoritiesClaim.toString());
+
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    private List<GrantedAuthority> getAuthorities(String authoritiesClaim) {
+        // Tokens carry one of a few combinations of authorities, each is split and built once
+        List<GrantedAuthority> authorities = authoritiesByClaim.get(authoritiesClaim);
+        if (authorities == null) {
+            authorities =
+                Arrays
+                    .stream(authoritiesClaim.split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toUnmodifiableList());
+            if (authoritiesByClaim.size() < MAX_AUTHORITY_COMBINATIONS) {
+                authoritiesByClaim.putIfAbsent(authoritiesClaim, authorities);
+            }
+        }
+        return authorities;
+    }
+
+    private class KeyIdResolver implements SigningKeyResolver {
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return getVerificationKey(header);
         }
 
-        return false;
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, String plaintext) {
+            return getVerificationKey(header);
+        }
     }
 }
@@ -0,0 +1,118 @@
+package com.car.app.service;
+
+import com.car.app.domain.*; // for static metamodels
+import com.car.app.domain.Car;
+import com.car.app.repository.CarRepository;
+import com.car.app.service.criteria.CarCriteria;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for executing complex queries for {@link Car} entities in the database.
+ * The main input is a {@link CarCriteria} which gets converted to {@link Specification},
+ * so that the filtering and the sorting are done by the database.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CarQueryService {
+
+    private final Logger log = LoggerFactory.getLogger(CarQueryService.class);
+
+    private final CarRepository carRepository;
+
+    private final EntityManager entityManager;
+
+    public CarQueryService(CarRepository carRepository, EntityManager entityManager) {
+        this.carRepository = carRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return a {@link Page} of {@link Car} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    public Page<Car> findByCriteria(CarCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        return carRepository.findAll(createSpecification(criteria), page);
+    }
+
+    /**
+     * Return the {@link Car}s which match the criteria, ordered by id, starting after the given id.
+     * Unlike {@link #findByCriteria(CarCriteria, Pageable)}, no count query is run and the cost of a page does not
+     * depend on how far it is in the listing.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor the id after which the page starts, or {@code null} for the first page.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities, in ascending id order.
+     */
+    public List<Car> findByCriteriaAfter(CarCriteria criteria, Long cursor, int size) {
+        log.debug("find by criteria : {}, after: {}, size: {}", criteria, cursor, size);
+        Specification<Car> specification = createSpecification(criteria);
+        if (cursor != null) {
+            specification = specification.and((root, query, builder) -> builder.greaterThan(root.get(Car_.id), cursor));
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Car> query = builder.createQuery(Car.class);
+        Root<Car> root = query.from(Car.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(builder.asc(root.get(Car_.id)));
+        return entityManager
+            .createQuery(query)
+            .setMaxResults(size)
+            .setHint(org.hibernate.jpa.QueryHints.HINT_CACHEABLE, true)
+            .setHint(org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, CarRepository.QUERY_CACHE_REGION)
+            .getResultList();
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    public long countByCriteria(CarCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        return carRepository.count(createSpecification(criteria));
+    }
+
+    /**
+     * Function to convert {@link CarCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Car> createSpecification(CarCriteria criteria) {
+        Specification<Car> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getMake() != null) {
+                specification = specification.and((root, query, builder) -> builder.equal(root.get(Car_.make), criteria.getMake()));
+            }
+            if (criteria.getModel() != null) {
+                specification = specification.and((root, query, builder) -> builder.equal(root.get(Car_.model), criteria.getModel()));
+            }
+            if (criteria.getPriceMin() != null) {
+                specification =
+                    specification.and((root, query, builder) -> builder.greaterThanOrEqualTo(root.get(Car_.price), criteria.getPriceMin()));
+            }
+            if (criteria.getPriceMax() != null) {
+                specification =
+                    specification.and((root, query, builder) -> builder.lessThanOrEqualTo(root.get(Car_.price), criteria.getPriceMax()));
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,241 @@
+package com.car.app.service;
+
+import com.car.app.config.ApplicationProperties;
+import com.car.app.domain.Car;
+import com.car.app.repository.CarRepository;
+import com.car.app.repository.TableVersionRepository;
+import com.car.app.service.dto.BulkItemResultDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service Implementation for {@link Car} reads and writes that are too large to be handled in one go.
+ */
+@Service
+@Transactional
+public class CarService {
+
+    private final Logger log = LoggerFactory.getLogger(CarService.class);
+
+    private final CarRepository carRepository;
+
+    private final TableVersionRepository tableVersionRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Cars.Bulk bulkProperties;
+
+    public CarService(
+        CarRepository carRepository,
+        TableVersionRepository tableVersionRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.carRepository = carRepository;
+        this.tableVersionRepository = tableVersionRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkProperties = applicationProperties.getCars().getBulk();
+    }
+
+    /**
+     * Walk through all the cars, ordered by id, with a database cursor.
+     * <p>
+     * Each car is detached from the persistence context once it has been handed to the consumer,
+     * so memory use does not depend on the size of the table.
+     *
+     * @param consumer called once for every car.
+     * @return the number of cars that were read.
+     */
+    @Transactional(readOnly = true)
+    public long streamAll(Consumer<Car> consumer) {
+        log.debug("Request to stream all Cars");
+        AtomicLong count = new AtomicLong();
+        try (Stream<Car> cars = carRepository.streamAllOrderedById()) {
+            cars.forEach(car -> {
+                consumer.accept(car);
+                entityManager.detach(car);
+                count.incrementAndGet();
+            });
+        }
+        return count.get();
+    }
+
+    /**
+     * Create or update cars in chunks: cars without id are inserted, cars with an id are updated.
+     * <p>
+     * Each chunk is written in its own transaction with one multi-row insert and one JDBC batch of updates, so
+     * only one chunk of cars is held in memory at a time. When called within an existing transaction, all the
+     * chunks join it.
+     * <p>
+     * An item that is not a car gets a {@code 400 (Bad Request)} result and the next items are still saved. When the
+     * JSON itself is malformed, the next items cannot be read: the item gets a {@code 400 (Bad Request)} result and the
+     * results of the items saved so far are returned.
+     *
+     * @param cars the cars to save, read lazily.
+     * @return the result of every car, in the order they were read.
+     * @throws IOException if the cars cannot be read.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BulkItemResultDTO> bulkSave(MappingIterator<Car> cars) throws IOException {
+        int chunkSize = bulkProperties.getChunkSize();
+        log.debug("Request to bulk save Cars in chunks of {}", chunkSize);
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        List<Car> chunk = new ArrayList<>(chunkSize);
+        List<String> errors = new ArrayList<>(chunkSize);
+        while (true) {
+            try {
+                if (!cars.hasNextValue()) {
+                    break;
+                }
+                Car car = cars.nextValue();
+                chunk.add(car);
+                errors.add(car == null ? "A car is required" : null);
+            } catch (JsonMappingException e) {
+                // the item is well-formed JSON, the iterator goes on with the next one
+                chunk.add(null);
+                errors.add("Invalid car: " + e.getOriginalMessage());
+            } catch (JsonProcessingException e) {
+                results.addAll(saveChunk(chunk, errors, results.size()));
+                results.add(
+                    new BulkItemResultDTO(
+                        results.size(),
+                        null,
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Malformed JSON, this item and the next ones were not read: " + e.getOriginalMessage()
+                    )
+                );
+                return results;
+            }
+            if (chunk.size() == chunkSize) {
+                results.addAll(saveChunk(chunk, errors, results.size()));
+                chunk.clear();
+                errors.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(saveChunk(chunk, errors, results.size()));
+        }
+        return results;
+    }
+
+    private List<BulkItemResultDTO> saveChunk(List<Car> chunk, List<String> errors, int offset) {
+        return transactionTemplate.execute(status -> {
+            List<Car> creates = new ArrayList<>();
+            List<Car> updates = new ArrayList<>();
+            boolean[] created = new boolean[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                Car car = chunk.get(i);
+                if (errors.get(i) != null) {
+                    continue;
+                }
+                if (car.getId() == null) {
+                    creates.add(car);
+                    created[i] = true;
+                } else {
+                    updates.add(car);
+                }
+            }
+            int[] updateCounts = new int[0];
+            if (!creates.isEmpty() || !updates.isEmpty()) {
+                carRepository.insertAll(creates);
+                updateCounts = carRepository.updateAll(updates);
+                tableVersionRepository.increment(CarRepository.TABLE_NAME);
+                // The rows were changed behind Hibernate's back
+                evictCaches(updates);
+            }
+
+            List<BulkItemResultDTO> results = new ArrayList<>(chunk.size());
+            int updateIndex = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                Car car = chunk.get(i);
+                if (errors.get(i) != null) {
+                    results.add(new BulkItemResultDTO(offset + i, null, HttpStatus.BAD_REQUEST.value(), errors.get(i)));
+                } else if (created[i]) {
+                    results.add(new BulkItemResultDTO(offset + i, car.getId(), HttpStatus.CREATED.value(), null));
+                } else if (updateCounts[updateIndex++] == 0) {
+                    results.add(new BulkItemResultDTO(offset + i, car.getId(), HttpStatus.NOT_FOUND.value(), "Entity not found"));
+                } else {
+                    results.add(new BulkItemResultDTO(offset + i, car.getId(), HttpStatus.OK.value(), null));
+                }
+            }
+            return results;
+        });
+    }
+
+    /**
+     * Update the non-null fields of a car with a single statement, only if the car is still at the given version.
+     * <p>
+     * The car is not read: a car already loaded in the current persistence context is not refreshed.
+     *
+     * @param car the fields to update, with the id of the car.
+     * @param version the version the car is expected to be at.
+     * @return the new version of the car, or empty if there is no such car.
+     * @throws ObjectOptimisticLockingFailureException if the car is at another version.
+     */
+    public Optional<Long> partialUpdate(Car car, long version) {
+        log.debug("Request to partially update Car : {} at version {}", car, version);
+        if (carRepository.partialUpdate(car, version) == 0) {
+            // Telling a missing car from a stale version is only needed when the update failed
+            if (carRepository.existsById(car.getId())) {
+                throw new ObjectOptimisticLockingFailureException(Car.class, car.getId());
+            }
+            return Optional.empty();
+        }
+        tableVersionRepository.increment(CarRepository.TABLE_NAME);
+        evictCaches(List.of(car));
+        return Optional.of(version + 1);
+    }
+
+    /**
+     * Evict the second-level cache entries of cars changed with plain JDBC, and the cached Car queries.
+     * <p>
+     * They are evicted again once the transaction has committed: until then, a concurrent transaction may still read
+     * the rows as they were, and cache them again.
+     */
+    private void evictCaches(List<Car> cars) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<Long> ids = cars.stream().map(Car::getId).collect(Collectors.toList());
+        evict(cache, ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(cache, ids);
+                    }
+                }
+            );
+        }
+    }
+
+    private static void evict(Cache cache, List<Long> ids) {
+        ids.forEach(id -> cache.evict(Car.class, id));
+        cache.unwrap(org.hibernate.Cache.class).evictQueryRegion(CarRepository.QUERY_CACHE_REGION);
+    }
+}
@@ -0,0 +1,108 @@
+package com.car.app.service.criteria;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Criteria class for the {@link com.car.app.domain.Car} entity. This class is used
+ * in {@link com.car.app.web.rest.CarResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /cars?make=Renault&priceMin=1000&priceMax=5000&sort=price,asc}
+ * Every field is optional, and a {@code null} field does not filter anything.
+ */
+public class CarCriteria implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String make;
+
+    private String model;
+
+    private BigDecimal priceMin;
+
+    private BigDecimal priceMax;
+
+    public CarCriteria() {}
+
+    public CarCriteria(CarCriteria other) {
+        this.make = other.make;
+        this.model = other.model;
+        this.priceMin = other.priceMin;
+        this.priceMax = other.priceMax;
+    }
+
+    public CarCriteria copy() {
+        return new CarCriteria(this);
+    }
+
+    public String getMake() {
+        return make;
+    }
+
+    public void setMake(String make) {
+        this.make = make;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public BigDecimal getPriceMin() {
+        return priceMin;
+    }
+
+    public void setPriceMin(BigDecimal priceMin) {
+        this.priceMin = priceMin;
+    }
+
+    public BigDecimal getPriceMax() {
+        return priceMax;
+    }
+
+    public void setPriceMax(BigDecimal priceMax) {
+        this.priceMax = priceMax;
+    }
+
+    public boolean isEmpty() {
+        return make == null && model == null && priceMin == null && priceMax == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CarCriteria that = (CarCriteria) o;
+        return (
+            Objects.equals(make, that.make) &&
+            Objects.equals(model, that.model) &&
+            Objects.equals(priceMin, that.priceMin) &&
+            Objects.equals(priceMax, that.priceMax)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(make, model, priceMin, priceMax);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarCriteria{" +
+            (make != null ? "make=" + make + ", " : "") +
+            (model != null ? "model=" + model + ", " : "") +
+            (priceMin != null ? "priceMin=" + priceMin + ", " : "") +
+            (priceMax != null ? "priceMax=" + priceMax + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,91 @@
+package com.car.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The outcome of one item of a bulk request.
+ */
+public class BulkItemResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+
+    private Long id;
+
+    private int status;
+
+    private String error;
+
+    public BulkItemResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkItemResultDTO(int index, Long id, int status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BulkItemResultDTO)) {
+            return false;
+        }
+        BulkItemResultDTO that = (BulkItemResultDTO) o;
+        return index == that.index && status == that.status && Objects.equals(id, that.id) && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, status, error);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkItemResultDTO{" +
+            "index=" + getIndex() +
+            ", id=" + getId() +
+            ", status=" + getStatus() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
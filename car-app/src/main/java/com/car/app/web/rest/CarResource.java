@@ -1,20 +1,50 @@
 package com.car.app.web.rest;
 
+import com.car.app.config.ApplicationProperties;
 import com.car.app.domain.Car;
 import com.car.app.repository.CarRepository;
+import com.car.app.repository.TableVersionRepository;
+import com.car.app.service.CarQueryService;
+import com.car.app.service.CarService;
+import com.car.app.service.criteria.CarCriteria;
+import com.car.app.service.dto.BulkItemResultDTO;
 import com.car.app.web.rest.errors.BadRequestAlertException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -29,13 +59,46 @@ public class CarResource {
 
     private static final String ENTITY_NAME = "carsappCar";
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String NDJSON_ETAG_SUFFIX = "-ndjson";
+
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "make", "model", "price");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CarRepository carRepository;
 
-    public CarResource(CarRepository carRepository) {
+    private final TableVersionRepository tableVersionRepository;
+
+    private final CarService carService;
+
+    private final CarQueryService carQueryService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Cars.Listing listingProperties;
+
+    // browsers revalidate the cars every time, shared caches serve them for a while
+    private final CacheControl cacheControl;
+
+    public CarResource(
+        CarRepository carRepository,
+        TableVersionRepository tableVersionRepository,
+        CarService carService,
+        CarQueryService carQueryService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
         this.carRepository = carRepository;
+        this.tableVersionRepository = tableVersionRepository;
+        this.carService = carService;
+        this.carQueryService = carQueryService;
+        this.objectMapper = objectMapper;
+        this.listingProperties = applicationProperties.getCars().getListing();
+        int sharedMaxAgeSeconds = applicationProperties.getCars().getSharedMaxAgeSeconds();
+        this.cacheControl = CacheControl.maxAge(0, TimeUnit.SECONDS).sMaxAge(sharedMaxAgeSeconds, TimeUnit.SECONDS);
     }
 
     /**
@@ -52,14 +115,42 @@ public class CarResource {
             throw new BadRequestAlertException("A new car cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Car result = carRepository.save(car);
+        tableVersionRepository.increment(CarRepository.TABLE_NAME);
         return ResponseEntity
             .created(new URI("/api/cars/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /cars/_bulk} : Create or update many cars at once.
+     * <p>
+     * The body is either a JSON array or newline-delimited JSON. Cars without id are created, cars with an id are
+     * updated. Cars are read and saved in chunks, each chunk in its own transaction. An item that is not a car gets a
+     * {@code 400 (Bad Request)} result; after malformed JSON, the next items are not read and the results end with a
+     * {@code 400 (Bad Request)} one for the malformed item.
+     *
+     * @param request the request holding the cars to save.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of every car read,
+     * or with status {@code 400 (Bad Request)} if the body is not JSON.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/cars/_bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ResponseEntity<List<BulkItemResultDTO>> bulkSaveCars(HttpServletRequest request) throws IOException {
+        log.debug("REST request to bulk save Cars");
+        try (MappingIterator<Car> cars = objectMapper.readerFor(Car.class).readValues(request.getInputStream())) {
+            return ResponseEntity.ok(carService.bulkSave(cars));
+        } catch (JsonProcessingException e) {
+            throw new BadRequestAlertException("Invalid bulk payload", ENTITY_NAME, "bulkinvalid");
+        }
+    }
+
     /**
      * {@code PUT  /cars/:id} : Updates an existing car.
+     * <p>
+     * When the car has a version, the update fails with {@code 409 (Conflict)} if the car has been changed since that
+     * version. Without a version, the car is overwritten whatever its current version.
      *
      * @param id the id of the car to save.
      * @param car the car to update.
@@ -79,11 +170,16 @@ public class CarResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!carRepository.existsById(id)) {
+        Optional<Long> version = carRepository.findVersionById(id);
+        if (version.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (car.getVersion() == null) {
+            car.setVersion(version.get());
+        }
 
         Car result = carRepository.save(car);
+        tableVersionRepository.increment(CarRepository.TABLE_NAME);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, car.getId().toString()))
@@ -92,18 +188,27 @@ public class CarResource {
 
     /**
      * {@code PATCH  /cars/:id} : Partial updates given fields of an existing car, field will ignore if it is null
+     * <p>
+     * With an {@code If-Match} header holding the {@code ETag} of the car, the car is updated with a single statement,
+     * without being read, only if it is still at that version.
      *
      * @param id the id of the car to save.
      * @param car the car to update.
+     * @param ifMatch the {@code ETag} the car is expected to have, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated car,
+     * or with status {@code 204 (No Content)} and the new {@code ETag} of the car if {@code If-Match} is given,
      * or with status {@code 400 (Bad Request)} if the car is not valid,
      * or with status {@code 404 (Not Found)} if the car is not found,
+     * or with status {@code 409 (Conflict)} if the car does not have the {@code ETag} of {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the car couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/cars/{id}", consumes = { "application/json", "application/merge-patch+json" })
-    public ResponseEntity<Car> partialUpdateCar(@PathVariable(value = "id", required = false) final Long id, @RequestBody Car car)
-        throws URISyntaxException {
+    public ResponseEntity<Car> partialUpdateCar(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestBody Car car,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
         log.debug("REST request to partial update Car partially : {}, {}", id, car);
         if (car.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -112,6 +217,19 @@ public class CarResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            return carService
+                .partialUpdate(car, version(ifMatch))
+                .map(version ->
+                    ResponseEntity
+                        .noContent()
+                        .eTag(eTag(version))
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, car.getId().toString()))
+                        .<Car>build()
+                )
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        }
+
         if (!carRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
@@ -132,6 +250,7 @@ public class CarResource {
                 return existingCar;
             })
             .map(carRepository::save);
+        tableVersionRepository.increment(CarRepository.TABLE_NAME);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -141,26 +260,204 @@ public class CarResource {
 
     /**
      * {@code GET  /cars} : get all the cars.
+     * <p>
+     * The cars are filtered by {@code make}, {@code model}, {@code priceMin} and {@code priceMax} in the database, and one
+     * page of them is returned, of {@code size} cars or {@code application.cars.listing.default-page-size} ones by default:
+     * <ul>
+     * <li>with {@code page} or {@code sort}, an offset page with the total count in the {@code X-Total-Count} header;</li>
+     * <li>else a page ordered by id starting after the {@code cursor} id, or the first one without a cursor. The cursor
+     * of the next page is sent in the {@code X-Next-Cursor} and {@code Link} headers.</li>
+     * </ul>
+     * The {@code ETag} is the change counter of the car table: when it matches {@code If-None-Match}, the cars are not
+     * read and {@code 304 (Not Modified)} is returned. As the cars can also be streamed from the same URI, responses vary
+     * by {@code Accept}. Shared caches may serve them for {@code application.cars.shared-max-age-seconds}.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the id of the last car of the previous page.
+     * @param size the maximum number of cars to return.
+     * @param page the page number of an offset page.
+     * @param sort the sort order of an offset page.
+     * @param webRequest the request, holding the {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cars in body,
+     * or with status {@code 304 (Not Modified)} if no car has changed.
      */
     @GetMapping("/cars")
-    public List<Car> getAllCars() {
-        log.debug("REST request to get all Cars");
-        return carRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Car>> getAllCars(
+        CarCriteria criteria,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "page", required = false) Integer page,
+        Sort sort,
+        WebRequest webRequest
+    ) {
+        Optional<String> eTag = tableVersionRepository.findVersion(CarRepository.TABLE_NAME).map(CarResource::eTag);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag.get())
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(cacheControl)
+                .build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        headers.setCacheControl(cacheControl);
+        eTag.ifPresent(headers::setETag);
+        int pageSize = size == null ? listingProperties.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > listingProperties.getMaxPageSize()) {
+            throw new BadRequestAlertException("Invalid page size", ENTITY_NAME, "pagesizeinvalid");
+        }
+        if (page != null || sort.isSorted()) {
+            log.debug("REST request to get Cars by criteria: {}, page: {}, sort: {}", criteria, page, sort);
+            if (page != null && page < 0) {
+                throw new BadRequestAlertException("Invalid page", ENTITY_NAME, "pageinvalid");
+            }
+            if (sort.stream().anyMatch(order -> !SORTABLE_PROPERTIES.contains(order.getProperty()))) {
+                throw new BadRequestAlertException("Invalid sort property", ENTITY_NAME, "sortinvalid");
+            }
+            Page<Car> result = carQueryService.findByCriteria(criteria, PageRequest.of(page == null ? 0 : page, pageSize, sort));
+            headers.addAll(PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), result));
+            return ResponseEntity.ok().headers(headers).body(result.getContent());
+        }
+        log.debug("REST request to get Cars by criteria: {}, after: {}", criteria, cursor);
+        List<Car> cars = carQueryService.findByCriteriaAfter(criteria, cursor, pageSize);
+        if (cars.size() == pageSize) {
+            String nextCursor = cars.get(cars.size() - 1).getId().toString();
+            String nextPage = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("cursor", nextCursor)
+                .replaceQueryParam("size", pageSize)
+                .toUriString();
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+            headers.add(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(cars);
+    }
+
+    /**
+     * {@code GET  /cars} : as {@link #getAllCars}, for a request holding {@code If-None-Match}.
+     * <p>
+     * The cars are read from the primary database rather than from a replica, which may not have the last changes yet
+     * and would then answer {@code 304 (Not Modified)} to a client revalidating its cars right after changing one.
+     */
+    @GetMapping(value = "/cars", headers = HttpHeaders.IF_NONE_MATCH)
+    @Transactional
+    public ResponseEntity<List<Car>> revalidateAllCars(
+        CarCriteria criteria,
+        @RequestParam(value = "cursor", required = false) Long cursor,
+        @RequestParam(value = "size", required = false) Integer size,
+        @RequestParam(value = "page", required = false) Integer page,
+        Sort sort,
+        WebRequest webRequest
+    ) {
+        return getAllCars(criteria, cursor, size, page, sort, webRequest);
+    }
+
+    /**
+     * {@code GET  /cars/count} : count all the cars.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/cars/count")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Long> countCars(CarCriteria criteria) {
+        log.debug("REST request to count Cars by criteria: {}", criteria);
+        return ResponseEntity.ok().body(carQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /cars} : stream all the cars as newline-delimited JSON.
+     * <p>
+     * Cars are read with a database cursor and written one at a time, so the whole table is never held in memory.
+     * As for the list, the {@code ETag} is the change counter of the car table, with an {@code -ndjson} suffix so that it
+     * never matches the {@code ETag} of the list: when it matches {@code If-None-Match}, the cars are not read and
+     * {@code 304 (Not Modified)} is returned.
+     *
+     * @param webRequest the request, holding the {@code If-None-Match} header.
+     * @param response the response the cars are written to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping(value = "/cars", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(readOnly = true)
+    public void streamAllCars(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        Optional<String> eTag = tableVersionRepository
+            .findVersion(CarRepository.TABLE_NAME)
+            .map(version -> "\"" + version + NDJSON_ETAG_SUFFIX + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return;
+        }
+        log.debug("REST request to stream all Cars");
+        eTag.ifPresent(value -> response.setHeader(HttpHeaders.ETAG, value));
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ObjectWriter writer = objectMapper.writerFor(Car.class);
+        OutputStream out = response.getOutputStream();
+        int flushSize = listingProperties.getStreamFlushSize();
+        AtomicLong written = new AtomicLong();
+        carService.streamAll(car -> {
+            try {
+                out.write(writer.writeValueAsBytes(car));
+                out.write('\n');
+                if (written.incrementAndGet() % flushSize == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
+    /**
+     * {@code GET  /cars} : as {@link #streamAllCars}, for a request holding {@code If-None-Match}, reading the cars from
+     * the primary database as {@link #revalidateAllCars} does.
+     */
+    @GetMapping(value = "/cars", produces = MediaType.APPLICATION_NDJSON_VALUE, headers = HttpHeaders.IF_NONE_MATCH)
+    @Transactional
+    public void revalidateStreamOfAllCars(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        streamAllCars(webRequest, response);
     }
 
     /**
      * {@code GET  /cars/:id} : get the "id" car.
+     * <p>
+     * The {@code ETag} is the version of the car: when it matches {@code If-None-Match}, the car is not read and
+     * {@code 304 (Not Modified)} is returned. Shared caches may serve the car for
+     * {@code application.cars.shared-max-age-seconds}.
      *
      * @param id the id of the car to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the car, or with status {@code 404 (Not Found)}.
+     * @param webRequest the request, holding the {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the car,
+     * or with status {@code 304 (Not Modified)} if the car has not changed, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/cars/{id}")
-    public ResponseEntity<Car> getCar(@PathVariable Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Car> getCar(@PathVariable Long id, WebRequest webRequest) {
         log.debug("REST request to get Car : {}", id);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = carRepository.findVersionById(id).map(CarResource::eTag);
+            if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+            }
+        }
         Optional<Car> car = carRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(car);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        car.ifPresent(existingCar -> headers.setETag(eTag(existingCar.getVersion())));
+        return ResponseUtil.wrapOrNotFound(car, headers);
+    }
+
+    /**
+     * {@code GET  /cars/:id} : as {@link #getCar}, for a request holding {@code If-None-Match}, reading the car from the
+     * primary database as {@link #revalidateAllCars} does.
+     */
+    @GetMapping(value = "/cars/{id}", headers = HttpHeaders.IF_NONE_MATCH)
+    @Transactional
+    public ResponseEntity<Car> revalidateCar(@PathVariable Long id, WebRequest webRequest) {
+        return getCar(id, webRequest);
     }
 
     /**
@@ -173,9 +470,26 @@ public class CarResource {
     public ResponseEntity<Void> deleteCar(@PathVariable Long id) {
         log.debug("REST request to delete Car : {}", id);
         carRepository.deleteById(id);
+        tableVersionRepository.increment(CarRepository.TABLE_NAME);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static long version(String eTag) {
+        String value = eTag.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not one of our ETags
+            }
+        }
+        throw new BadRequestAlertException("Invalid If-Match header", ENTITY_NAME, "ifmatchinvalid");
+    }
 }
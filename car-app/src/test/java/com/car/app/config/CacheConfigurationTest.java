@@ -0,0 +1,138 @@
+package com.car.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.car.app.management.CacheRegionMetrics;
+import com.hazelcast.client.impl.clientside.HazelcastClientProxy;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.hibernate.CacheEnvironment;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.mock.env.MockEnvironment;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the client topology of the {@link CacheConfiguration} class: an in-JVM member stands in for the
+ * Hazelcast cluster.
+ */
+class CacheConfigurationTest {
+
+    private static final String CLUSTER_NAME = "carsapp-cache-tier-test";
+
+    private static final String CAR_REGION = "com.car.app.domain.Car";
+
+    private HazelcastInstance member;
+
+    private CacheConfiguration cacheConfiguration;
+
+    private ApplicationProperties applicationProperties;
+
+    // The meters only hold a weak reference to the binder
+    private CacheRegionMetrics cacheRegionMetrics;
+
+    @BeforeEach
+    public void setup() {
+        Config config = new Config();
+        config.setInstanceName("carsapp-cache-tier");
+        config.setClusterName(CLUSTER_NAME);
+        config.getNetworkConfig().setPort(5901);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        member = Hazelcast.newHazelcastInstance(config);
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().setTopology(ApplicationProperties.Cache.Topology.CLIENT);
+        applicationProperties.getCache().getClient().setClusterName(CLUSTER_NAME);
+        applicationProperties
+            .getCache()
+            .getClient()
+            .setAddresses(List.of("127.0.0.1:" + member.getCluster().getLocalMember().getAddress().getPort()));
+        cacheConfiguration =
+            new CacheConfiguration(new MockEnvironment(), new ServerProperties(), mock(DiscoveryClient.class), applicationProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheConfiguration.destroy();
+    }
+
+    @Test
+    void shouldConnectAsClientToTheCluster() {
+        HazelcastInstance client = cacheConfiguration.hazelcastInstance(new JHipsterProperties());
+
+        assertThat(client).isInstanceOf(HazelcastClientProxy.class);
+        assertThat(client.getName()).isEqualTo("carsapp");
+        assertThat(client.getCluster().getMembers()).hasSize(1);
+        assertThat(cacheConfiguration.hazelcastInstance(new JHipsterProperties())).isSameAs(client);
+
+        client.getMap(CAR_REGION).put(1L, "car");
+        assertThat(member.getMap(CAR_REGION).get(1L)).isEqualTo("car");
+    }
+
+    @Test
+    void shouldKeepReadEntriesInTheClientNearCache() {
+        member.getMap(CAR_REGION).put(1L, "car");
+        HazelcastInstance client = cacheConfiguration.hazelcastInstance(new JHipsterProperties());
+        IMap<Long, String> cars = client.getMap(CAR_REGION);
+
+        cars.get(1L);
+        cars.get(1L);
+
+        assertThat(cars.getLocalMapStats().getNearCacheStats().getHits()).isEqualTo(1);
+        assertThat(cars.getLocalMapStats().getNearCacheStats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotUseNearCacheWhenDisabled() {
+        applicationProperties.getCache().getClient().getNearCache().setEnabled(false);
+        member.getMap(CAR_REGION).put(1L, "car");
+        HazelcastInstance client = cacheConfiguration.hazelcastInstance(new JHipsterProperties());
+        IMap<Long, String> cars = client.getMap(CAR_REGION);
+
+        cars.get(1L);
+
+        assertThat(cars.getLocalMapStats().getNearCacheStats()).isNull();
+    }
+
+    @Test
+    void shouldReportRegionMetricsFromTheClient() {
+        HazelcastInstance client = cacheConfiguration.hazelcastInstance(new JHipsterProperties());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cacheRegionMetrics = new CacheRegionMetrics(mock(EntityManagerFactory.class), client, List.of(CAR_REGION));
+        cacheRegionMetrics.bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get(CacheRegionMetrics.OWNED_GETS_METER_NAME).functionCounter().count()).isZero();
+        assertThat(meterRegistry.get(CacheRegionMetrics.EVICTIONS_METER_NAME).functionCounter().count()).isZero();
+    }
+
+    @Test
+    void shouldMakeHibernateUseTheClient() {
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        cacheConfiguration.hazelcastHibernatePropertiesCustomizer().customize(hibernateProperties);
+
+        assertThat(hibernateProperties)
+            .containsEntry(CacheEnvironment.USE_NATIVE_CLIENT, "true")
+            .containsEntry(CacheEnvironment.NATIVE_CLIENT_INSTANCE_NAME, "carsapp");
+    }
+
+    @Test
+    void shouldLeaveHibernatePropertiesUntouchedWhenEmbedded() {
+        applicationProperties.getCache().setTopology(ApplicationProperties.Cache.Topology.EMBEDDED);
+        Map<String, Object> hibernateProperties = new HashMap<>();
+        cacheConfiguration.hazelcastHibernatePropertiesCustomizer().customize(hibernateProperties);
+
+        assertThat(hibernateProperties).isEmpty();
+    }
+}
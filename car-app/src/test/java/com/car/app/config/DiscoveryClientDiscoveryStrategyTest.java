@@ -0,0 +1,147 @@
+package com.car.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.DiscoveryStrategyConfig;
+import com.hazelcast.config.ListenerConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.LifecycleEvent;
+import com.hazelcast.core.LifecycleListener;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.properties.ClusterProperty;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+/**
+ * Unit tests for the {@link DiscoveryClientDiscoveryStrategy} class.
+ */
+class DiscoveryClientDiscoveryStrategyTest {
+
+    private static final String SERVICE_ID = "carsapp";
+
+    private static final Function<ServiceInstance, InetSocketAddress> MEMBER_ADDRESS = instance ->
+        new InetSocketAddress("127.0.0.1", instance.getPort() + 5701);
+
+    private final List<HazelcastInstance> members = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        members.forEach(HazelcastInstance::shutdown);
+    }
+
+    @Test
+    void shouldLookUpTheInstancesOnEveryDiscovery() {
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances(SERVICE_ID))
+            .thenReturn(List.of(serviceInstance(8081)))
+            .thenReturn(List.of(serviceInstance(8081), serviceInstance(8082)));
+        DiscoveryClientDiscoveryStrategy strategy = new DiscoveryClientDiscoveryStrategy(
+            Logger.getLogger(DiscoveryClientDiscoveryStrategy.class),
+            discoveryClient,
+            SERVICE_ID,
+            MEMBER_ADDRESS
+        );
+
+        assertThat(strategy.discoverNodes()).extracting(node -> node.getPrivateAddress().getPort()).containsExactly(13782);
+        assertThat(strategy.discoverNodes()).extracting(node -> node.getPrivateAddress().getPort()).containsExactly(13782, 13783);
+    }
+
+    @Test
+    void shouldSkipUnresolvedInstances() {
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(List.of(serviceInstance(8081)));
+        DiscoveryClientDiscoveryStrategy strategy = new DiscoveryClientDiscoveryStrategy(
+            Logger.getLogger(DiscoveryClientDiscoveryStrategy.class),
+            discoveryClient,
+            SERVICE_ID,
+            instance -> InetSocketAddress.createUnresolved("unknown.invalid", 5701)
+        );
+
+        Iterable<DiscoveryNode> nodes = strategy.discoverNodes();
+
+        assertThat(nodes).isEmpty();
+    }
+
+    @Test
+    void shouldMergeMembersRegisteredAfterTheyStarted() throws InterruptedException {
+        // Both members start before either is registered, so each forms its own cluster
+        List<ServiceInstance> registry = new CopyOnWriteArrayList<>();
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(registry);
+        String clusterName = "carsapp-discovery-" + UUID.randomUUID();
+        CountDownLatch merged = new CountDownLatch(1);
+        HazelcastInstance first = newMember(discoveryClient, clusterName, merged);
+        HazelcastInstance second = newMember(discoveryClient, clusterName, merged);
+        assertThat(first.getCluster().getMembers()).hasSize(1);
+        assertThat(second.getCluster().getMembers()).hasSize(1);
+
+        // The instances are registered with the ports of their members
+        registry.add(serviceInstance(first.getCluster().getLocalMember().getAddress().getPort()));
+        registry.add(serviceInstance(second.getCluster().getLocalMember().getAddress().getPort()));
+
+        assertThat(merged.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.getCluster().getMembers()).hasSize(2);
+        assertThat(second.getCluster().getMembers()).hasSize(2);
+    }
+
+    private HazelcastInstance newMember(DiscoveryClient discoveryClient, String clusterName, CountDownLatch merged) {
+        Config config = new Config();
+        config.setInstanceName(clusterName + "-" + members.size());
+        config.setClusterName(clusterName);
+        // the first free port from 5701
+        config.getNetworkConfig().setPortAutoIncrement(true);
+        config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.setProperty(ClusterProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+        // the split clusters look for each other every second, and merge right away
+        config.setProperty(ClusterProperty.MERGE_FIRST_RUN_DELAY_SECONDS.getName(), "1");
+        config.setProperty(ClusterProperty.MERGE_NEXT_RUN_DELAY_SECONDS.getName(), "1");
+        config.setProperty(ClusterProperty.WAIT_SECONDS_BEFORE_JOIN.getName(), "0");
+        config.setProperty(ClusterProperty.MAX_WAIT_SECONDS_BEFORE_JOIN.getName(), "0");
+        config.addListenerConfig(
+            new ListenerConfig(
+                (LifecycleListener) event -> {
+                    if (event.getState() == LifecycleEvent.LifecycleState.MERGED) {
+                        merged.countDown();
+                    }
+                }
+            )
+        );
+        config
+            .getNetworkConfig()
+            .getJoin()
+            .getDiscoveryConfig()
+            .addDiscoveryStrategyConfig(
+                new DiscoveryStrategyConfig(
+                    new DiscoveryClientDiscoveryStrategy.Factory(
+                        discoveryClient,
+                        SERVICE_ID,
+                        instance -> new InetSocketAddress("127.0.0.1", instance.getPort())
+                    )
+                )
+            );
+        HazelcastInstance member = Hazelcast.newHazelcastInstance(config);
+        members.add(member);
+        return member;
+    }
+
+    private ServiceInstance serviceInstance(int port) {
+        return new DefaultServiceInstance(SERVICE_ID + "-" + port, SERVICE_ID, "127.0.0.1", port, false);
+    }
+}
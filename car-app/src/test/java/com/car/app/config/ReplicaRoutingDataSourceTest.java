@@ -0,0 +1,233 @@
+package com.car.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unit tests for the {@link ReplicaRoutingDataSource} class, with two H2 databases standing for the primary and the replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWriteTransaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    public void setup() {
+        primary = new JdbcTemplate(database("primary"));
+        replica = new JdbcTemplate(database("replica"));
+        primary.execute("CREATE TABLE server (name VARCHAR(20))");
+        primary.execute("INSERT INTO server VALUES ('primary')");
+        replica.execute("CREATE TABLE server (name VARCHAR(20))");
+        replica.execute("INSERT INTO server VALUES ('replica')");
+        replica.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replica.execute("INSERT INTO replica_lag VALUES (0)");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary.getDataSource(), replica.getDataSource(), LAG_QUERY, 10);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void shouldReadFromTheReplicaInReadOnlyTransactions() {
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.isReplicaInSync()).isTrue();
+        assertThat(serverIn(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldUseThePrimaryInReadWriteTransactions() {
+        routingDataSource.checkReplicaLag();
+
+        assertThat(serverIn(readWriteTransaction)).isEqualTo("primary");
+        assertThat(server()).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldUseThePrimaryUntilTheLagIsChecked() {
+        assertThat(routingDataSource.isReplicaInSync()).isFalse();
+        assertThat(serverIn(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldFallBackToThePrimaryWhileTheReplicaLags() {
+        routingDataSource.checkReplicaLag();
+        replica.update("UPDATE replica_lag SET seconds = 11");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(serverIn(readOnlyTransaction)).isEqualTo("primary");
+
+        replica.update("UPDATE replica_lag SET seconds = 10");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(serverIn(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    @Test
+    void shouldFallBackToThePrimaryWhenTheReplicationIsStopped() {
+        routingDataSource.checkReplicaLag();
+        replica.update("UPDATE replica_lag SET seconds = NULL");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.isReplicaInSync()).isFalse();
+
+        replica.update("DELETE FROM replica_lag");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(routingDataSource.isReplicaInSync()).isFalse();
+    }
+
+    @Test
+    void shouldFallBackToThePrimaryWhenTheLagCannotBeChecked() {
+        routingDataSource.checkReplicaLag();
+        replica.execute("DROP TABLE replica_lag");
+        routingDataSource.checkReplicaLag();
+
+        assertThat(serverIn(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldNotCacheWhatIsReadFromTheReplica() {
+        routingDataSource.checkReplicaLag();
+        Session readOnlySession = mock(Session.class);
+        Session readWriteSession = mock(Session.class);
+
+        readOnlyTransaction.execute(status -> serverIn(readOnlySession));
+        readWriteTransaction.execute(status -> serverIn(readWriteSession));
+
+        verify(readOnlySession).setCacheMode(CacheMode.GET);
+        verify(readWriteSession, never()).setCacheMode(CacheMode.GET);
+    }
+
+    @Test
+    void shouldReadTheMySqlLagColumn() {
+        replica.execute("CREATE TABLE replica_status (Replica_IO_State VARCHAR(20), Seconds_Behind_Source BIGINT)");
+        replica.execute("INSERT INTO replica_status VALUES ('Waiting for source', 3)");
+        ReplicaRoutingDataSource mySqlRoutingDataSource = new ReplicaRoutingDataSource(
+            primary.getDataSource(),
+            replica.getDataSource(),
+            "SELECT * FROM replica_status",
+            2
+        );
+
+        mySqlRoutingDataSource.checkReplicaLag();
+
+        assertThat(mySqlRoutingDataSource.isReplicaInSync()).isFalse();
+    }
+
+    @Test
+    void shouldConfigureOnePoolPerDatabase() {
+        new ApplicationContextRunner()
+            .withUserConfiguration(ReplicaDataSourceTestConfiguration.class, ReplicaDataSourceConfiguration.class)
+            .withPropertyValues(
+                "spring.datasource.url=jdbc:h2:mem:primary-pool;DB_CLOSE_DELAY=-1",
+                "spring.datasource.hikari.pool-name=Hikari",
+                "spring.datasource.hikari.maximum-pool-size=3",
+                "application.datasource.replica.url=jdbc:h2:mem:replica-pool;DB_CLOSE_DELAY=-1",
+                "application.datasource.replica.lag-query=SELECT 0"
+            )
+            .run(context -> {
+                HikariDataSource primaryPool = context.getBean("primaryDataSource", HikariDataSource.class);
+                HikariDataSource replicaPool = context.getBean("replicaDataSource", HikariDataSource.class);
+                assertThat(primaryPool.getPoolName()).isEqualTo("Hikari-primary");
+                assertThat(primaryPool.getJdbcUrl()).startsWith("jdbc:h2:mem:primary-pool");
+                assertThat(replicaPool.getPoolName()).isEqualTo("Hikari-replica");
+                assertThat(replicaPool.getJdbcUrl()).startsWith("jdbc:h2:mem:replica-pool");
+                assertThat(replicaPool.getMaximumPoolSize()).isEqualTo(3);
+                assertThat(context.getBean(DataSource.class)).isInstanceOf(LazyConnectionDataSourceProxy.class);
+            });
+    }
+
+    @Test
+    void shouldNotConfigureAReplicaWithoutItsUrl() {
+        new ApplicationContextRunner()
+            .withUserConfiguration(ReplicaDataSourceTestConfiguration.class, ReplicaDataSourceConfiguration.class)
+            .run(context -> assertThat(context).doesNotHaveBean("replicaDataSource"));
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private String serverIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> server());
+    }
+
+    private String serverIn(Session session) {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return server();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        }
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    @Configuration
+    @EnableConfigurationProperties({ DataSourceProperties.class, ApplicationProperties.class })
+    static class ReplicaDataSourceTestConfiguration {
+
+        @Bean(destroyMethod = "shutdown")
+        public TaskScheduler taskScheduler() {
+            ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+            taskScheduler.initialize();
+            return taskScheduler;
+        }
+    }
+}
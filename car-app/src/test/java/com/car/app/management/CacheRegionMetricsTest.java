@@ -0,0 +1,153 @@
+package com.car.app.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheRegionMetricsTest {
+
+    private static final String QUERY_REGION = "com.car.app.query.Car";
+
+    private static final String ENTITY_REGION = "com.car.app.domain.Car";
+
+    private static final List<String> REGIONS = List.of(ENTITY_REGION, QUERY_REGION);
+
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    private NearCacheStats nearCacheStats;
+
+    private LocalMapStats localMapStats;
+
+    private CacheRegionMetrics cacheRegionMetrics;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = mock(Statistics.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        nearCacheStats = mock(NearCacheStats.class);
+
+        localMapStats = mock(LocalMapStats.class);
+        when(localMapStats.getNearCacheStats()).thenReturn(nearCacheStats);
+        IMap<Object, Object> map = mock(IMap.class);
+        when(map.getLocalMapStats()).thenReturn(localMapStats);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getMap(anyString())).thenReturn(map);
+
+        // Function counters only hold a weak reference to the binder
+        cacheRegionMetrics = new CacheRegionMetrics(entityManagerFactory, hazelcastInstance, REGIONS);
+        cacheRegionMetrics.bindTo(meterRegistry);
+    }
+
+    @Test
+    void testRegionMetersAreCreated() {
+        for (String region : REGIONS) {
+            meterRegistry.get(CacheRegionMetrics.REQUESTS_METER_NAME).tag("region", region).tag("result", "hit").functionCounter();
+            meterRegistry.get(CacheRegionMetrics.REQUESTS_METER_NAME).tag("region", region).tag("result", "miss").functionCounter();
+            meterRegistry.get(CacheRegionMetrics.PUTS_METER_NAME).tag("region", region).functionCounter();
+            meterRegistry.get(CacheRegionMetrics.EVICTIONS_METER_NAME).tag("region", region).functionCounter();
+            meterRegistry.get(CacheRegionMetrics.NEAR_CACHE_REQUESTS_METER_NAME).tag("region", region).tag("result", "hit").functionCounter();
+            meterRegistry.get(CacheRegionMetrics.NEAR_CACHE_REQUESTS_METER_NAME).tag("region", region).tag("result", "miss").functionCounter();
+            meterRegistry.get(CacheRegionMetrics.OWNED_GETS_METER_NAME).tag("region", region).functionCounter();
+        }
+    }
+
+    @Test
+    void testMetersReadRegionStatistics() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        CacheRegionStatistics queryRegionStatistics = mock(CacheRegionStatistics.class);
+        when(queryRegionStatistics.getHitCount()).thenReturn(5L);
+        when(queryRegionStatistics.getMissCount()).thenReturn(2L);
+        when(queryRegionStatistics.getPutCount()).thenReturn(2L);
+        when(statistics.getQueryRegionStatistics(QUERY_REGION)).thenReturn(queryRegionStatistics);
+        CacheRegionStatistics entityRegionStatistics = mock(CacheRegionStatistics.class);
+        when(entityRegionStatistics.getHitCount()).thenReturn(7L);
+        when(statistics.getCacheRegionStatistics(ENTITY_REGION)).thenReturn(entityRegionStatistics);
+        when(nearCacheStats.getEvictions()).thenReturn(3L);
+
+        assertThat(requests(QUERY_REGION, "hit")).isEqualTo(5);
+        assertThat(requests(QUERY_REGION, "miss")).isEqualTo(2);
+        assertThat(meterRegistry.get(CacheRegionMetrics.PUTS_METER_NAME).tag("region", QUERY_REGION).functionCounter().count())
+            .isEqualTo(2);
+        assertThat(requests(ENTITY_REGION, "hit")).isEqualTo(7);
+        assertThat(meterRegistry.get(CacheRegionMetrics.EVICTIONS_METER_NAME).tag("region", QUERY_REGION).functionCounter().count())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void testMetersReadNearCacheStatistics() {
+        when(nearCacheStats.getHits()).thenReturn(40L);
+        when(nearCacheStats.getMisses()).thenReturn(10L);
+        when(localMapStats.getGetOperationCount()).thenReturn(25L);
+
+        assertThat(nearCacheRequests(ENTITY_REGION, "hit")).isEqualTo(40);
+        assertThat(nearCacheRequests(ENTITY_REGION, "miss")).isEqualTo(10);
+        assertThat(meterRegistry.get(CacheRegionMetrics.OWNED_GETS_METER_NAME).tag("region", ENTITY_REGION).functionCounter().count())
+            .isEqualTo(25);
+    }
+
+    @Test
+    void testNearCacheMetersAreZeroWithoutNearCache() {
+        when(localMapStats.getNearCacheStats()).thenReturn(null);
+
+        assertThat(nearCacheRequests(ENTITY_REGION, "hit")).isZero();
+        assertThat(meterRegistry.get(CacheRegionMetrics.EVICTIONS_METER_NAME).tag("region", ENTITY_REGION).functionCounter().count())
+            .isZero();
+    }
+
+    @Test
+    void testMetersAreZeroForUnknownRegions() {
+        when(statistics.isStatisticsEnabled()).thenReturn(true);
+        when(statistics.getCacheRegionStatistics(anyString())).thenThrow(new IllegalArgumentException("Unknown region"));
+
+        assertThat(requests(QUERY_REGION, "hit")).isZero();
+        assertThat(requests(ENTITY_REGION, "miss")).isZero();
+    }
+
+    @Test
+    void testMetersAreZeroWhenStatisticsAreDisabled() {
+        when(statistics.isStatisticsEnabled()).thenReturn(false);
+
+        assertThat(requests(QUERY_REGION, "hit")).isZero();
+        assertThat(requests(ENTITY_REGION, "hit")).isZero();
+    }
+
+    private double requests(String region, String result) {
+        return meterRegistry
+            .get(CacheRegionMetrics.REQUESTS_METER_NAME)
+            .tag("region", region)
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
+
+    private double nearCacheRequests(String region, String result) {
+        return meterRegistry
+            .get(CacheRegionMetrics.NEAR_CACHE_REQUESTS_METER_NAME)
+            .tag("region", region)
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
+}
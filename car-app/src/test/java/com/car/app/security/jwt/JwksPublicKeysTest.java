@@ -0,0 +1,186 @@
+package com.car.app.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JwksPublicKeysTest {
+
+    private static final Duration MIN_REFRESH_INTERVAL = Duration.ofSeconds(10);
+
+    private final AtomicReference<String> jwks = new AtomicReference<>();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private JwksPublicKeys jwksPublicKeys;
+
+    @BeforeEach
+    public void setup() {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        jwksPublicKeys =
+            new JwksPublicKeys(
+                () -> {
+                    fetches.incrementAndGet();
+                    if (jwks.get() == null) {
+                        throw new IllegalStateException("gateway unavailable");
+                    }
+                    return jwks.get();
+                },
+                MIN_REFRESH_INTERVAL,
+                clock
+            );
+    }
+
+    @Test
+    void testReadsEcAndRsaKeys() throws Exception {
+        KeyPair ecKeyPair = generateEcKeyPair();
+        KeyPair rsaKeyPair = generateRsaKeyPair();
+
+        Map<String, PublicKey> publicKeys = JwksPublicKeys.parse(
+            jwks(Map.of("es256-1", ecKeyPair.getPublic(), "rs256-1", rsaKeyPair.getPublic()))
+        );
+
+        assertThat(publicKeys).containsOnlyKeys("es256-1", "rs256-1");
+        assertThat(publicKeys.get("es256-1").getEncoded()).isEqualTo(ecKeyPair.getPublic().getEncoded());
+        assertThat(publicKeys.get("rs256-1").getEncoded()).isEqualTo(rsaKeyPair.getPublic().getEncoded());
+    }
+
+    @Test
+    void testSkipsKeysThatDoNotSign() throws Exception {
+        Map<String, PublicKey> publicKeys = JwksPublicKeys.parse(
+            "{\"keys\":[{\"kty\":\"oct\",\"kid\":\"hs\",\"k\":\"c2VjcmV0\"},{\"kty\":\"RSA\",\"kid\":\"enc\",\"use\":\"enc\",\"n\":\"AQAB\",\"e\":\"AQAB\"}]}"
+        );
+
+        assertThat(publicKeys).isEmpty();
+    }
+
+    @Test
+    void testFetchesTheKeysAgainForAnUnknownKeyId() throws Exception {
+        KeyPair first = generateEcKeyPair();
+        KeyPair second = generateEcKeyPair();
+        jwks.set(jwks(Map.of("es256-1", first.getPublic())));
+
+        assertThat(jwksPublicKeys.getPublicKey("es256-1")).isNotNull();
+        assertThat(jwksPublicKeys.getPublicKey("es256-1")).isNotNull();
+        assertThat(fetches).hasValue(1);
+
+        jwks.set(jwks(Map.of("es256-1", first.getPublic(), "es256-2", second.getPublic())));
+        now.set(now.get().plus(MIN_REFRESH_INTERVAL));
+
+        assertThat(jwksPublicKeys.getPublicKey("es256-2").getEncoded()).isEqualTo(second.getPublic().getEncoded());
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void testUnknownKeyIdsDoNotFetchMoreThanOncePerInterval() throws Exception {
+        jwks.set(jwks(Map.of("es256-1", generateEcKeyPair().getPublic())));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(jwksPublicKeys.getPublicKey("made-up-" + i)).isNull();
+        }
+        assertThat(fetches).hasValue(1);
+
+        now.set(now.get().plus(MIN_REFRESH_INTERVAL));
+        jwksPublicKeys.getPublicKey("made-up");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void testKeepsTheKeysWhenTheyCannotBeFetched() throws Exception {
+        jwks.set(jwks(Map.of("es256-1", generateEcKeyPair().getPublic())));
+        assertThat(jwksPublicKeys.getPublicKey("es256-1")).isNotNull();
+
+        jwks.set(null);
+        now.set(now.get().plus(MIN_REFRESH_INTERVAL));
+
+        assertThat(jwksPublicKeys.getPublicKey("es256-2")).isNull();
+        assertThat(jwksPublicKeys.getPublicKey("es256-1")).isNotNull();
+        assertThat(fetches).hasValue(2);
+    }
+
+    static KeyPair generateEcKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    static KeyPair generateRsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Builds the JSON Web Key Set the gateway publishes for these keys.
+     */
+    static String jwks(Map<String, PublicKey> publicKeys) {
+        return publicKeys
+            .entrySet()
+            .stream()
+            .map(entry -> jwk(entry.getKey(), entry.getValue()))
+            .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    private static String jwk(String keyId, PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey) {
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            return String.format(
+                "{\"kty\":\"EC\",\"crv\":\"P-256\",\"x\":\"%s\",\"y\":\"%s\",\"kid\":\"%s\",\"use\":\"sig\",\"alg\":\"ES256\"}",
+                base64Url(ecPublicKey.getW().getAffineX()),
+                base64Url(ecPublicKey.getW().getAffineY()),
+                keyId
+            );
+        }
+        RSAPublicKey rsaPublicKey = (RSAPublicKey) publicKey;
+        return String.format(
+            "{\"kty\":\"RSA\",\"n\":\"%s\",\"e\":\"%s\",\"kid\":\"%s\",\"use\":\"sig\",\"alg\":\"RS256\"}",
+            base64Url(rsaPublicKey.getModulus()),
+            base64Url(rsaPublicKey.getPublicExponent()),
+            keyId
+        );
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
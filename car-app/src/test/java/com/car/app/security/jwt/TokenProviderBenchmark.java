@@ -0,0 +1,147 @@
+package com.car.app.security.jwt;
+
+import com.car.app.management.SecurityMetersService;
+import com.car.app.security.AuthoritiesConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the cost of authenticating a request from its token in {@link JWTFilter}: verifying the token, then
+ * parsing it again to build its authentication as it used to be done, against {@link TokenProvider#parseToken(String)}.
+ * The {@code parse*Token} benchmarks compare {@link TokenProvider#parseToken(String)} for tokens signed with the JWT
+ * secret (HS512) and with the keys of the gateway (ES256, RS256).
+ * <p>
+ * It is not run with the tests. To run it with the allocation profiler:
+ * <pre>
+ * ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) org.openjdk.jmh.Main TokenProviderBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private TokenProvider tokenProvider;
+
+    private JwtParser jwtParser;
+
+    private String token;
+
+    private TokenProvider jwksTokenProvider;
+
+    private String es256Token;
+
+    private String rs256Token;
+
+    @Setup
+    public void setup() throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+        jwtParser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET))).build();
+        token =
+            tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(
+                    "user",
+                    "user",
+                    List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                ),
+                false
+            );
+
+        KeyPair ecKeyPair = JwksPublicKeysTest.generateEcKeyPair();
+        KeyPair rsaKeyPair = JwksPublicKeysTest.generateRsaKeyPair();
+        String jwks = JwksPublicKeysTest.jwks(Map.of("es256-1", ecKeyPair.getPublic(), "rs256-1", rsaKeyPair.getPublic()));
+        jwksTokenProvider =
+            new TokenProvider(
+                jHipsterProperties,
+                new SecurityMetersService(new SimpleMeterRegistry()),
+                Optional.of(new JwksPublicKeys(() -> jwks, Duration.ofSeconds(10)))
+            );
+        es256Token = createSignedToken("es256-1", ecKeyPair.getPrivate(), SignatureAlgorithm.ES256);
+        rs256Token = createSignedToken("rs256-1", rsaKeyPair.getPrivate(), SignatureAlgorithm.RS256);
+    }
+
+    private static String createSignedToken(String keyId, PrivateKey privateKey, SignatureAlgorithm algorithm) {
+        return Jwts
+            .builder()
+            .setHeaderParam("kid", keyId)
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER)
+            .signWith(privateKey, algorithm)
+            .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+            .compact();
+    }
+
+    @Benchmark
+    public Authentication verifyThenParse() {
+        jwtParser.parseClaimsJws(token);
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        Collection<? extends GrantedAuthority> authorities = Arrays
+            .stream(claims.get("auth").toString().split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+        User principal = new User(claims.getSubject(), "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    @Benchmark
+    public Authentication parseToken() {
+        return tokenProvider.parseToken(token).getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication parseHs512Token() {
+        return jwksTokenProvider.parseToken(token).getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication parseEs256Token() {
+        return jwksTokenProvider.parseToken(es256Token).getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication parseRs256Token() {
+        return jwksTokenProvider.parseToken(rs256Token).getAuthentication();
+    }
+}
@@ -0,0 +1,153 @@
+package com.car.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.car.app.IntegrationTest;
+import com.car.app.domain.Car;
+import com.car.app.repository.CarRepository;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Counts the SQL statements run per request by the two {@code PATCH /api/cars/:id} paths: the plain one reading the car
+ * before saving it, and the one with {@code If-Match} updating it with a single statement.
+ * <p>
+ * The requests are not run in a test transaction, so that each of them commits like in production.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Import(CarPartialUpdateStatementsIT.StatementCountingConfiguration.class)
+class CarPartialUpdateStatementsIT {
+
+    private static final String ENTITY_API_URL_ID = "/api/cars/{id}";
+
+    private static final int REQUESTS = 5;
+
+    private static final AtomicBoolean counting = new AtomicBoolean();
+
+    private static final AtomicLong statements = new AtomicLong();
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private MockMvc restCarMockMvc;
+
+    private Car car;
+
+    private long version;
+
+    @BeforeEach
+    public void initTest() {
+        car = carRepository.saveAndFlush(CarResourceIT.createEntity(null));
+        version = car.getVersion();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        carRepository.deleteById(car.getId());
+    }
+
+    @Test
+    void compareStatementsPerPartialUpdate() throws Exception {
+        long plain = countStatements(i -> patchMake(i), status().isOk());
+        version = carRepository.findVersionById(car.getId()).orElseThrow();
+        long versioned = countStatements(i -> patchMake(i).header(HttpHeaders.IF_MATCH, "\"" + version++ + "\""), status().isNoContent());
+
+        // existsById, findById, UPDATE car, UPDATE table_version
+        assertThat(plain).isEqualTo(4 * REQUESTS);
+        // UPDATE car, UPDATE table_version
+        assertThat(versioned).isEqualTo(2 * REQUESTS);
+    }
+
+    private MockHttpServletRequestBuilder patchMake(int i) throws Exception {
+        // A different make every time, so that Hibernate does not skip the UPDATE of an unchanged car
+        return patch(ENTITY_API_URL_ID, car.getId())
+            .contentType("application/merge-patch+json")
+            .content(TestUtil.convertObjectToJsonBytes(new Car().id(car.getId()).make("make-" + i)));
+    }
+
+    private long countStatements(RequestFactory request, ResultMatcher expectedStatus) throws Exception {
+        statements.set(0);
+        counting.set(true);
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                restCarMockMvc.perform(request.create(i)).andExpect(expectedStatus);
+            }
+        } finally {
+            counting.set(false);
+        }
+        return statements.get();
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        MockHttpServletRequestBuilder create(int i) throws Exception;
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfiguration {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    // Only the data source of the application, not the pools it may route to
+                    if (!(bean instanceof DataSource) || !"dataSource".equals(beanName)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource((DataSource) bean) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return countStatements(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection countStatements(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (counting.get() && STATEMENT_METHODS.contains(method.getName())) {
+                        statements.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            );
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.car.app.web.rest;
 
+import static com.car.app.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.car.app.IntegrationTest;
 import com.car.app.domain.Car;
 import com.car.app.repository.CarRepository;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
@@ -16,6 +21,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -35,8 +41,9 @@ class CarResourceIT {
     private static final String DEFAULT_MODEL = "AAAAAAAAAA";
     private static final String UPDATED_MODEL = "BBBBBBBBBB";
 
-    private static final String DEFAULT_PRICE = "AAAAAAAAAA";
-    private static final String UPDATED_PRICE = "BBBBBBBBBB";
+    private static final BigDecimal DEFAULT_PRICE = new BigDecimal(1);
+    private static final BigDecimal UPDATED_PRICE = new BigDecimal(2);
+    private static final BigDecimal SMALLER_PRICE = new BigDecimal(1 - 1);
 
     private static final String ENTITY_API_URL = "/api/cars";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
@@ -97,7 +104,7 @@ class CarResourceIT {
         Car testCar = carList.get(carList.size() - 1);
         assertThat(testCar.getMake()).isEqualTo(DEFAULT_MAKE);
         assertThat(testCar.getModel()).isEqualTo(DEFAULT_MODEL);
-        assertThat(testCar.getPrice()).isEqualTo(DEFAULT_PRICE);
+        assertThat(testCar.getPrice()).isEqualByComparingTo(DEFAULT_PRICE);
     }
 
     @Test
@@ -129,10 +136,233 @@ class CarResourceIT {
             .perform(get(ENTITY_API_URL + "?sort=id,desc"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=10"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(car.getId().intValue())))
             .andExpect(jsonPath("$.[*].make").value(hasItem(DEFAULT_MAKE)))
             .andExpect(jsonPath("$.[*].model").value(hasItem(DEFAULT_MODEL)))
-            .andExpect(jsonPath("$.[*].price").value(hasItem(DEFAULT_PRICE)));
+            .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE))));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsByMakeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Get all the carList where make equals to DEFAULT_MAKE
+        defaultCarShouldBeFound("make=" + DEFAULT_MAKE);
+
+        // Get all the carList where make equals to UPDATED_MAKE
+        defaultCarShouldNotBeFound("make=" + UPDATED_MAKE);
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsByModelIsEqualToSomething() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Get all the carList where model equals to DEFAULT_MODEL
+        defaultCarShouldBeFound("make=" + DEFAULT_MAKE + "&model=" + DEFAULT_MODEL);
+
+        // Get all the carList where model equals to UPDATED_MODEL
+        defaultCarShouldNotBeFound("make=" + DEFAULT_MAKE + "&model=" + UPDATED_MODEL);
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsByPriceIsInRange() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Get all the carList where price is between DEFAULT_PRICE and UPDATED_PRICE
+        defaultCarShouldBeFound("priceMin=" + DEFAULT_PRICE + "&priceMax=" + UPDATED_PRICE);
+
+        // Get all the carList where price is greater than or equal to UPDATED_PRICE
+        defaultCarShouldNotBeFound("priceMin=" + UPDATED_PRICE);
+
+        // Get all the carList where price is less than or equal to SMALLER_PRICE
+        defaultCarShouldNotBeFound("priceMax=" + SMALLER_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsSortedByPrice() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        Car expensiveCar = carRepository.saveAndFlush(createEntity(em).price(UPDATED_PRICE));
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?make=" + DEFAULT_MAKE + "&sort=price,desc&page=0&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "2"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(expensiveCar.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsSortedByUnknownProperty() throws Exception {
+        restCarMockMvc.perform(get(ENTITY_API_URL + "?sort=unknown,asc")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCarShouldBeFound(String filter) throws Exception {
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(car.getId().intValue())))
+            .andExpect(jsonPath("$.[*].make").value(hasItem(DEFAULT_MAKE)))
+            .andExpect(jsonPath("$.[*].model").value(hasItem(DEFAULT_MODEL)))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE))));
+
+        // Check, that the count call also returns 1
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+
+        // Check, that the keyset listing applies the same filter
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(car.getId().intValue())));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCarShouldNotBeFound(String filter) throws Exception {
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "/count?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void getCarsPageWithCursor() throws Exception {
+        // Initialize the database
+        Car first = carRepository.saveAndFlush(car);
+        Car second = carRepository.saveAndFlush(createEntity(em));
+        Car third = carRepository.saveAndFlush(createEntity(em));
+
+        // Get the page that follows the first car
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", first.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(CarResource.NEXT_CURSOR_HEADER, second.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + second.getId())))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()));
+
+        // The last page has no next cursor
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", third.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(CarResource.NEXT_CURSOR_HEADER))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getFirstCarsPageByDefault() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        carRepository.saveAndFlush(createEntity(em));
+        carRepository.saveAndFlush(createEntity(em));
+
+        // Without any parameter, only the first page is returned
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(header().exists(CarResource.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Transactional
+    void getCarsPageWithInvalidSize() throws Exception {
+        restCarMockMvc.perform(get(ENTITY_API_URL + "?size=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void streamAllCars() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        // Stream all the cars
+        String body = restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON_VALUE))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        List<String> lines = List.of(body.split("\n"));
+        assertThat(lines).hasSize(carRepository.findAll().size());
+        assertThat(lines).anyMatch(line -> line.contains("\"id\":" + car.getId() + ","));
+    }
+
+    @Test
+    @Transactional
+    void streamAllCarsNotModified() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_NDJSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(handler().methodName("revalidateStreamOfAllCars"))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void streamAllCarsDoesNotMatchTheETagOfTheList() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.APPLICATION_NDJSON).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
     }
 
     @Test
@@ -146,10 +376,11 @@ class CarResourceIT {
             .perform(get(ENTITY_API_URL_ID, car.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=10"))
             .andExpect(jsonPath("$.id").value(car.getId().intValue()))
             .andExpect(jsonPath("$.make").value(DEFAULT_MAKE))
             .andExpect(jsonPath("$.model").value(DEFAULT_MODEL))
-            .andExpect(jsonPath("$.price").value(DEFAULT_PRICE));
+            .andExpect(jsonPath("$.price").value(sameNumber(DEFAULT_PRICE)));
     }
 
     @Test
@@ -159,6 +390,166 @@ class CarResourceIT {
         restCarMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getCarNotModified() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + car.getVersion() + "\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(handler().methodName("revalidateCar"))
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        // Update the car, the previous ETag does not match anymore
+        car.setMake(UPDATED_MAKE);
+        carRepository.saveAndFlush(car);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL_ID, car.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + car.getVersion() + "\""))
+            .andExpect(jsonPath("$.make").value(UPDATED_MAKE));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarsNotModified() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        String eTag = restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?make=" + DEFAULT_MAKE))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?make=" + DEFAULT_MAKE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(handler().methodName("revalidateAllCars"))
+            .andExpect(content().string(""));
+
+        // Create a car through the API, the previous ETag does not match anymore
+        restCarMockMvc
+            .perform(
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createEntity(em)))
+            )
+            .andExpect(status().isCreated());
+
+        restCarMockMvc
+            .perform(get(ENTITY_API_URL + "?make=" + DEFAULT_MAKE).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.[*].make").value(contains(DEFAULT_MAKE, DEFAULT_MAKE)));
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveCars() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+
+        Car updatedCar = createUpdatedEntity(em).id(car.getId());
+        List<Car> cars = List.of(createEntity(em), updatedCar, createEntity(em), createEntity(em).id(Long.MAX_VALUE));
+
+        // Create and update the cars, in more than one chunk
+        restCarMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(cars)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(4))
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 200, 201, 404)))
+            .andExpect(jsonPath("$.[1].id").value(car.getId().intValue()));
+
+        // Validate the Cars in the database
+        em.clear();
+        List<Car> carList = carRepository.findAll();
+        assertThat(carList).hasSize(databaseSizeBeforeCreate + 2);
+        Car testCar = carRepository.findById(car.getId()).get();
+        assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
+        assertThat(testCar.getModel()).isEqualTo(UPDATED_MODEL);
+        assertThat(testCar.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveCarsAsNdjson() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+
+        String body =
+            new String(TestUtil.convertObjectToJsonBytes(createEntity(em))) +
+            "\n" +
+            new String(TestUtil.convertObjectToJsonBytes(createEntity(em))) +
+            "\n" +
+            new String(TestUtil.convertObjectToJsonBytes(createEntity(em))) +
+            "\n";
+
+        restCarMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_NDJSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 201, 201)));
+
+        List<Car> carList = carRepository.findAll();
+        assertThat(carList).hasSize(databaseSizeBeforeCreate + 3);
+        assertThat(carList).filteredOn(c -> DEFAULT_MAKE.equals(c.getMake())).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveCarsWithInvalidPayload() throws Exception {
+        restCarMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content("not json"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveCarsWithAnInvalidCarAfterTheFirstChunk() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+
+        String car = new String(TestUtil.convertObjectToJsonBytes(createEntity(em)));
+        String body = "[" + car + "," + car + ",{\"id\": \"not-a-number\"}," + car + "]";
+
+        restCarMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 201, 400, 201)));
+
+        assertThat(carRepository.findAll()).hasSize(databaseSizeBeforeCreate + 3);
+    }
+
+    @Test
+    @Transactional
+    void bulkSaveCarsWithMalformedJsonAfterTheFirstChunk() throws Exception {
+        int databaseSizeBeforeCreate = carRepository.findAll().size();
+
+        String car = new String(TestUtil.convertObjectToJsonBytes(createEntity(em)));
+        String body = car + "\n" + car + "\n" + car + "\n{\"make\": ]\n" + car + "\n";
+
+        restCarMockMvc
+            .perform(post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_NDJSON).content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].index").value(contains(0, 1, 2, 3)))
+            .andExpect(jsonPath("$.[*].status").value(contains(201, 201, 201, 400)));
+
+        assertThat(carRepository.findAll()).hasSize(databaseSizeBeforeCreate + 3);
+    }
+
     @Test
     @Transactional
     void putNewCar() throws Exception {
@@ -187,7 +578,29 @@ class CarResourceIT {
         Car testCar = carList.get(carList.size() - 1);
         assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
         assertThat(testCar.getModel()).isEqualTo(UPDATED_MODEL);
-        assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
+        assertThat(testCar.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void putCarWithStaleVersion() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        Car updatedCar = new Car()
+            .id(car.getId())
+            .make(UPDATED_MAKE)
+            .model(UPDATED_MODEL)
+            .price(UPDATED_PRICE)
+            .version(car.getVersion() + 1);
+
+        restCarMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedCar.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCar))
+            )
+            .andExpect(status().isConflict());
     }
 
     @Test
@@ -272,7 +685,7 @@ class CarResourceIT {
         Car testCar = carList.get(carList.size() - 1);
         assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
         assertThat(testCar.getModel()).isEqualTo(UPDATED_MODEL);
-        assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
+        assertThat(testCar.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
     }
 
     @Test
@@ -303,7 +716,90 @@ class CarResourceIT {
         Car testCar = carList.get(carList.size() - 1);
         assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
         assertThat(testCar.getModel()).isEqualTo(UPDATED_MODEL);
-        assertThat(testCar.getPrice()).isEqualTo(UPDATED_PRICE);
+        assertThat(testCar.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateCarWithIfMatch() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+        long version = car.getVersion();
+
+        // Only the make is sent, the other fields are kept
+        Car partialUpdatedCar = new Car().id(car.getId()).make(UPDATED_MAKE);
+
+        restCarMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCar.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCar))
+            )
+            .andExpect(status().isNoContent())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+
+        // Validate the Car in the database, the car was updated without Hibernate
+        em.clear();
+        Car testCar = carRepository.findById(car.getId()).orElseThrow();
+        assertThat(testCar.getMake()).isEqualTo(UPDATED_MAKE);
+        assertThat(testCar.getModel()).isEqualTo(DEFAULT_MODEL);
+        assertThat(testCar.getPrice()).isEqualByComparingTo(DEFAULT_PRICE);
+        assertThat(testCar.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateCarWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        Car partialUpdatedCar = new Car().id(car.getId()).make(UPDATED_MAKE);
+
+        restCarMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCar.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + (car.getVersion() + 1) + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCar))
+            )
+            .andExpect(status().isConflict());
+
+        em.clear();
+        assertThat(carRepository.findById(car.getId()).orElseThrow().getMake()).isEqualTo(DEFAULT_MAKE);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateNonExistingCarWithIfMatch() throws Exception {
+        Car partialUpdatedCar = new Car().id(count.incrementAndGet()).make(UPDATED_MAKE);
+
+        restCarMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCar.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCar))
+            )
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateCarWithInvalidIfMatch() throws Exception {
+        // Initialize the database
+        carRepository.saveAndFlush(car);
+
+        Car partialUpdatedCar = new Car().id(car.getId()).make(UPDATED_MAKE);
+
+        restCarMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedCar.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedCar))
+            )
+            .andExpect(status().isBadRequest());
     }
 
     @Test
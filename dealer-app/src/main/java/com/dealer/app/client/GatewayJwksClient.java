@@ -0,0 +1,13 @@
+package com.dealer.app.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Fetches the public keys of the gateway, looked up in the registry, verifying the tokens it signs.
+ */
+@FeignClient(name = "gateway")
+public interface GatewayJwksClient {
+    @GetMapping("/.well-known/jwks.json")
+    String getJwks();
+}
@@ -0,0 +1,22 @@
+package com.dealer.app.client;
+
+import com.dealer.app.config.ApplicationProperties;
+import com.dealer.app.security.jwt.JwksPublicKeys;
+import java.time.Duration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Public keys of the gateway verifying the tokens it signs with its asymmetric keys.
+ */
+@Configuration
+public class GatewayJwksConfiguration {
+
+    @Bean
+    public JwksPublicKeys jwksPublicKeys(GatewayJwksClient gatewayJwksClient, ApplicationProperties applicationProperties) {
+        return new JwksPublicKeys(
+            gatewayJwksClient::getJwks,
+            Duration.ofSeconds(applicationProperties.getSecurity().getJwks().getMinRefreshIntervalSeconds())
+        );
+    }
+}
@@ -9,4 +9,110 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Dealers dealers = new Dealers();
+
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    public Dealers getDealers() {
+        return dealers;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public static class Dealers {
+
+        /**
+         * How long shared caches, such as the gateway, may serve the responses to {@code GET /api/dealers} and
+         * {@code GET /api/dealers/:id} without asking dealer-app again. Browsers revalidate them with their {@code ETag}.
+         */
+        private int sharedMaxAgeSeconds = 10;
+
+        public int getSharedMaxAgeSeconds() {
+            return sharedMaxAgeSeconds;
+        }
+
+        public void setSharedMaxAgeSeconds(int sharedMaxAgeSeconds) {
+            this.sharedMaxAgeSeconds = sharedMaxAgeSeconds;
+        }
+    }
+
+    public static class Cache {
+
+        private final Discovery discovery = new Discovery();
+
+        public Discovery getDiscovery() {
+            return discovery;
+        }
+
+        /**
+         * Discovery of the other Hazelcast members.
+         * Besides when a member starts, the members are looked up on every split-brain merge check.
+         */
+        public static class Discovery {
+
+            /**
+             * Delay before the first split-brain merge check after a member starts.
+             */
+            private int mergeFirstRunDelaySeconds = 60;
+
+            /**
+             * Delay between two split-brain merge checks.
+             */
+            private int mergeNextRunDelaySeconds = 30;
+
+            public int getMergeFirstRunDelaySeconds() {
+                return mergeFirstRunDelaySeconds;
+            }
+
+            public void setMergeFirstRunDelaySeconds(int mergeFirstRunDelaySeconds) {
+                this.mergeFirstRunDelaySeconds = mergeFirstRunDelaySeconds;
+            }
+
+            public int getMergeNextRunDelaySeconds() {
+                return mergeNextRunDelaySeconds;
+            }
+
+            public void setMergeNextRunDelaySeconds(int mergeNextRunDelaySeconds) {
+                this.mergeNextRunDelaySeconds = mergeNextRunDelaySeconds;
+            }
+        }
+    }
+
+    public static class Security {
+
+        private final Jwks jwks = new Jwks();
+
+        public Jwks getJwks() {
+            return jwks;
+        }
+
+        /**
+         * Public keys of the gateway, fetched from its {@code /.well-known/jwks.json} when a token names an unknown key.
+         */
+        public static class Jwks {
+
+            /**
+             * Minimum delay between two fetches of the keys.
+             */
+            private int minRefreshIntervalSeconds = 10;
+
+            public int getMinRefreshIntervalSeconds() {
+                return minRefreshIntervalSeconds;
+            }
+
+            public void setMinRefreshIntervalSeconds(int minRefreshIntervalSeconds) {
+                this.minRefreshIntervalSeconds = minRefreshIntervalSeconds;
+            }
+        }
+    }
+}
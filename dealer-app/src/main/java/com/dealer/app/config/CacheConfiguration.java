@@ -1,8 +1,12 @@
 package com.dealer.app.config;
 
+import com.dealer.app.management.HazelcastClusterMetrics;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.properties.ClusterProperty;
+import java.net.InetSocketAddress;
+import java.util.function.Function;
 import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,12 +42,20 @@ public class CacheConfiguration {
 
     private final DiscoveryClient discoveryClient;
 
+    private final ApplicationProperties applicationProperties;
+
     private Registration registration;
 
-    public CacheConfiguration(Environment env, ServerProperties serverProperties, DiscoveryClient discoveryClient) {
+    public CacheConfiguration(
+        Environment env,
+        ServerProperties serverProperties,
+        DiscoveryClient discoveryClient,
+        ApplicationProperties applicationProperties
+    ) {
         this.env = env;
         this.serverProperties = serverProperties;
         this.discoveryClient = discoveryClient;
+        this.applicationProperties = applicationProperties;
     }
 
     @Autowired(required = false)
@@ -81,6 +93,7 @@ public class CacheConfiguration {
             // see the "spring.application.name" standard Spring property
             String serviceId = registration.getServiceId();
             log.debug("Configuring Hazelcast clustering for instanceId: {}", serviceId);
+            Function<ServiceInstance, InetSocketAddress> memberAddress;
             // In development, everything goes through 127.0.0.1, with a different port
             if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
                 log.debug(
@@ -88,21 +101,36 @@ public class CacheConfiguration {
                 );
 
                 config.getNetworkConfig().setPort(serverProperties.getPort() + 5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = "127.0.0.1:" + (instance.getPort() + 5701);
-                    log.debug("Adding Hazelcast (dev) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                // The discovered addresses are on 127.0.0.1, so must be this member's own address
+                config.getNetworkConfig().getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+                memberAddress = instance -> new InetSocketAddress("127.0.0.1", instance.getPort() + 5701);
             } else { // Production configuration, one host per instance all using port 5701
                 config.getNetworkConfig().setPort(5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = instance.getHost() + ":5701";
-                    log.debug("Adding Hazelcast (prod) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                memberAddress = instance -> new InetSocketAddress(instance.getHost(), 5701);
             }
+
+            /*
+            The members are looked up in the discovery service when this member starts,
+            and again on every split-brain merge check: instances registered later on are
+            found, and clusters formed while the registry was incomplete are merged.
+            */
+            ApplicationProperties.Cache.Discovery discovery = applicationProperties.getCache().getDiscovery();
+            config.setProperty(ClusterProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+            config.setProperty(
+                ClusterProperty.MERGE_FIRST_RUN_DELAY_SECONDS.getName(),
+                String.valueOf(discovery.getMergeFirstRunDelaySeconds())
+            );
+            config.setProperty(
+                ClusterProperty.MERGE_NEXT_RUN_DELAY_SECONDS.getName(),
+                String.valueOf(discovery.getMergeNextRunDelaySeconds())
+            );
+            config
+                .getNetworkConfig()
+                .getJoin()
+                .getDiscoveryConfig()
+                .addDiscoveryStrategyConfig(
+                    new DiscoveryStrategyConfig(new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, serviceId, memberAddress))
+                );
         }
         config.setManagementCenterConfig(new ManagementCenterConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
@@ -146,6 +174,15 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    @Bean
+    public HazelcastClusterMetrics hazelcastClusterMetrics(HazelcastInstance hazelcastInstance) {
+        if (registration == null) {
+            return new HazelcastClusterMetrics(hazelcastInstance, () -> 0);
+        }
+        String serviceId = registration.getServiceId();
+        return new HazelcastClusterMetrics(hazelcastInstance, () -> discoveryClient.getInstances(serviceId).size());
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
@@ -0,0 +1,100 @@
+package com.dealer.app.config;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.properties.PropertyDefinition;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.discovery.AbstractDiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryStrategyFactory;
+import com.hazelcast.spi.discovery.SimpleDiscoveryNode;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+/**
+ * Hazelcast discovery strategy finding the cluster members through the Spring Cloud {@link DiscoveryClient}.
+ * <p>
+ * The instances are looked up again every time Hazelcast discovers members: when a member joins, and on every
+ * split-brain merge check. Instances registered after a member started are therefore found later on, and clusters
+ * formed while the registry was incomplete are merged.
+ */
+public class DiscoveryClientDiscoveryStrategy extends AbstractDiscoveryStrategy {
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceId;
+
+    private final Function<ServiceInstance, InetSocketAddress> memberAddress;
+
+    public DiscoveryClientDiscoveryStrategy(
+        ILogger logger,
+        DiscoveryClient discoveryClient,
+        String serviceId,
+        Function<ServiceInstance, InetSocketAddress> memberAddress
+    ) {
+        super(logger, Collections.emptyMap());
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.memberAddress = memberAddress;
+    }
+
+    @Override
+    public Iterable<DiscoveryNode> discoverNodes() {
+        List<DiscoveryNode> nodes = new ArrayList<>();
+        for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
+            InetSocketAddress socketAddress = memberAddress.apply(instance);
+            if (socketAddress.isUnresolved()) {
+                getLogger().warning("Cannot resolve Hazelcast member " + socketAddress + ", it is skipped");
+                continue;
+            }
+            getLogger().fine("Discovered Hazelcast member " + socketAddress);
+            nodes.add(new SimpleDiscoveryNode(new Address(socketAddress)));
+        }
+        return nodes;
+    }
+
+    /**
+     * Creates the {@link DiscoveryClientDiscoveryStrategy} of a Hazelcast member.
+     */
+    public static class Factory implements DiscoveryStrategyFactory {
+
+        private final DiscoveryClient discoveryClient;
+
+        private final String serviceId;
+
+        private final Function<ServiceInstance, InetSocketAddress> memberAddress;
+
+        /**
+         * @param discoveryClient the client listing the instances of the service.
+         * @param serviceId the id of the service whose instances are the cluster members.
+         * @param memberAddress the Hazelcast address of an instance.
+         */
+        public Factory(DiscoveryClient discoveryClient, String serviceId, Function<ServiceInstance, InetSocketAddress> memberAddress) {
+            this.discoveryClient = discoveryClient;
+            this.serviceId = serviceId;
+            this.memberAddress = memberAddress;
+        }
+
+        @Override
+        public Class<? extends DiscoveryStrategy> getDiscoveryStrategyType() {
+            return DiscoveryClientDiscoveryStrategy.class;
+        }
+
+        @Override
+        public DiscoveryStrategy newDiscoveryStrategy(DiscoveryNode discoveryNode, ILogger logger, Map<String, Comparable> properties) {
+            return new DiscoveryClientDiscoveryStrategy(logger, discoveryClient, serviceId, memberAddress);
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getConfigurationProperties() {
+            return Collections.emptyList();
+        }
+    }
+}
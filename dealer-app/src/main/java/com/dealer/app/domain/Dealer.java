@@ -26,6 +26,10 @@ public class Dealer implements Serializable {
     @Column(name = "address")
     private String address;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -67,6 +71,19 @@ public class Dealer implements Serializable {
         this.address = address;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Dealer version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -93,6 +110,7 @@ public class Dealer implements Serializable {
             "id=" + getId() +
             ", name='" + getName() + "'" +
             ", address='" + getAddress() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
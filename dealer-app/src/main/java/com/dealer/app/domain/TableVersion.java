@@ -0,0 +1,75 @@
+package com.dealer.app.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * A change counter of a table, incremented by every write to the table.
+ * <p>
+ * Comparing it is enough to know whether a listing of the table may have changed, without reading the table.
+ */
+@Entity
+@Table(name = "table_version")
+public class TableVersion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "table_name")
+    private String tableName;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    public TableVersion tableName(String tableName) {
+        this.setTableName(tableName);
+        return this;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public TableVersion version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TableVersion)) {
+            return false;
+        }
+        return tableName != null && tableName.equals(((TableVersion) o).tableName);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TableVersion{" +
+            "tableName='" + getTableName() + "'" +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -1,7 +1,9 @@
 package com.dealer.app.repository;
 
 import com.dealer.app.domain.Dealer;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,12 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface DealerRepository extends JpaRepository<Dealer, Long> {}
+public interface DealerRepository extends JpaRepository<Dealer, Long> {
+    /**
+     * Name of the table in {@link com.dealer.app.domain.TableVersion}.
+     */
+    String TABLE_NAME = "dealer";
+
+    @Query("select dealer.version from Dealer dealer where dealer.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,26 @@
+package com.dealer.app.repository;
+
+import com.dealer.app.domain.TableVersion;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the TableVersion entity.
+ */
+@Repository
+public interface TableVersionRepository extends JpaRepository<TableVersion, String> {
+    /**
+     * Increment the change counter of a table, to be called in the transaction writing to the table.
+     *
+     * @param tableName the name of the table.
+     * @return the number of updated counters, 0 when the table has none.
+     */
+    @Modifying
+    @Query("update TableVersion tableVersion set tableVersion.version = tableVersion.version + 1 where tableVersion.tableName = :tableName")
+    int increment(@Param("tableName") String tableName);
+
+    @Query("select tableVersion.version from TableVersion tableVersion where tableVersion.tableName = :tableName")
+    Optional<Long> findVersion(@Param("tableName") String tableName);
+}
@@ -1,19 +1,26 @@
 package com.dealer.app.web.rest;
 
+import com.dealer.app.config.ApplicationProperties;
 import com.dealer.app.domain.Dealer;
 import com.dealer.app.repository.DealerRepository;
+import com.dealer.app.repository.TableVersionRepository;
 import com.dealer.app.web.rest.errors.BadRequestAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -34,8 +41,20 @@ public class DealerResource {
 
     private final DealerRepository dealerRepository;
 
-    public DealerResource(DealerRepository dealerRepository) {
+    private final TableVersionRepository tableVersionRepository;
+
+    // browsers revalidate the dealers every time, shared caches serve them for a while
+    private final CacheControl cacheControl;
+
+    public DealerResource(
+        DealerRepository dealerRepository,
+        TableVersionRepository tableVersionRepository,
+        ApplicationProperties applicationProperties
+    ) {
         this.dealerRepository = dealerRepository;
+        this.tableVersionRepository = tableVersionRepository;
+        int sharedMaxAgeSeconds = applicationProperties.getDealers().getSharedMaxAgeSeconds();
+        this.cacheControl = CacheControl.maxAge(0, TimeUnit.SECONDS).sMaxAge(sharedMaxAgeSeconds, TimeUnit.SECONDS);
     }
 
     /**
@@ -52,6 +71,7 @@ public class DealerResource {
             throw new BadRequestAlertException("A new dealer cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Dealer result = dealerRepository.save(dealer);
+        tableVersionRepository.increment(DealerRepository.TABLE_NAME);
         return ResponseEntity
             .created(new URI("/api/dealers/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -60,6 +80,9 @@ public class DealerResource {
 
     /**
      * {@code PUT  /dealers/:id} : Updates an existing dealer.
+     * <p>
+     * When the dealer has a version, the update fails with {@code 409 (Conflict)} if the dealer has been changed since
+     * that version. Without a version, the dealer is overwritten whatever its current version.
      *
      * @param id the id of the dealer to save.
      * @param dealer the dealer to update.
@@ -79,11 +102,16 @@ public class DealerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!dealerRepository.existsById(id)) {
+        Optional<Long> version = dealerRepository.findVersionById(id);
+        if (version.isEmpty()) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (dealer.getVersion() == null) {
+            dealer.setVersion(version.get());
+        }
 
         Dealer result = dealerRepository.save(dealer);
+        tableVersionRepository.increment(DealerRepository.TABLE_NAME);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, dealer.getId().toString()))
@@ -131,6 +159,7 @@ public class DealerResource {
                 return existingDealer;
             })
             .map(dealerRepository::save);
+        tableVersionRepository.increment(DealerRepository.TABLE_NAME);
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -140,26 +169,54 @@ public class DealerResource {
 
     /**
      * {@code GET  /dealers} : get all the dealers.
+     * <p>
+     * The {@code ETag} is the change counter of the dealer table: when it matches {@code If-None-Match}, the dealers
+     * are not read and {@code 304 (Not Modified)} is returned. Shared caches may serve them for
+     * {@code application.dealers.shared-max-age-seconds}.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of dealers in body.
+     * @param webRequest the request, holding the {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of dealers in body,
+     * or with status {@code 304 (Not Modified)} if no dealer has changed.
      */
     @GetMapping("/dealers")
-    public List<Dealer> getAllDealers() {
+    public ResponseEntity<List<Dealer>> getAllDealers(WebRequest webRequest) {
         log.debug("REST request to get all Dealers");
-        return dealerRepository.findAll();
+        Optional<String> eTag = tableVersionRepository.findVersion(DealerRepository.TABLE_NAME).map(DealerResource::eTag);
+        if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        eTag.ifPresent(headers::setETag);
+        return ResponseEntity.ok().headers(headers).body(dealerRepository.findAll());
     }
 
     /**
      * {@code GET  /dealers/:id} : get the "id" dealer.
+     * <p>
+     * The {@code ETag} is the version of the dealer: when it matches {@code If-None-Match}, the dealer is not read and
+     * {@code 304 (Not Modified)} is returned. Shared caches may serve the dealer for
+     * {@code application.dealers.shared-max-age-seconds}.
      *
      * @param id the id of the dealer to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the dealer, or with status {@code 404 (Not Found)}.
+     * @param webRequest the request, holding the {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the dealer,
+     * or with status {@code 304 (Not Modified)} if the dealer has not changed, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/dealers/{id}")
-    public ResponseEntity<Dealer> getDealer(@PathVariable Long id) {
+    public ResponseEntity<Dealer> getDealer(@PathVariable Long id, WebRequest webRequest) {
         log.debug("REST request to get Dealer : {}", id);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> eTag = dealerRepository.findVersionById(id).map(DealerResource::eTag);
+            if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+            }
+        }
         Optional<Dealer> dealer = dealerRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(dealer);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(cacheControl);
+        dealer.ifPresent(existingDealer -> headers.setETag(eTag(existingDealer.getVersion())));
+        return ResponseUtil.wrapOrNotFound(dealer, headers);
     }
 
     /**
@@ -172,9 +229,14 @@ public class DealerResource {
     public ResponseEntity<Void> deleteDealer(@PathVariable Long id) {
         log.debug("REST request to delete Dealer : {}", id);
         dealerRepository.deleteById(id);
+        tableVersionRepository.increment(DealerRepository.TABLE_NAME);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
 }
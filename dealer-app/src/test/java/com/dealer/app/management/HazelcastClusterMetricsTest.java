@@ -0,0 +1,115 @@
+package com.dealer.app.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.cluster.Cluster;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.LifecycleEvent;
+import com.hazelcast.core.LifecycleListener;
+import com.hazelcast.core.LifecycleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class HazelcastClusterMetricsTest {
+
+    private MeterRegistry meterRegistry;
+
+    private Cluster cluster;
+
+    private LifecycleService lifecycleService;
+
+    private final AtomicInteger registeredInstances = new AtomicInteger(2);
+
+    private MembershipListener membershipListener;
+
+    private LifecycleListener lifecycleListener;
+
+    // Gauges only hold a weak reference to the binder
+    private HazelcastClusterMetrics hazelcastClusterMetrics;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cluster = mock(Cluster.class);
+        lifecycleService = mock(LifecycleService.class);
+        when(lifecycleService.isRunning()).thenReturn(true);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getCluster()).thenReturn(cluster);
+        when(hazelcastInstance.getLifecycleService()).thenReturn(lifecycleService);
+
+        hazelcastClusterMetrics = new HazelcastClusterMetrics(hazelcastInstance, registeredInstances::get);
+        hazelcastClusterMetrics.bindTo(meterRegistry);
+
+        ArgumentCaptor<MembershipListener> membershipListenerCaptor = ArgumentCaptor.forClass(MembershipListener.class);
+        verify(cluster).addMembershipListener(membershipListenerCaptor.capture());
+        membershipListener = membershipListenerCaptor.getValue();
+        ArgumentCaptor<LifecycleListener> lifecycleListenerCaptor = ArgumentCaptor.forClass(LifecycleListener.class);
+        verify(lifecycleService).addLifecycleListener(lifecycleListenerCaptor.capture());
+        lifecycleListener = lifecycleListenerCaptor.getValue();
+    }
+
+    @Test
+    void testSplitBrainWhenFewerMembersThanRegisteredInstances() {
+        when(cluster.getMembers()).thenReturn(Set.of(mock(Member.class)));
+
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.CLUSTER_SIZE_METER_NAME).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.EXPECTED_CLUSTER_SIZE_METER_NAME).gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.SPLIT_BRAIN_METER_NAME).gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testNoSplitBrainWhenAllRegisteredInstancesAreMembers() {
+        when(cluster.getMembers()).thenReturn(Set.of(mock(Member.class), mock(Member.class)));
+
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.CLUSTER_SIZE_METER_NAME).gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.SPLIT_BRAIN_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testNoSplitBrainWhenRegisteredInstancesAreUnknown() {
+        registeredInstances.set(0);
+        when(cluster.getMembers()).thenReturn(Set.of(mock(Member.class)));
+
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.SPLIT_BRAIN_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testClusterSizeIsZeroOnceShutDown() {
+        when(lifecycleService.isRunning()).thenReturn(false);
+
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.CLUSTER_SIZE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testMembershipChangesAreCounted() {
+        membershipListener.memberAdded(mock(MembershipEvent.class));
+        membershipListener.memberAdded(mock(MembershipEvent.class));
+        membershipListener.memberRemoved(mock(MembershipEvent.class));
+
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.MEMBERSHIP_CHANGES_METER_NAME).tag("type", "added").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.MEMBERSHIP_CHANGES_METER_NAME).tag("type", "removed").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testMergesAreCounted() {
+        lifecycleListener.stateChanged(new LifecycleEvent(LifecycleEvent.LifecycleState.MERGING));
+        lifecycleListener.stateChanged(new LifecycleEvent(LifecycleEvent.LifecycleState.MERGED));
+        lifecycleListener.stateChanged(new LifecycleEvent(LifecycleEvent.LifecycleState.MERGE_FAILED));
+
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.MERGES_METER_NAME).tag("result", "merged").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(HazelcastClusterMetrics.MERGES_METER_NAME).tag("result", "failed").counter().count()).isEqualTo(1);
+    }
+}
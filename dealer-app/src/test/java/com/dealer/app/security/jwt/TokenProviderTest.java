@@ -11,6 +11,10 @@ import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,6 +92,44 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testParseTokenReturnsClaimsAndAuthentication() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        ParsedToken parsedToken = tokenProvider.parseToken(token);
+
+        assertThat(parsedToken.isValid()).isTrue();
+        assertThat(parsedToken.getFailure()).isNull();
+        assertThat(parsedToken.getClaims().getSubject()).isEqualTo("anonymous");
+        assertThat(parsedToken.getAuthentication().getName()).isEqualTo("anonymous");
+        assertThat(parsedToken.getAuthentication().getCredentials()).isEqualTo(token);
+        assertThat(parsedToken.getAuthentication().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testParseTokenReusesTheAuthorities() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        GrantedAuthority first = tokenProvider.parseToken(token).getAuthentication().getAuthorities().iterator().next();
+        GrantedAuthority second = tokenProvider.parseToken(token).getAuthentication().getAuthorities().iterator().next();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void testParseTokenReturnsTheFailure() {
+        ParsedToken parsedToken = tokenProvider.parseToken(createTokenWithDifferentSignature());
+
+        assertThat(parsedToken.isValid()).isFalse();
+        assertThat(parsedToken.getFailure()).isEqualTo(ParsedToken.Failure.INVALID_SIGNATURE);
+        assertThat(parsedToken.getClaims()).isNull();
+        assertThat(parsedToken.getAuthentication()).isNull();
+        assertThat(tokenProvider.parseToken(createUnsupportedToken()).getFailure()).isEqualTo(ParsedToken.Failure.UNSUPPORTED);
+        assertThat(tokenProvider.parseToken("").getFailure()).isEqualTo(ParsedToken.Failure.ILLEGAL_ARGUMENT);
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -116,6 +158,68 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testTokenSignedByTheGatewayIsVerifiedWithItsPublicKey() throws Exception {
+        KeyPair ecKeyPair = JwksPublicKeysTest.generateEcKeyPair();
+        KeyPair rsaKeyPair = JwksPublicKeysTest.generateRsaKeyPair();
+        TokenProvider jwksTokenProvider = createJwksTokenProvider(
+            Map.of("es256-1", ecKeyPair.getPublic(), "rs256-1", rsaKeyPair.getPublic()),
+            true
+        );
+
+        ParsedToken es256 = jwksTokenProvider.parseToken(createSignedToken("es256-1", ecKeyPair.getPrivate(), SignatureAlgorithm.ES256));
+        ParsedToken rs256 = jwksTokenProvider.parseToken(createSignedToken("rs256-1", rsaKeyPair.getPrivate(), SignatureAlgorithm.RS256));
+
+        assertThat(es256.isValid()).isTrue();
+        assertThat(es256.getAuthentication().getName()).isEqualTo("anonymous");
+        assertThat(rs256.isValid()).isTrue();
+    }
+
+    @Test
+    void testTokenSignedWithTheSecretIsAcceptedWhileTheSecretIsConfigured() throws Exception {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        Map<String, PublicKey> publicKeys = Map.of("es256-1", JwksPublicKeysTest.generateEcKeyPair().getPublic());
+
+        assertThat(createJwksTokenProvider(publicKeys, true).validateToken(token)).isTrue();
+        assertThat(createJwksTokenProvider(publicKeys, false).validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testTokenSignedWithAnotherKeyIsRejected() throws Exception {
+        KeyPair ecKeyPair = JwksPublicKeysTest.generateEcKeyPair();
+        PrivateKey otherKey = JwksPublicKeysTest.generateEcKeyPair().getPrivate();
+        TokenProvider jwksTokenProvider = createJwksTokenProvider(Map.of("es256-1", ecKeyPair.getPublic()), true);
+
+        assertThat(jwksTokenProvider.parseToken(createSignedToken("es256-2", otherKey, SignatureAlgorithm.ES256)).getFailure())
+            .isEqualTo(ParsedToken.Failure.INVALID_SIGNATURE);
+        assertThat(jwksTokenProvider.parseToken(createSignedToken("es256-1", otherKey, SignatureAlgorithm.ES256)).getFailure())
+            .isEqualTo(ParsedToken.Failure.INVALID_SIGNATURE);
+    }
+
+    private TokenProvider createJwksTokenProvider(Map<String, PublicKey> publicKeys, boolean withSecret) {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        if (withSecret) {
+            jHipsterProperties
+                .getSecurity()
+                .getAuthentication()
+                .getJwt()
+                .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        }
+        JwksPublicKeys jwksPublicKeys = new JwksPublicKeys(() -> JwksPublicKeysTest.jwks(publicKeys), Duration.ofSeconds(10));
+        return new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()), Optional.of(jwksPublicKeys));
+    }
+
+    private String createSignedToken(String keyId, PrivateKey privateKey, SignatureAlgorithm algorithm) {
+        return Jwts
+            .builder()
+            .setHeaderParam("kid", keyId)
+            .setSubject("anonymous")
+            .claim("auth", AuthoritiesConstants.ANONYMOUS)
+            .signWith(privateKey, algorithm)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -2,6 +2,7 @@ package com.dealer.app.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -125,6 +127,7 @@ class DealerResourceIT {
             .perform(get(ENTITY_API_URL + "?sort=id,desc"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=10"))
             .andExpect(jsonPath("$.[*].id").value(hasItem(dealer.getId().intValue())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
             .andExpect(jsonPath("$.[*].address").value(hasItem(DEFAULT_ADDRESS)));
@@ -141,6 +144,7 @@ class DealerResourceIT {
             .perform(get(ENTITY_API_URL_ID, dealer.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=10"))
             .andExpect(jsonPath("$.id").value(dealer.getId().intValue()))
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
             .andExpect(jsonPath("$.address").value(DEFAULT_ADDRESS));
@@ -153,6 +157,69 @@ class DealerResourceIT {
         restDealerMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    void getDealerNotModified() throws Exception {
+        // Initialize the database
+        dealerRepository.saveAndFlush(dealer);
+
+        String eTag = restDealerMockMvc
+            .perform(get(ENTITY_API_URL_ID, dealer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + dealer.getVersion() + "\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restDealerMockMvc
+            .perform(get(ENTITY_API_URL_ID, dealer.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+
+        // Update the dealer, the previous ETag does not match anymore
+        dealer.setName(UPDATED_NAME);
+        dealerRepository.saveAndFlush(dealer);
+
+        restDealerMockMvc
+            .perform(get(ENTITY_API_URL_ID, dealer.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + dealer.getVersion() + "\""))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllDealersNotModified() throws Exception {
+        // Initialize the database
+        dealerRepository.saveAndFlush(dealer);
+
+        String eTag = restDealerMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restDealerMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Create a dealer through the API, the previous ETag does not match anymore
+        restDealerMockMvc
+            .perform(
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(createEntity(em)))
+            )
+            .andExpect(status().isCreated());
+
+        restDealerMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
     @Test
     @Transactional
     void putNewDealer() throws Exception {
@@ -183,6 +250,23 @@ class DealerResourceIT {
         assertThat(testDealer.getAddress()).isEqualTo(UPDATED_ADDRESS);
     }
 
+    @Test
+    @Transactional
+    void putDealerWithStaleVersion() throws Exception {
+        // Initialize the database
+        dealerRepository.saveAndFlush(dealer);
+
+        Dealer updatedDealer = new Dealer().id(dealer.getId()).name(UPDATED_NAME).address(UPDATED_ADDRESS).version(dealer.getVersion() + 1);
+
+        restDealerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedDealer.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedDealer))
+            )
+            .andExpect(status().isConflict());
+    }
+
     @Test
     @Transactional
     void putNonExistingDealer() throws Exception {
@@ -1,6 +1,10 @@
 package com.gateway.app.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Gateway.
@@ -9,4 +13,523 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Security security = new Security();
+
+    private final UserCache userCache = new UserCache();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final Mail mail = new Mail();
+
+    private final RateLimiting rateLimiting = new RateLimiting();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final RequestCoalescing requestCoalescing = new RequestCoalescing();
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public RateLimiting getRateLimiting() {
+        return rateLimiting;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public RequestCoalescing getRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    public static class Security {
+
+        private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
+        private final JwtSigning jwtSigning = new JwtSigning();
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        public VerifiedTokenCache getVerifiedTokenCache() {
+            return verifiedTokenCache;
+        }
+
+        public JwtSigning getJwtSigning() {
+            return jwtSigning;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        /**
+         * Tokens whose signature has already been verified, each kept until it expires.
+         */
+        public static class VerifiedTokenCache {
+
+            /**
+             * Maximum number of cached tokens, least recently used ones are evicted first.
+             */
+            private int maxSize = 10000;
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+        }
+    
+        /**
+         * Asymmetric keys signing the tokens, used instead of the JWT secret when the key store is set.
+         * Each private key entry of the key store is a signing key, whose alias is the {@code kid} of its tokens.
+         */
+        public static class JwtSigning {
+
+            /**
+             * Location of the key store, {@code file:config/jwt-signing-keys.p12} for instance.
+             */
+            private String keyStore;
+
+            private String keyStorePassword;
+
+            private String keyStoreType = "PKCS12";
+
+            /**
+             * Alias of the key signing new tokens.
+             */
+            private String activeKey;
+
+            public String getKeyStore() {
+                return keyStore;
+            }
+
+            public void setKeyStore(String keyStore) {
+                this.keyStore = keyStore;
+            }
+
+            public String getKeyStorePassword() {
+                return keyStorePassword;
+            }
+
+            public void setKeyStorePassword(String keyStorePassword) {
+                this.keyStorePassword = keyStorePassword;
+            }
+
+            public String getKeyStoreType() {
+                return keyStoreType;
+            }
+
+            public void setKeyStoreType(String keyStoreType) {
+                this.keyStoreType = keyStoreType;
+            }
+
+            public String getActiveKey() {
+                return activeKey;
+            }
+
+            public void setActiveKey(String activeKey) {
+                this.activeKey = activeKey;
+            }
+        }
+    
+        /**
+         * BCrypt hashing of the passwords, run on its own threads.
+         */
+        public static class PasswordHashing {
+
+            /**
+             * Log rounds of the BCrypt hashes; the hash of a password with another cost is replaced at its next login.
+             */
+            private int bcryptStrength = 10;
+
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Number of hashes waiting for a thread beyond which requests are answered with 429 Too Many Requests.
+             */
+            private int queueCapacity = 100;
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+    }
+
+    /**
+     * Users with their authorities, cached by login and by email for the authentication and the account lookups.
+     */
+    public static class UserCache {
+
+        /**
+         * Time a user stays cached. It bounds how long a change made by another instance, a revoked authority or a new
+         * password for instance, may be ignored by this one.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Daily deletion of the users who did not activate their account within 3 days.
+     */
+    public static class UserPurge {
+
+        /**
+         * Number of users deleted by each statement.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Pause between two batches, leaving the database to other queries.
+         */
+        private Duration pause = Duration.ofMillis(100);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPause() {
+            return pause;
+        }
+
+        public void setPause(Duration pause) {
+            this.pause = pause;
+        }
+    }
+
+    /**
+     * Delivery of the emails, by their own threads.
+     */
+    public static class Mail {
+
+        /**
+         * Number of emails waiting to be sent beyond which new ones are rejected.
+         */
+        private int queueCapacity = 1000;
+
+        private int threads = 1;
+
+        /**
+         * Maximum number of emails sent through one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        private int maxAttempts = 3;
+
+        /**
+         * Delay before the first retry of an email, doubled for each following one and increased by up to 50% at random.
+         */
+        private Duration retryDelay = Duration.ofSeconds(2);
+
+        /**
+         * Time given to the delivery threads to send the waiting emails when the application stops. The emails still
+         * waiting after it are dropped, and counted as failed.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(Duration retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    /**
+     * JCache store of the token buckets of the {@code RateLimit} filter.
+     * The limits themselves are the {@code jhipster.gateway.rate-limiting} ones, which routes can override.
+     */
+    public static class RateLimiting {
+
+        /**
+         * Where the gateway keeps the buckets.
+         */
+        public enum Store {
+            /**
+             * Every gateway instance keeps its own buckets in a Caffeine cache, clients get the limit from each instance.
+             */
+            LOCAL,
+            /**
+             * The gateway instances share the buckets in a separately deployed Hazelcast cluster they connect to as clients.
+             */
+            HAZELCAST,
+        }
+
+        private Store store = Store.LOCAL;
+
+        private final Hazelcast hazelcast = new Hazelcast();
+
+        /**
+         * Maximum number of buckets, least recently used ones are evicted first. With the {@link Store#HAZELCAST} store,
+         * this is the maximum of each Hazelcast member.
+         */
+        private long maxBuckets = 100000;
+
+        /**
+         * Time after which an unused bucket is evicted, it should not be shorter than the durations of the limits.
+         */
+        private Duration idleTimeout = Duration.ofHours(1);
+
+        /**
+         * API keys of the clients, the requests with another key are limited by their IP address by {@code RateLimit=API_KEY}.
+         */
+        private List<String> apiKeys = new ArrayList<>();
+
+        /**
+         * Number of proxies in front of the gateway whose {@code X-Forwarded-For} entries are trusted to tell the IP address
+         * of the client. The address the request came from is used when there is none, which must be the case unless the
+         * gateway is only reachable through these proxies: a client could otherwise send any {@code X-Forwarded-For}.
+         */
+        private int trustedProxies = 0;
+
+        public Store getStore() {
+            return store;
+        }
+
+        public void setStore(Store store) {
+            this.store = store;
+        }
+
+        public Hazelcast getHazelcast() {
+            return hazelcast;
+        }
+
+        public long getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(long maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public List<String> getApiKeys() {
+            return apiKeys;
+        }
+
+        public void setApiKeys(List<String> apiKeys) {
+            this.apiKeys = apiKeys;
+        }
+
+        public int getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(int trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+
+        /**
+         * Cluster the gateway connects to with the {@link Store#HAZELCAST} store.
+         */
+        public static class Hazelcast {
+
+            private String clusterName = "dev";
+
+            private List<String> addresses = new ArrayList<>(List.of("127.0.0.1:5701"));
+
+            public String getClusterName() {
+                return clusterName;
+            }
+
+            public void setClusterName(String clusterName) {
+                this.clusterName = clusterName;
+            }
+
+            public List<String> getAddresses() {
+                return addresses;
+            }
+
+            public void setAddresses(List<String> addresses) {
+                this.addresses = addresses;
+            }
+        }
+    }
+
+    /**
+     * Responses of the services cached by the gateway, for as long as their {@code Cache-Control} header allows.
+     */
+    public static class ResponseCache {
+
+        /**
+         * Patterns of the paths whose {@code GET} responses are cached, {@code /services/carsapp/api/cars/**} for instance.
+         * Nothing is cached when there is none.
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * Maximum total size of the cached bodies, least recently used responses are evicted first.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Size of the bodies beyond which responses are not cached.
+         */
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+    }
+
+    /**
+     * Identical {@code GET} requests sent to a service while one of them is in flight, answered with the response to it.
+     */
+    public static class RequestCoalescing {
+
+        /**
+         * Patterns of the paths whose {@code GET} requests are coalesced, {@code /services/carsapp/api/cars/**} for instance.
+         * Nothing is coalesced when there is none.
+         */
+        private List<String> paths = new ArrayList<>();
+
+        /**
+         * Size of the bodies beyond which responses are not shared, the waiting requests are then sent to the service.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Time a request waits for the response to the request in flight, before it is sent to the service.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
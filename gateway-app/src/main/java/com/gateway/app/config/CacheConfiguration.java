@@ -1,11 +1,48 @@
 package com.gateway.app.config;
 
+import com.gateway.app.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.cloud.client.serviceregistry.Registration;
 import org.springframework.context.annotation.*;
+import tech.jhipster.config.JHipsterProperties;
 
 @Configuration
 @EnableCaching
-public class CacheConfiguration {}
+public class CacheConfiguration {
+
+    /**
+     * Local caches, sized and expired by {@code jhipster.cache.caffeine}, except the user caches, which are expired by
+     * {@code application.user-cache.time-to-live}. Their size, hits and misses are published as the {@code cache.*} meters.
+     */
+    @Bean
+    public CacheManager cacheManager(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        JHipsterProperties.Cache.Caffeine caffeine = jHipsterProperties.getCache().getCaffeine();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(
+            Caffeine
+                .newBuilder()
+                .maximumSize(caffeine.getMaxEntries())
+                .expireAfterWrite(caffeine.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+        );
+        cacheManager.setAllowNullValues(false);
+        List<String> userCacheNames = List.of(UserRepository.USERS_BY_LOGIN_CACHE, UserRepository.USERS_BY_EMAIL_CACHE);
+        cacheManager.setCacheNames(userCacheNames);
+        Duration userTimeToLive = applicationProperties.getUserCache().getTimeToLive();
+        for (String name : userCacheNames) {
+            cacheManager.registerCustomCache(
+                name,
+                Caffeine.newBuilder().maximumSize(caffeine.getMaxEntries()).expireAfterWrite(userTimeToLive).recordStats().build()
+            );
+        }
+        return cacheManager;
+    }
+}
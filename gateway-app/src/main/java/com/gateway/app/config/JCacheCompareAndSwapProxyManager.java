@@ -0,0 +1,65 @@
+package com.gateway.app.config;
+
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import javax.cache.Cache;
+
+/**
+ * Bucket4j buckets kept in a JCache cache, updated with compare-and-swap operations.
+ * <p>
+ * Unlike the {@code EntryProcessor} of bucket4j-jcache, which runs on the members holding the cache, the commands run
+ * in the gateway and only the {@code get}, {@code putIfAbsent} and {@code replace} operations of JCache reach the
+ * cache: the members of a Hazelcast cluster keeping the buckets need no bucket4j class. A swap fails when another
+ * gateway instance changed the bucket in the meantime, and the command is then run again.
+ * <p>
+ * The states are compared by value by Hazelcast, and by reference by a local cache, which must then store the states
+ * by reference.
+ */
+public class JCacheCompareAndSwapProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private final Cache<String, byte[]> buckets;
+
+    public JCacheCompareAndSwapProxyManager(Cache<String, byte[]> buckets) {
+        super(ClientSideConfig.getDefault());
+        this.buckets = buckets;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return Optional.ofNullable(buckets.get(key));
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData) {
+                return originalData == null ? buckets.putIfAbsent(key, newData) : buckets.replace(key, originalData, newData);
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        buckets.remove(key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gateway.app.config;
+
+import com.gateway.app.security.jwt.JwtSigningKeys;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Loads the asymmetric keys signing the tokens, when {@code application.security.jwt-signing.key-store} is set.
+ */
+@Configuration
+@ConditionalOnProperty("application.security.jwt-signing.key-store")
+public class JwtSigningConfiguration {
+
+    @Bean
+    public JwtSigningKeys jwtSigningKeys(ApplicationProperties applicationProperties, ResourceLoader resourceLoader)
+        throws IOException, GeneralSecurityException {
+        ApplicationProperties.Security.JwtSigning jwtSigning = applicationProperties.getSecurity().getJwtSigning();
+        char[] password = jwtSigning.getKeyStorePassword() == null ? new char[0] : jwtSigning.getKeyStorePassword().toCharArray();
+        try (InputStream keyStore = resourceLoader.getResource(jwtSigning.getKeyStore()).getInputStream()) {
+            return JwtSigningKeys.load(keyStore, jwtSigning.getKeyStoreType(), password, jwtSigning.getActiveKey());
+        }
+    }
+}
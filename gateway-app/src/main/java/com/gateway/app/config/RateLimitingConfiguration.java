@@ -0,0 +1,120 @@
+package com.gateway.app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.hazelcast.cache.HazelcastCachingProvider;
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.config.CacheConfig;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.HazelcastInstance;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.cache.Cache;
+import javax.cache.CacheException;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.expiry.AccessedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.spi.CachingProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Store of the token buckets of the {@code RateLimit} gateway filter.
+ * <p>
+ * The buckets are kept in a JCache cache: a Caffeine one local to each gateway instance, or a Hazelcast one shared by
+ * the instances when {@code application.rate-limiting.store} is {@code hazelcast}. The gateway instances then connect as
+ * clients to a Hazelcast cluster whose members have the JCache API ({@code javax.cache:cache-api}) on their classpath;
+ * they need no bucket4j class, see {@link JCacheCompareAndSwapProxyManager}.
+ */
+@Configuration
+public class RateLimitingConfiguration {
+
+    private static final String BUCKETS_CACHE_NAME = "rate-limit-buckets";
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitingConfiguration.class);
+
+    private CacheManager cacheManager;
+
+    private HazelcastInstance hazelcastClient;
+
+    @PreDestroy
+    public void destroy() {
+        if (cacheManager != null) {
+            cacheManager.close();
+        }
+        if (hazelcastClient != null) {
+            hazelcastClient.shutdown();
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProxyManager<String> rateLimitBuckets(ApplicationProperties applicationProperties) {
+        ApplicationProperties.RateLimiting rateLimiting = applicationProperties.getRateLimiting();
+        Cache<String, byte[]> buckets = rateLimiting.getStore() == ApplicationProperties.RateLimiting.Store.HAZELCAST
+            ? hazelcastBuckets(rateLimiting)
+            : caffeineBuckets(rateLimiting);
+        return new JCacheCompareAndSwapProxyManager(buckets);
+    }
+
+    private Cache<String, byte[]> caffeineBuckets(ApplicationProperties.RateLimiting rateLimiting) {
+        log.debug("Keeping the rate limit buckets in Caffeine");
+        // a cache manager of this application context, as the default one would be shared with the other contexts
+        CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        cacheManager =
+            cachingProvider.getCacheManager(
+                URI.create(BUCKETS_CACHE_NAME + ':' + ObjectUtils.getIdentityHexString(this)),
+                cachingProvider.getDefaultClassLoader()
+            );
+        CaffeineConfiguration<String, byte[]> configuration = new CaffeineConfiguration<>();
+        configuration.setTypes(String.class, byte[].class);
+        configuration.setMaximumSize(OptionalLong.of(rateLimiting.getMaxBuckets()));
+        configuration.setExpireAfterAccess(OptionalLong.of(rateLimiting.getIdleTimeout().toNanos()));
+        // bucket4j stores the states serialized, there is nothing to copy, and they are swapped by reference
+        configuration.setStoreByValue(false);
+        return cacheManager.createCache(BUCKETS_CACHE_NAME, configuration);
+    }
+
+    private Cache<String, byte[]> hazelcastBuckets(ApplicationProperties.RateLimiting rateLimiting) {
+        ApplicationProperties.RateLimiting.Hazelcast hazelcast = rateLimiting.getHazelcast();
+        log.debug("Keeping the rate limit buckets in Hazelcast cluster {} at {}", hazelcast.getClusterName(), hazelcast.getAddresses());
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setInstanceName("gateway-rate-limiting");
+        clientConfig.setClusterName(hazelcast.getClusterName());
+        clientConfig.getNetworkConfig().setAddresses(new ArrayList<>(hazelcast.getAddresses()));
+        hazelcastClient = HazelcastClient.getOrCreateHazelcastClient(clientConfig);
+        cacheManager =
+            Caching
+                .getCachingProvider(HazelcastCachingProvider.class.getName())
+                .getCacheManager(null, null, HazelcastCachingProvider.propertiesByInstanceItself(hazelcastClient));
+        CacheConfig<String, byte[]> configuration = new CacheConfig<>();
+        configuration.setTypes(String.class, byte[].class);
+        configuration.setExpiryPolicyFactory(
+            AccessedExpiryPolicy.factoryOf(new Duration(TimeUnit.MILLISECONDS, rateLimiting.getIdleTimeout().toMillis()))
+        );
+        configuration.setEvictionConfig(
+            new EvictionConfig()
+                .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize((int) Math.min(Integer.MAX_VALUE, rateLimiting.getMaxBuckets()))
+                .setEvictionPolicy(EvictionPolicy.LRU)
+        );
+        try {
+            return cacheManager.createCache(BUCKETS_CACHE_NAME, configuration);
+        } catch (CacheException e) {
+            // created by another gateway instance
+            return cacheManager.getCache(BUCKETS_CACHE_NAME, String.class, byte[].class);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.gateway.app.config;
 import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
 import com.gateway.app.security.AuthoritiesConstants;
+import com.gateway.app.security.PasswordHashingScheduler;
+import com.gateway.app.security.TunableBCryptPasswordEncoder;
 import com.gateway.app.security.jwt.JWTFilter;
-import com.gateway.app.security.jwt.TokenProvider;
+import com.gateway.app.security.jwt.VerifiedTokenCache;
 import com.gateway.app.web.filter.SpaWebFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
@@ -15,8 +17,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
@@ -35,25 +37,37 @@ public class SecurityConfiguration {
 
     private final ReactiveUserDetailsService userDetailsService;
 
-    private final TokenProvider tokenProvider;
+    private final ReactiveUserDetailsPasswordService userDetailsPasswordService;
+
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final VerifiedTokenCache verifiedTokenCache;
 
     private final SecurityProblemSupport problemSupport;
 
     public SecurityConfiguration(
         ReactiveUserDetailsService userDetailsService,
-        TokenProvider tokenProvider,
+        ReactiveUserDetailsPasswordService userDetailsPasswordService,
+        PasswordHashingScheduler passwordHashingScheduler,
+        VerifiedTokenCache verifiedTokenCache,
         JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
         SecurityProblemSupport problemSupport
     ) {
         this.userDetailsService = userDetailsService;
-        this.tokenProvider = tokenProvider;
+        this.userDetailsPasswordService = userDetailsPasswordService;
+        this.passwordHashingScheduler = passwordHashingScheduler;
+        this.applicationProperties = applicationProperties;
+        this.verifiedTokenCache = verifiedTokenCache;
         this.jHipsterProperties = jHipsterProperties;
         this.problemSupport = problemSupport;
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TunableBCryptPasswordEncoder(applicationProperties.getSecurity().getPasswordHashing().getBcryptStrength());
     }
 
     @Bean
@@ -62,6 +76,8 @@ public class SecurityConfiguration {
             userDetailsService
         );
         authenticationManager.setPasswordEncoder(passwordEncoder());
+        authenticationManager.setScheduler(passwordHashingScheduler.getScheduler());
+        authenticationManager.setUserDetailsPasswordService(userDetailsPasswordService);
         return authenticationManager;
     }
 
@@ -76,7 +92,7 @@ public class SecurityConfiguration {
             .csrf()
                 .disable()
             .addFilterAt(new SpaWebFilter(), SecurityWebFiltersOrder.AUTHENTICATION)
-            .addFilterAt(new JWTFilter(tokenProvider), SecurityWebFiltersOrder.HTTP_BASIC)
+            .addFilterAt(new JWTFilter(verifiedTokenCache), SecurityWebFiltersOrder.HTTP_BASIC)
             .authenticationManager(reactiveAuthenticationManager())
             .exceptionHandling()
                 .accessDeniedHandler(problemSupport)
@@ -94,6 +110,7 @@ public class SecurityConfiguration {
             .authorizeExchange()
             .pathMatchers("/").permitAll()
             .pathMatchers("/*.*").permitAll()
+            .pathMatchers("/.well-known/jwks.json").permitAll()
             .pathMatchers("/api/authenticate").permitAll()
             .pathMatchers("/api/register").permitAll()
             .pathMatchers("/api/activate").permitAll()
@@ -5,12 +5,23 @@ import static org.springframework.data.relational.core.query.Query.query;
 
 import com.gateway.app.domain.Authority;
 import com.gateway.app.domain.User;
+import com.gateway.app.repository.rowmapper.UserRowMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
@@ -19,9 +30,17 @@ import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
@@ -32,16 +51,31 @@ import reactor.util.function.Tuples;
  */
 @Repository
 public interface UserRepository extends R2dbcRepository<User, Long>, UserRepositoryInternal {
+    String USERS_BY_LOGIN_CACHE = "usersByLogin";
+
+    String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
     Mono<User> findOneByActivationKey(String activationKey);
 
     Flux<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(LocalDateTime dateTime);
 
+    /**
+     * Within a transaction, the users are locked until it ends, so that they cannot be activated in the meantime.
+     */
+    @Query(
+        "SELECT * FROM jhi_user WHERE activated = false AND created_date < :createdBefore AND activation_key IS NOT NULL" +
+        " LIMIT :limit FOR UPDATE"
+    )
+    Flux<User> findNotActivatedUsersCreatedBefore(LocalDateTime createdBefore, int limit);
+
     Mono<User> findOneByResetKey(String resetKey);
 
     Mono<User> findOneByEmailIgnoreCase(String email);
 
     Mono<User> findOneByLogin(String login);
 
+    Flux<User> findAllByLoginIn(Collection<String> logins);
+
     Flux<User> findAllByIdNotNull(Pageable pageable);
 
     Flux<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
@@ -60,14 +94,49 @@ public interface UserRepository extends R2dbcRepository<User, Long>, UserReposit
 
 interface DeleteExtended<T> {
     Mono<Void> delete(T user);
+
+    /**
+     * Deletes the users that are still not activated and were created before the given date, and their authorities,
+     * with one statement for each table.
+     *
+     * @return the number of deleted users.
+     */
+    Mono<Integer> deleteNotActivatedWithAuthorities(Collection<Long> userIds, LocalDateTime createdBefore);
 }
 
 interface UserRepositoryInternal extends DeleteExtended<User> {
+    /**
+     * Served from the {@value UserRepository#USERS_BY_LOGIN_CACHE} cache, which must be evicted when the user changes.
+     */
     Mono<User> findOneWithAuthoritiesByLogin(String login);
 
+    /**
+     * Served from the {@value UserRepository#USERS_BY_EMAIL_CACHE} cache, which must be evicted when the user changes.
+     */
     Mono<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
+    /**
+     * Evicts the user from the caches, by its current login and email. Within a transaction, the user is evicted again
+     * once it has committed.
+     */
+    Mono<Void> evictFromCaches(User user);
+
     Flux<User> findAllWithAuthorities(Pageable pageable);
+
+    /**
+     * Inserts the authorities of a user with one batched statement.
+     */
+    Mono<Void> saveUserAuthorities(Long userId, Collection<String> authorities);
+
+    /**
+     * Replaces the authorities of a user, only deleting the ones it no longer has and inserting the ones it did not have.
+     */
+    Mono<Void> updateUserAuthorities(Long userId, Collection<String> authorities);
+
+    /**
+     * Adds and removes authorities of many users, with one delete and one batched insert.
+     */
+    Mono<Void> updateAuthorities(Collection<Long> userIds, Collection<String> addedAuthorities, Collection<String> removedAuthorities);
 }
 
 class UserRepositoryInternalImpl implements UserRepositoryInternal {
@@ -75,47 +144,126 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final R2dbcConverter r2dbcConverter;
+    private final EntityManager entityManager;
+    private final UserRowMapper userRowMapper;
+    private final BindMarkersFactory bindMarkersFactory;
+    private final Cache usersByLoginCache;
+    private final Cache usersByEmailCache;
+
+    // incremented by every eviction, so that users read before an eviction are not cached after it
+    private final AtomicLong evictions = new AtomicLong();
 
-    public UserRepositoryInternalImpl(DatabaseClient db, R2dbcEntityTemplate r2dbcEntityTemplate, R2dbcConverter r2dbcConverter) {
+    public UserRepositoryInternalImpl(
+        DatabaseClient db,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcConverter r2dbcConverter,
+        EntityManager entityManager,
+        UserRowMapper userRowMapper,
+        ConnectionFactory connectionFactory,
+        CacheManager cacheManager
+    ) {
         this.db = db;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.r2dbcConverter = r2dbcConverter;
+        this.entityManager = entityManager;
+        this.userRowMapper = userRowMapper;
+        this.bindMarkersFactory = BindMarkersFactoryResolver.resolve(connectionFactory);
+        this.usersByLoginCache = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        this.usersByEmailCache = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
     }
 
     @Override
     public Mono<User> findOneWithAuthoritiesByLogin(String login) {
-        return findOneWithAuthoritiesBy("login", login);
+        return cached(usersByLoginCache, login, () -> findOneWithAuthoritiesBy("login", login));
     }
 
     @Override
     public Mono<User> findOneWithAuthoritiesByEmailIgnoreCase(String email) {
-        return findOneWithAuthoritiesBy("email", email.toLowerCase());
+        String lowercaseEmail = email.toLowerCase();
+        return cached(usersByEmailCache, lowercaseEmail, () -> findOneWithAuthoritiesBy("email", lowercaseEmail));
     }
 
+    /**
+     * Selects the users of the page, sorted and paged by the database, then their authorities with a second query.
+     */
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().orElse("id");
-        String direction = String.valueOf(
-            pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().orElse(Sort.DEFAULT_DIRECTION)
-        );
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
+        return db
+            .sql(createPageSelect(pageable))
+            .map((row, metadata) -> userRowMapper.apply(row, EntityManager.ENTITY_ALIAS))
+            .all()
+            .collectList()
+            .filter(users -> !users.isEmpty())
+            .flatMapMany(users -> addAuthorities(users).thenMany(Flux.fromIterable(users)));
+    }
+
+    /**
+     * Sorts by id when no order is given, and then by id so that the pages do not overlap when the sorted property has
+     * duplicate values.
+     */
+    String createPageSelect(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        Table table = Table.aliased("jhi_user", EntityManager.ENTITY_ALIAS);
+        SelectFromAndJoin selectFrom = Select.builder().select(UserSqlHelper.getColumns(table, EntityManager.ENTITY_ALIAS)).from(table);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return entityManager.createSelect(selectFrom, User.class, sortedPageable, null);
+    }
 
+    private Mono<Void> addAuthorities(List<User> users) {
+        Map<Long, User> usersById = users.stream().collect(Collectors.toMap(User::getId, Function.identity()));
         return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
-            )
+            .sql("SELECT user_id, authority_name FROM jhi_user_authority WHERE user_id IN (:userIds)")
+            .bind("userIds", new ArrayList<>(usersById.keySet()))
+            .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
-            )
-            .skip(page * size)
-            .take(size);
+            .doOnNext(userAuthority -> {
+                Authority authority = new Authority();
+                authority.setName(userAuthority.getT2());
+                usersById.get(userAuthority.getT1()).getAuthorities().add(authority);
+            })
+            .then();
+    }
+
+    @Override
+    public Mono<Void> saveUserAuthorities(Long userId, Collection<String> authorities) {
+        return insertUserAuthorities(List.of(userId), authorities);
+    }
+
+    @Override
+    public Mono<Void> updateUserAuthorities(Long userId, Collection<String> authorities) {
+        return db
+            .sql("SELECT authority_name FROM jhi_user_authority WHERE user_id = :userId")
+            .bind("userId", userId)
+            .map((row, metadata) -> row.get("authority_name", String.class))
+            .all()
+            .collect(Collectors.toSet())
+            .flatMap(currentAuthorities -> {
+                List<String> removedAuthorities = currentAuthorities
+                    .stream()
+                    .filter(authority -> !authorities.contains(authority))
+                    .collect(Collectors.toList());
+                List<String> addedAuthorities = authorities
+                    .stream()
+                    .filter(authority -> !currentAuthorities.contains(authority))
+                    .collect(Collectors.toList());
+                return deleteUserAuthorities(List.of(userId), removedAuthorities)
+                    .then(insertUserAuthorities(List.of(userId), addedAuthorities));
+            });
+    }
+
+    @Override
+    public Mono<Void> updateAuthorities(
+        Collection<Long> userIds,
+        Collection<String> addedAuthorities,
+        Collection<String> removedAuthorities
+    ) {
+        // the added authorities are deleted too, so that inserting them does not break the primary key
+        List<String> changedAuthorities = new ArrayList<>(removedAuthorities);
+        changedAuthorities.addAll(addedAuthorities);
+        return deleteUserAuthorities(userIds, changedAuthorities).then(insertUserAuthorities(userIds, addedAuthorities));
     }
 
     @Override
@@ -127,6 +275,78 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
             .then(r2dbcEntityTemplate.delete(User.class).matching(query(where("id").is(user.getId()))).all().then());
     }
 
+    @Override
+    public Mono<Integer> deleteNotActivatedWithAuthorities(Collection<Long> userIds, LocalDateTime createdBefore) {
+        if (userIds.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Long> ids = new ArrayList<>(userIds);
+        String notActivatedUsers = "id IN (:userIds) AND activated = false AND created_date < :createdBefore";
+        return db
+            .sql("DELETE FROM jhi_user_authority WHERE user_id IN (SELECT id FROM jhi_user WHERE " + notActivatedUsers + ")")
+            .bind("userIds", ids)
+            .bind("createdBefore", createdBefore)
+            .then()
+            .then(
+                db
+                    .sql("DELETE FROM jhi_user WHERE " + notActivatedUsers)
+                    .bind("userIds", ids)
+                    .bind("createdBefore", createdBefore)
+                    .fetch()
+                    .rowsUpdated()
+            );
+    }
+
+    @Override
+    public Mono<Void> evictFromCaches(User user) {
+        return Mono
+            .fromRunnable(() -> evict(user))
+            .then(TransactionSynchronizationManager.forCurrentTransaction())
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            // until the transaction commits, a concurrent lookup may still read the user as it was, and cache it again
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(() -> evict(user));
+                        }
+                    }
+                )
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .then();
+    }
+
+    private void evict(User user) {
+        evictions.incrementAndGet();
+        usersByLoginCache.evict(user.getLogin());
+        if (user.getEmail() != null) {
+            usersByEmailCache.evict(user.getEmail().toLowerCase());
+        }
+    }
+
+    /**
+     * Users that are not found are not cached, so that the next lookup finds them once they are created. Neither are
+     * users read while a user was evicted, as they may have been read before the change was committed.
+     */
+    private Mono<User> cached(Cache cache, String key, Supplier<Mono<User>> query) {
+        return Mono.defer(() -> {
+            User user = cache.get(key, User.class);
+            if (user != null) {
+                return Mono.just(user);
+            }
+            long evictionsBefore = evictions.get();
+            return query
+                .get()
+                .doOnNext(foundUser -> {
+                    if (evictions.get() == evictionsBefore) {
+                        cache.put(key, foundUser);
+                    }
+                });
+        });
+    }
+
     private Mono<User> findOneWithAuthoritiesBy(String fieldName, Object fieldValue) {
         return db
             .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id WHERE u." + fieldName + " = :" + fieldName)
@@ -140,6 +360,49 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
             .map(l -> updateUserWithAuthorities(l.get(0).getT1(), l));
     }
 
+    private Mono<Void> deleteUserAuthorities(Collection<Long> userIds, Collection<String> authorities) {
+        if (userIds.isEmpty() || authorities.isEmpty()) {
+            return Mono.empty();
+        }
+        return db
+            .sql("DELETE FROM jhi_user_authority WHERE user_id IN (:userIds) AND authority_name IN (:authorities)")
+            .bind("userIds", new ArrayList<>(userIds))
+            .bind("authorities", new ArrayList<>(authorities))
+            .then();
+    }
+
+    /**
+     * Inserts every pair of user and authority with a single statement, bound once per row.
+     */
+    private Mono<Void> insertUserAuthorities(Collection<Long> userIds, Collection<String> authorities) {
+        if (userIds.isEmpty() || authorities.isEmpty()) {
+            return Mono.empty();
+        }
+        return db
+            .inConnectionMany(connection -> {
+                BindMarkers bindMarkers = bindMarkersFactory.create();
+                Statement statement = connection.createStatement(
+                    "INSERT INTO jhi_user_authority (user_id, authority_name) VALUES (" +
+                    bindMarkers.next().getPlaceholder() +
+                    ", " +
+                    bindMarkers.next().getPlaceholder() +
+                    ")"
+                );
+                boolean firstRow = true;
+                for (Long userId : userIds) {
+                    for (String authority : authorities) {
+                        if (!firstRow) {
+                            statement.add();
+                        }
+                        statement.bind(0, userId).bind(1, authority);
+                        firstRow = false;
+                    }
+                }
+                return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+            })
+            .then();
+    }
+
     private User updateUserWithAuthorities(User user, List<Tuple2<User, Optional<String>>> tuples) {
         user.setAuthorities(
             tuples
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -17,10 +18,10 @@ import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, and replace the hash of its password when the hashing settings changed.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements ReactiveUserDetailsService {
+public class DomainUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
@@ -49,6 +50,20 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
             .map(user -> createSpringSecurityUser(lowercaseLogin, user));
     }
 
+    @Override
+    @Transactional
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        log.debug("Upgrading the password hash of {}", user.getUsername());
+        return userRepository
+            .findOneByLogin(user.getUsername())
+            .flatMap(domainUser -> {
+                domainUser.setPassword(newPassword);
+                return userRepository.save(domainUser);
+            })
+            .delayUntil(userRepository::evictFromCaches)
+            .thenReturn(org.springframework.security.core.userdetails.User.withUserDetails(user).password(newPassword).build());
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
@@ -0,0 +1,53 @@
+package com.gateway.app.security;
+
+import com.gateway.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler hashing and checking the passwords, so that BCrypt does not run on the event loop threads.
+ * <p>
+ * It has a fixed number of threads and a bounded queue: when the queue is full the work is rejected with a
+ * {@link RejectedExecutionException}, answered with {@code 429 Too Many Requests}, instead of piling up. The queue
+ * depth and the active threads are published as the {@code executor.*} meters of the {@value #EXECUTOR_NAME} executor.
+ */
+@Component
+public class PasswordHashingScheduler implements DisposableBean {
+
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    private final Scheduler scheduler;
+
+    public PasswordHashingScheduler(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.PasswordHashing passwordHashing = applicationProperties.getSecurity().getPasswordHashing();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            passwordHashing.getThreads(),
+            passwordHashing.getThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(passwordHashing.getQueueCapacity()),
+            new CustomizableThreadFactory("password-hashing-")
+        );
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        this.scheduler = Schedulers.fromExecutorService(executor, EXECUTOR_NAME);
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
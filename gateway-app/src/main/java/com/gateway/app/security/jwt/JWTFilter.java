@@ -1,5 +1,6 @@
 package com.gateway.app.security.jwt;
 
+import java.util.Optional;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
@@ -17,18 +18,27 @@ public class JWTFilter implements WebFilter {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
-    private final TokenProvider tokenProvider;
+    /**
+     * Exchange attribute holding the authentication of a request authenticated by its token, so that the filters
+     * routing it do not verify the token again.
+     */
+    public static final String AUTHENTICATION_ATTRIBUTE = JWTFilter.class.getName() + ".AUTHENTICATION";
 
-    public JWTFilter(TokenProvider tokenProvider) {
-        this.tokenProvider = tokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public JWTFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String jwt = resolveToken(exchange.getRequest());
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        if (StringUtils.hasText(jwt)) {
+            Optional<Authentication> authentication = this.verifiedTokenCache.getAuthentication(jwt);
+            if (authentication.isPresent()) {
+                exchange.getAttributes().put(AUTHENTICATION_ATTRIBUTE, authentication.get());
+                return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication.get()));
+            }
         }
         return chain.filter(exchange);
     }
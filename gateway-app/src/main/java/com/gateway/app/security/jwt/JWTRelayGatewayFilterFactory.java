@@ -4,40 +4,36 @@ import static com.gateway.app.security.jwt.JWTFilter.AUTHORIZATION_HEADER;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Relays to the services the token {@link JWTFilter} authenticated the request with.
+ * <p>
+ * The token was verified by {@link JWTFilter}, which keeps the authentication in the
+ * {@value JWTFilter#AUTHENTICATION_ATTRIBUTE} attribute of the exchange, so it is not verified again. Requests it did
+ * not authenticate are routed as they are.
+ */
 @Component
 public class JWTRelayGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
 
-    private final TokenProvider tokenProvider;
-
-    public JWTRelayGatewayFilterFactory(TokenProvider tokenProvider) {
-        this.tokenProvider = tokenProvider;
-    }
+    private static final String BEARER_PREFIX = "Bearer ";
 
     @Override
     public GatewayFilter apply(Object config) {
-        return (exchange, chain) -> {
-            String token = this.extractJWTToken(exchange.getRequest());
-            if (StringUtils.hasText(token) && this.tokenProvider.validateToken(token)) {
-                ServerHttpRequest request = exchange.getRequest().mutate().header(AUTHORIZATION_HEADER, "Bearer " + token).build();
-
-                return chain.filter(exchange.mutate().request(request).build());
-            }
-            return chain.filter(exchange);
-        };
+        return (exchange, chain) -> chain.filter(relayToken(exchange));
     }
 
-    private String extractJWTToken(ServerHttpRequest request) {
-        String bearerToken = request.getHeaders().getFirst(AUTHORIZATION_HEADER);
-        if (bearerToken == null) {
-            return null;
+    private ServerWebExchange relayToken(ServerWebExchange exchange) {
+        Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+        if (authentication == null || !(authentication.getCredentials() instanceof String)) {
+            return exchange;
         }
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        String authorization = BEARER_PREFIX + authentication.getCredentials();
+        if (authorization.equals(exchange.getRequest().getHeaders().getFirst(AUTHORIZATION_HEADER))) {
+            return exchange;
         }
-        throw new IllegalArgumentException("Invalid token in Authorization header");
+        return exchange.mutate().request(request -> request.header(AUTHORIZATION_HEADER, authorization)).build();
     }
 }
@@ -0,0 +1,156 @@
+package com.gateway.app.security.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asymmetric keys signing the tokens issued by the gateway, each identified by the {@code kid} header of the tokens
+ * it signs. Only the active key signs new tokens; the public keys of all of them verify tokens and are published as
+ * a JSON Web Key Set, so that the services verify the tokens without sharing a secret with the gateway.
+ * <p>
+ * EC keys on the P-256 curve sign with ES256, RSA keys of at least 2048 bits with RS256.
+ * <p>
+ * To rotate keys without downtime: add the new key to the key store and roll it out, so that every instance
+ * publishes it; then make it the active key and roll that out; finally remove the old key once the tokens it signed
+ * have expired. The services fetch the key set again when they meet a {@code kid} they do not know.
+ */
+public class JwtSigningKeys {
+
+    private static final int P256_COORDINATE_LENGTH = 32;
+
+    private final Map<String, KeyPair> keyPairs;
+
+    private final String activeKeyId;
+
+    private final SignatureAlgorithm activeAlgorithm;
+
+    /**
+     * @param keyPairs the key pairs by key id.
+     * @param activeKeyId the id of the key signing new tokens.
+     */
+    public JwtSigningKeys(Map<String, KeyPair> keyPairs, String activeKeyId) {
+        if (!keyPairs.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("The active JWT signing key " + activeKeyId + " is not one of " + keyPairs.keySet());
+        }
+        keyPairs.forEach((keyId, keyPair) -> algorithmOf(keyId, keyPair.getPublic()));
+        this.keyPairs = Collections.unmodifiableMap(new LinkedHashMap<>(keyPairs));
+        this.activeKeyId = activeKeyId;
+        this.activeAlgorithm = algorithmOf(activeKeyId, keyPairs.get(activeKeyId).getPublic());
+    }
+
+    /**
+     * Loads every private key entry of a key store, using its alias as key id.
+     *
+     * @param keyStore the key store content.
+     * @param type the key store type, {@code PKCS12} for instance.
+     * @param password the password of the key store and of its keys.
+     * @param activeKeyId the alias of the key signing new tokens.
+     * @return the keys.
+     */
+    public static JwtSigningKeys load(InputStream keyStore, String type, char[] password, String activeKeyId)
+        throws IOException, GeneralSecurityException {
+        KeyStore store = KeyStore.getInstance(type);
+        store.load(keyStore, password);
+        Map<String, KeyPair> keyPairs = new LinkedHashMap<>();
+        for (String alias : Collections.list(store.aliases())) {
+            if (store.isKeyEntry(alias) && store.getKey(alias, password) instanceof PrivateKey) {
+                PrivateKey privateKey = (PrivateKey) store.getKey(alias, password);
+                keyPairs.put(alias, new KeyPair(store.getCertificate(alias).getPublicKey(), privateKey));
+            }
+        }
+        return new JwtSigningKeys(keyPairs, activeKeyId);
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public PrivateKey getActivePrivateKey() {
+        return keyPairs.get(activeKeyId).getPrivate();
+    }
+
+    public SignatureAlgorithm getActiveAlgorithm() {
+        return activeAlgorithm;
+    }
+
+    /**
+     * @param keyId the {@code kid} header of a token.
+     * @return the public key verifying the tokens signed with this key, {@code null} if there is none.
+     */
+    public PublicKey getPublicKey(String keyId) {
+        KeyPair keyPair = keyPairs.get(keyId);
+        return keyPair == null ? null : keyPair.getPublic();
+    }
+
+    /**
+     * @return the public keys as a JSON Web Key Set (RFC 7517).
+     */
+    public Map<String, Object> toJwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        keyPairs.forEach((keyId, keyPair) -> keys.add(toJwk(keyId, keyPair.getPublic())));
+        return Map.of("keys", keys);
+    }
+
+    private static Map<String, Object> toJwk(String keyId, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof ECPublicKey) {
+            ECPublicKey ecPublicKey = (ECPublicKey) publicKey;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ecPublicKey.getW().getAffineX(), P256_COORDINATE_LENGTH));
+            jwk.put("y", base64Url(ecPublicKey.getW().getAffineY(), P256_COORDINATE_LENGTH));
+        } else {
+            RSAPublicKey rsaPublicKey = (RSAPublicKey) publicKey;
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsaPublicKey.getModulus(), 0));
+            jwk.put("e", base64Url(rsaPublicKey.getPublicExponent(), 0));
+        }
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithmOf(keyId, publicKey).getValue());
+        return jwk;
+    }
+
+    private static SignatureAlgorithm algorithmOf(String keyId, Key publicKey) {
+        if (publicKey instanceof ECPublicKey && ((ECPublicKey) publicKey).getParams().getCurve().getField().getFieldSize() == 256) {
+            return SignatureAlgorithm.ES256;
+        }
+        if (publicKey instanceof RSAPublicKey && ((RSAPublicKey) publicKey).getModulus().bitLength() >= 2048) {
+            return SignatureAlgorithm.RS256;
+        }
+        throw new IllegalArgumentException("The JWT signing key " + keyId + " is neither a P-256 EC key nor a 2048+ bit RSA key");
+    }
+
+    /**
+     * Encodes an unsigned big-endian integer, left-padded with zeros to {@code length} bytes when it is not 0.
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -8,10 +8,13 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.PublicKey;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -30,8 +33,12 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    private static final int MAX_AUTHORITY_COMBINATIONS = 1000;
+
     private final Key key;
 
+    private final JwtSigningKeys signingKeys;
+
     private final JwtParser jwtParser;
 
     private final long tokenValidityInMilliseconds;
@@ -40,22 +47,41 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
-        byte[] keyBytes;
+        this(jHipsterProperties, securityMetersService, Optional.empty());
+    }
+
+    /**
+     * @param signingKeys the asymmetric keys signing the tokens when they are configured; tokens are then signed with
+     * the active one, and tokens signed with the JWT secret are still accepted while the secret is configured.
+     */
+    @Autowired
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        SecurityMetersService securityMetersService,
+        Optional<JwtSigningKeys> signingKeys
+    ) {
+        this.signingKeys = signingKeys.orElse(null);
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
             log.debug("Using a Base64-encoded JWT secret key");
-            keyBytes = Decoders.BASE64.decode(secret);
-        } else {
+            key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        } else if (!ObjectUtils.isEmpty(jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret())) {
             log.warn(
                 "Warning: the JWT key used is not Base64-encoded. " +
                 "We recommend using the `jhipster.security.authentication.jwt.base64-secret` key for optimum security."
             );
             secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
-            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        } else if (this.signingKeys != null) {
+            log.debug("No JWT secret key, only the tokens signed with the JWT signing keys are accepted");
+            key = null;
+        } else {
+            throw new IllegalStateException("Neither a JWT secret key nor JWT signing keys are configured");
         }
-        key = Keys.hmacShaKeyFor(keyBytes);
-        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        jwtParser = Jwts.parserBuilder().setSigningKeyResolver(new KeyIdResolver()).build();
         this.tokenValidityInMilliseconds = 1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
@@ -74,55 +100,121 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
-            .builder()
-            .setSubject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .serializeToJsonWith(new JacksonSerializer<>())
-            .compact();
+        JwtBuilder builder = Jwts.builder().setSubject(authentication.getName()).claim(AUTHORITIES_KEY, authorities);
+        if (signingKeys != null) {
+            builder
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeys.getActiveKeyId())
+                .signWith(signingKeys.getActivePrivateKey(), signingKeys.getActiveAlgorithm());
+        } else {
+            builder.signWith(key, SignatureAlgorithm.HS512);
+        }
+        return builder.setExpiration(validity).serializeToJsonWith(new JacksonSerializer<>()).compact();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
-
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return getAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
     }
 
     public boolean validateToken(String authToken) {
+        return parseToken(authToken).isValid();
+    }
+
+    /**
+     * Verifies the token and builds its authentication, parsing the token only once.
+     * <p>
+     * A token that is not valid is counted by the {@link SecurityMetersService}, as with {@link #validateToken(String)}.
+     *
+     * @param authToken the token to parse.
+     * @return the claims and the authentication of the token, or why it is not valid.
+     */
+    public ParsedToken parseToken(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
 
-            return true;
+            return ParsedToken.valid(claims, getAuthentication(claims, authToken));
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
             this.securityMetersService.trackTokenUnsupported();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.UNSUPPORTED);
         } catch (MalformedJwtException e) {
             this.securityMetersService.trackTokenMalformed();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.MALFORMED);
         } catch (SignatureException e) {
             this.securityMetersService.trackTokenInvalidSignature();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return ParsedToken.invalid(ParsedToken.Failure.INVALID_SIGNATURE);
         } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
             log.error("Token validation error {}", e.getMessage());
+            return ParsedToken.invalid(ParsedToken.Failure.ILLEGAL_ARGUMENT);
+        }
+    }
+
+    /**
+     * Picks the key verifying a token: the public key named by its {@code kid} header, the JWT secret for a token
+     * without one. The parser then rejects a token whose algorithm does not match the type of its key.
+     */
+    private Key getVerificationKey(JwsHeader<?> header) {
+        String keyId = header.getKeyId();
+        if (keyId != null) {
+            PublicKey publicKey = signingKeys == null ? null : signingKeys.getPublicKey(keyId);
+            if (publicKey == null) {
+                throw new SignatureException("Unknown JWT signing key " + keyId);
+            }
+            return publicKey;
+        }
+        if (key == null) {
+            throw new SignatureException("Tokens signed with a JWT secret key are not accepted");
         }
+        return key;
+    }
+
+    private Authentication getAuthentication(Claims claims, String token) {
+        Object authoritiesClaim = claims.get(AUTHORITIES_KEY);
+        List<GrantedAuthority> authorities = getAuthorities(authoritiesClaim == null ? "" : authoritiesClaim.toString());
 
-        return false;
+        User principal = new User(claims.getSubject(), "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    private List<GrantedAuthority> getAuthorities(String authoritiesClaim) {
+        // Tokens carry one of a few combinations of authorities, each is split and built once
+        List<GrantedAuthority> authorities = authoritiesByClaim.get(authoritiesClaim);
+        if (authorities == null) {
+            authorities =
+                Arrays
+                    .stream(authoritiesClaim.split(","))
+                    .filter(auth -> !auth.trim().isEmpty())
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toUnmodifiableList());
+            if (authoritiesByClaim.size() < MAX_AUTHORITY_COMBINATIONS) {
+                authoritiesByClaim.putIfAbsent(authoritiesClaim, authorities);
+            }
+        }
+        return authorities;
+    }
+
+    private class KeyIdResolver implements SigningKeyResolver {
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return getVerificationKey(header);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Key resolveSigningKey(JwsHeader header, String plaintext) {
+            return getVerificationKey(header);
+        }
     }
 }
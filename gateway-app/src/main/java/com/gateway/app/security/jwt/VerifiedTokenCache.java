@@ -0,0 +1,125 @@
+package com.gateway.app.security.jwt;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authentications of the tokens whose signature has already been verified, so that a client sending the same token
+ * again costs a hash lookup instead of a signature verification.
+ * <p>
+ * Tokens are keyed by their SHA-256 digest, and each of them is evicted when it expires. Invalid tokens are not cached.
+ * The hits and misses are published as the {@code cache.gets} meters of the {@value #CACHE_NAME} cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "verifiedTokens";
+
+    private final TokenProvider tokenProvider;
+
+    private final Cache<String, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(TokenProvider tokenProvider, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this(tokenProvider, applicationProperties, meterRegistry, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(
+        TokenProvider tokenProvider,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        Ticker ticker
+    ) {
+        this.tokenProvider = tokenProvider;
+        this.cache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(applicationProperties.getSecurity().getVerifiedTokenCache().getMaxSize())
+                .expireAfter(new UntilTokenExpiration())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param token the token sent by the client.
+     * @return the authentication of the token, empty if the token is not valid.
+     */
+    public Optional<Authentication> getAuthentication(String token) {
+        String digest = digest(token);
+        VerifiedToken verifiedToken = cache.getIfPresent(digest);
+        if (verifiedToken != null) {
+            return Optional.of(verifiedToken.authentication);
+        }
+        ParsedToken parsedToken = tokenProvider.parseToken(token);
+        if (!parsedToken.isValid()) {
+            return Optional.empty();
+        }
+        Date expiration = parsedToken.getClaims().getExpiration();
+        if (expiration != null) {
+            cache.put(digest, new VerifiedToken(parsedToken.getAuthentication(), expiration.getTime()));
+        }
+        return Optional.of(parsedToken.getAuthentication());
+    }
+
+    long estimatedSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class VerifiedToken {
+
+        private final Authentication authentication;
+
+        private final long expirationTimeMillis;
+
+        VerifiedToken(Authentication authentication, long expirationTimeMillis) {
+            this.authentication = authentication;
+            this.expirationTimeMillis = expirationTimeMillis;
+        }
+    }
+
+    private static class UntilTokenExpiration implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken verifiedToken, long currentTime) {
+            long remainingMillis = verifiedToken.expirationTimeMillis - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
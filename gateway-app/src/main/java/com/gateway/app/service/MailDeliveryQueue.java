@@ -0,0 +1,258 @@
+package com.gateway.app.service;
+
+import com.gateway.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbound emails, delivered by their own threads rather than by the shared task executor.
+ * <p>
+ * Each thread takes the waiting messages by batches, and sends a batch through a single SMTP connection. A message
+ * whose delivery fails is sent again after a growing, randomized delay, until {@code application.mail.max-attempts}.
+ * When {@code application.mail.queue-capacity} messages are waiting, new ones are rejected rather than piling up.
+ * <p>
+ * When the application stops, the waiting messages are still sent for up to {@code application.mail.shutdown-timeout}.
+ * The ones left after it, and the ones waiting to be retried, are dropped and counted as failed.
+ */
+@Component
+public class MailDeliveryQueue implements DisposableBean {
+
+    public static final String QUEUE_SIZE_METER_NAME = "mail.queue.size";
+
+    public static final String DELIVERY_METER_NAME = "mail.delivery";
+
+    public static final String REJECTED_METER_NAME = "mail.rejected";
+
+    public static final String FAILED_METER_NAME = "mail.failed";
+
+    // how long an idle delivery thread waits for a message before checking whether the queue was closed
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final Logger log = LoggerFactory.getLogger(MailDeliveryQueue.class);
+
+    private final JavaMailSender javaMailSender;
+
+    private final BlockingQueue<PendingMail> queue;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final Duration retryDelay;
+
+    private final Duration shutdownTimeout;
+
+    private final ExecutorService deliveryExecutor;
+
+    private final ScheduledExecutorService retryExecutor;
+
+    private final Timer deliveryTimer;
+
+    private final Counter rejectedCounter;
+
+    private final Counter failedCounter;
+
+    private volatile boolean closed;
+
+    public MailDeliveryQueue(JavaMailSender javaMailSender, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Mail properties = applicationProperties.getMail();
+        this.javaMailSender = javaMailSender;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.maxAttempts = properties.getMaxAttempts();
+        this.retryDelay = properties.getRetryDelay();
+        this.shutdownTimeout = properties.getShutdownTimeout();
+        this.deliveryExecutor = Executors.newFixedThreadPool(properties.getThreads(), new CustomizableThreadFactory("mail-delivery-"));
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-retry-"));
+        Gauge.builder(QUEUE_SIZE_METER_NAME, queue, BlockingQueue::size).description("Emails waiting to be sent").register(meterRegistry);
+        this.deliveryTimer =
+            Timer.builder(DELIVERY_METER_NAME).description("Time from the submission of an email until it is sent").register(meterRegistry);
+        this.rejectedCounter =
+            Counter.builder(REJECTED_METER_NAME).description("Emails rejected as the queue was full").register(meterRegistry);
+        this.failedCounter =
+            Counter.builder(FAILED_METER_NAME).description("Emails not sent after all their delivery attempts").register(meterRegistry);
+        for (int i = 0; i < properties.getThreads(); i++) {
+            deliveryExecutor.execute(this::deliver);
+        }
+    }
+
+    /**
+     * Queues a message, which is prepared by a delivery thread.
+     *
+     * @param recipient the recipient, for the logs.
+     * @param message prepares the message, rendering its content for instance.
+     * @return {@code false} if the message was rejected because the queue is full.
+     */
+    public boolean submit(String recipient, Supplier<MimeMessage> message) {
+        if (closed) {
+            rejectedCounter.increment();
+            log.warn("Email to '{}' rejected, the application is stopping", recipient);
+            return false;
+        }
+        if (!queue.offer(new PendingMail(recipient, message))) {
+            rejectedCounter.increment();
+            log.warn("Email to '{}' rejected, {} emails are waiting to be sent", recipient, queue.size());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        // the retries are not waited for, their delay may be longer than the shutdown timeout
+        int dropped = retryExecutor.shutdownNow().size();
+        deliveryExecutor.shutdown();
+        try {
+            if (!deliveryExecutor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                deliveryExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            deliveryExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        List<PendingMail> waiting = new ArrayList<>();
+        queue.drainTo(waiting);
+        dropped += waiting.size();
+        if (dropped > 0) {
+            failedCounter.increment(dropped);
+            log.warn("{} emails were not sent before the application stopped", dropped);
+        }
+    }
+
+    private void deliver() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            PendingMail mail;
+            try {
+                mail = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (mail == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(mail);
+            queue.drainTo(batch, batchSize - 1);
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<PendingMail> batch) {
+        List<PendingMail> prepared = new ArrayList<>(batch.size());
+        for (PendingMail mail : batch) {
+            try {
+                mail.prepare();
+                prepared.add(mail);
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Email could not be prepared for user '{}'", mail.recipient, e);
+            }
+        }
+        if (prepared.isEmpty()) {
+            return;
+        }
+        try {
+            javaMailSender.send(prepared.stream().map(mail -> mail.message).toArray(MimeMessage[]::new));
+            prepared.forEach(this::sent);
+        } catch (MailSendException e) {
+            // the messages that are not in the failed messages were sent
+            Collection<Object> failedMessages = e.getFailedMessages().keySet();
+            for (PendingMail mail : prepared) {
+                if (failedMessages.isEmpty() || failedMessages.contains(mail.message)) {
+                    retry(mail, e);
+                } else {
+                    sent(mail);
+                }
+            }
+        } catch (MailException e) {
+            prepared.forEach(mail -> retry(mail, e));
+        }
+    }
+
+    private void sent(PendingMail mail) {
+        deliveryTimer.record(System.nanoTime() - mail.submittedAt, TimeUnit.NANOSECONDS);
+        log.debug("Sent email to User '{}'", mail.recipient);
+    }
+
+    private void retry(PendingMail mail, MailException e) {
+        mail.attempts++;
+        if (mail.attempts >= maxAttempts) {
+            failedCounter.increment();
+            log.warn("Email could not be sent to user '{}' after {} attempts", mail.recipient, mail.attempts, e);
+            return;
+        }
+        // exponential backoff, with up to 50% of jitter so that the retries of a batch do not hit the server together
+        long delay = retryDelay.toMillis() << (mail.attempts - 1);
+        delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        log.debug("Email could not be sent to user '{}', retrying in {} ms", mail.recipient, delay, e);
+        try {
+            retryExecutor.schedule(
+                () -> {
+                    if (!queue.offer(mail)) {
+                        failedCounter.increment();
+                        log.warn("Email to '{}' not retried, {} emails are waiting to be sent", mail.recipient, queue.size());
+                    }
+                },
+                delay,
+                TimeUnit.MILLISECONDS
+            );
+        } catch (RejectedExecutionException rejected) {
+            failedCounter.increment();
+            log.warn("Email to '{}' not retried, the application is stopping", mail.recipient, e);
+        }
+    }
+
+    private static final class PendingMail {
+
+        private final String recipient;
+
+        private final Supplier<MimeMessage> preparator;
+
+        private final long submittedAt = System.nanoTime();
+
+        private MimeMessage message;
+
+        private int attempts;
+
+        private PendingMail(String recipient, Supplier<MimeMessage> preparator) {
+            this.recipient = recipient;
+            this.preparator = preparator;
+        }
+
+        private void prepare() {
+            if (message == null) {
+                message = preparator.get();
+            }
+        }
+    }
+}
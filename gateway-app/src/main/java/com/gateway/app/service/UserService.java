@@ -1,36 +1,55 @@
 package com.gateway.app.service;
 
+import com.gateway.app.config.ApplicationProperties;
 import com.gateway.app.config.Constants;
 import com.gateway.app.domain.Authority;
 import com.gateway.app.domain.User;
 import com.gateway.app.repository.AuthorityRepository;
 import com.gateway.app.repository.UserRepository;
 import com.gateway.app.security.AuthoritiesConstants;
+import com.gateway.app.security.PasswordHashingScheduler;
 import com.gateway.app.security.SecurityUtils;
 import com.gateway.app.service.dto.AdminUserDTO;
 import com.gateway.app.service.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import tech.jhipster.security.RandomUtil;
 
 /**
  * Service class for managing users.
  */
 @Service
-public class UserService {
+public class UserService implements DisposableBean {
+
+    public static final String PURGED_USERS_METER_NAME = "users.purge.deleted";
+
+    public static final String PURGE_BATCHES_METER_NAME = "users.purge.batches";
+
+    private static final int BULK_AUTHORITIES_CHUNK_SIZE = 500;
 
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
@@ -38,12 +57,52 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final PasswordHashingScheduler passwordHashingScheduler;
+
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final TransactionalOperator transactionalOperator;
+
+    private final int purgeBatchSize;
+
+    private final Duration purgePause;
+
+    private final Scheduler purgeScheduler = Schedulers.newSingle("not-activated-users-purge");
+
+    private final AtomicBoolean purgeRunning = new AtomicBoolean();
+
+    private final Counter purgedUsersCounter;
+
+    private final Counter purgeBatchesCounter;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        PasswordHashingScheduler passwordHashingScheduler,
+        AuthorityRepository authorityRepository,
+        TransactionalOperator transactionalOperator,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingScheduler = passwordHashingScheduler;
         this.authorityRepository = authorityRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.purgeBatchSize = applicationProperties.getUserPurge().getBatchSize();
+        this.purgePause = applicationProperties.getUserPurge().getPause();
+        this.purgedUsersCounter =
+            Counter
+                .builder(PURGED_USERS_METER_NAME)
+                .baseUnit("users")
+                .description("Not activated users deleted by the daily purge")
+                .register(meterRegistry);
+        this.purgeBatchesCounter =
+            Counter
+                .builder(PURGE_BATCHES_METER_NAME)
+                .baseUnit("batches")
+                .description("Batches of not activated users deleted by the daily purge")
+                .register(meterRegistry);
     }
 
     @Transactional
@@ -66,7 +125,7 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .map(user -> {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
@@ -96,7 +155,7 @@ public class UserService {
             .findOneByLogin(userDTO.getLogin().toLowerCase())
             .flatMap(existingUser -> {
                 if (!existingUser.isActivated()) {
-                    return userRepository.delete(existingUser);
+                    return userRepository.delete(existingUser).then(userRepository.evictFromCaches(existingUser));
                 } else {
                     return Mono.error(new UsernameAlreadyUsedException());
                 }
@@ -104,12 +163,12 @@ public class UserService {
             .then(userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()))
             .flatMap(existingUser -> {
                 if (!existingUser.isActivated()) {
-                    return userRepository.delete(existingUser);
+                    return userRepository.delete(existingUser).then(userRepository.evictFromCaches(existingUser));
                 } else {
                     return Mono.error(new EmailAlreadyUsedException());
                 }
             })
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .then(
                 Mono.fromCallable(() -> {
                     User newUser = new User();
@@ -163,7 +222,7 @@ public class UserService {
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
             .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .map(newUser -> {
                 String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
                 newUser.setPassword(encryptedPassword);
@@ -186,6 +245,8 @@ public class UserService {
     public Mono<AdminUserDTO> updateUser(AdminUserDTO userDTO) {
         return userRepository
             .findById(userDTO.getId())
+            // the login and the email may change, saveUser only evicts the new ones
+            .delayUntil(userRepository::evictFromCaches)
             .flatMap(user -> {
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
@@ -198,23 +259,47 @@ public class UserService {
                 user.setLangKey(userDTO.getLangKey());
                 Set<Authority> managedAuthorities = user.getAuthorities();
                 managedAuthorities.clear();
-                return userRepository
-                    .deleteUserAuthorities(user.getId())
-                    .thenMany(Flux.fromIterable(userDTO.getAuthorities()))
-                    .flatMap(authorityRepository::findById)
-                    .map(managedAuthorities::add)
-                    .then(Mono.just(user));
+                return authorityRepository.findAllById(userDTO.getAuthorities()).doOnNext(managedAuthorities::add).then(Mono.just(user));
             })
-            .flatMap(this::saveUser)
+            .flatMap(user -> saveUser(user, savedUser -> userRepository.updateUserAuthorities(savedUser.getId(), getAuthorityNames(user))))
             .doOnNext(user -> log.debug("Changed Information for User: {}", user))
             .map(AdminUserDTO::new);
     }
 
+    /**
+     * Adds and removes authorities of many users at once, in chunks of {@value #BULK_AUTHORITIES_CHUNK_SIZE} users.
+     *
+     * @param logins the logins of the users.
+     * @param addedAuthorities the authorities the users get.
+     * @param removedAuthorities the authorities the users lose.
+     * @return the number of users found and updated.
+     */
+    @Transactional
+    public Mono<Long> updateAuthorities(Set<String> logins, Set<String> addedAuthorities, Set<String> removedAuthorities) {
+        Set<String> lowercaseLogins = logins.stream().map(login -> login.toLowerCase(Locale.ENGLISH)).collect(Collectors.toSet());
+        return userRepository
+            .findAllByLoginIn(lowercaseLogins)
+            .buffer(BULK_AUTHORITIES_CHUNK_SIZE)
+            .concatMap(users ->
+                userRepository
+                    .updateAuthorities(
+                        users.stream().map(User::getId).collect(Collectors.toList()),
+                        addedAuthorities,
+                        removedAuthorities
+                    )
+                    .thenMany(Flux.fromIterable(users))
+            )
+            .delayUntil(userRepository::evictFromCaches)
+            .count()
+            .doOnNext(count -> log.debug("Added {} and removed {} for {} users", addedAuthorities, removedAuthorities, count));
+    }
+
     @Transactional
     public Mono<Void> deleteUser(String login) {
         return userRepository
             .findOneByLogin(login)
             .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .delayUntil(userRepository::evictFromCaches)
             .doOnNext(user -> log.debug("Deleted User: {}", user))
             .then();
     }
@@ -234,6 +319,7 @@ public class UserService {
         return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
+            .delayUntil(userRepository::evictFromCaches)
             .flatMap(user -> {
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
@@ -250,6 +336,10 @@ public class UserService {
 
     @Transactional
     public Mono<User> saveUser(User user) {
+        return saveUser(user, savedUser -> userRepository.saveUserAuthorities(savedUser.getId(), getAuthorityNames(user)));
+    }
+
+    private Mono<User> saveUser(User user, Function<User, Mono<Void>> saveAuthorities) {
         return SecurityUtils
             .getCurrentUserLogin()
             .switchIfEmpty(Mono.just(Constants.SYSTEM))
@@ -262,21 +352,21 @@ public class UserService {
                 // once https://github.com/spring-projects/spring-data-r2dbc/issues/215 is done
                 return userRepository
                     .save(user)
-                    .flatMap(savedUser ->
-                        Flux
-                            .fromIterable(user.getAuthorities())
-                            .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
-                            .then(Mono.just(savedUser))
-                    );
+                    .flatMap(savedUser -> saveAuthorities.apply(savedUser).then(Mono.just(savedUser)))
+                    .delayUntil(userRepository::evictFromCaches);
             });
     }
 
+    private static List<String> getAuthorityNames(User user) {
+        return user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toList());
+    }
+
     @Transactional
     public Mono<Void> changePassword(String currentClearTextPassword, String newPassword) {
         return SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
+            .publishOn(passwordHashingScheduler.getScheduler())
             .map(user -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
@@ -319,23 +409,70 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). The users are deleted on the purge thread, so this
+     * returns at once; a run is skipped while the previous one has not finished.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    public void scheduleRemoveNotActivatedUsers() {
+        if (!purgeRunning.compareAndSet(false, true)) {
+            log.warn("Not removing the not activated users, the previous run has not finished");
+            return;
+        }
+        removeNotActivatedUsersReactively()
+            .subscribeOn(purgeScheduler)
+            .doFinally(signal -> purgeRunning.set(false))
+            .subscribe(null, e -> log.error("Could not remove the not activated users", e));
+    }
+
+    /**
+     * Deletes the not activated users created more than 3 days ago, and waits until they are deleted.
+     */
     public void removeNotActivatedUsers() {
         removeNotActivatedUsersReactively().blockLast();
     }
 
-    @Transactional
+    /**
+     * Deletes the not activated users created more than 3 days ago, in batches of {@code application.user-purge.batch-size}
+     * users separated by {@code application.user-purge.pause}. Each batch is deleted in its own transaction.
+     */
     public Flux<User> removeNotActivatedUsersReactively() {
-        return userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
-                LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC)
+        LocalDateTime createdBefore = LocalDateTime.ofInstant(Instant.now().minus(3, ChronoUnit.DAYS), ZoneOffset.UTC);
+        return removeNotActivatedUsersBatch(createdBefore)
+            .expand(users ->
+                users.size() < purgeBatchSize
+                    ? Mono.empty()
+                    : Mono.delay(purgePause, purgeScheduler).then(removeNotActivatedUsersBatch(createdBefore))
             )
-            .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .flatMapIterable(Function.identity())
             .doOnNext(user -> log.debug("Deleted User: {}", user));
     }
 
+    private Mono<List<User>> removeNotActivatedUsersBatch(LocalDateTime createdBefore) {
+        // the users are selected and deleted in the same transaction, so that none is activated in between
+        return userRepository
+            .findNotActivatedUsersCreatedBefore(createdBefore, purgeBatchSize)
+            .collectList()
+            .filter(users -> !users.isEmpty())
+            .flatMap(users ->
+                userRepository
+                    .deleteNotActivatedWithAuthorities(users.stream().map(User::getId).collect(Collectors.toList()), createdBefore)
+                    .map(deleted -> Tuples.of(users, deleted))
+            )
+            .as(transactionalOperator::transactional)
+            .delayUntil(batch -> Flux.fromIterable(batch.getT1()).concatMap(userRepository::evictFromCaches))
+            .doOnNext(batch -> {
+                purgedUsersCounter.increment(batch.getT2());
+                purgeBatchesCounter.increment();
+            })
+            .map(Tuple2::getT1)
+            .defaultIfEmpty(List.of());
+    }
+
+    @Override
+    public void destroy() {
+        purgeScheduler.dispose();
+    }
+
     /**
      * Gets a list of all the authorities.
      * @return a list of all the authorities.
@@ -0,0 +1,69 @@
+package com.gateway.app.service.dto;
+
+import java.util.HashSet;
+import java.util.Set;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing authorities to add to and remove from many users at once.
+ */
+public class BulkAuthoritiesDTO {
+
+    @NotEmpty
+    private Set<String> logins = new HashSet<>();
+
+    @NotNull
+    private Set<String> addedAuthorities = new HashSet<>();
+
+    @NotNull
+    private Set<String> removedAuthorities = new HashSet<>();
+
+    public BulkAuthoritiesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BulkAuthoritiesDTO(Set<String> logins, Set<String> addedAuthorities, Set<String> removedAuthorities) {
+        this.logins = logins;
+        this.addedAuthorities = addedAuthorities;
+        this.removedAuthorities = removedAuthorities;
+    }
+
+    public Set<String> getLogins() {
+        return logins;
+    }
+
+    public void setLogins(Set<String> logins) {
+        this.logins = logins;
+    }
+
+    public Set<String> getAddedAuthorities() {
+        return addedAuthorities;
+    }
+
+    public void setAddedAuthorities(Set<String> addedAuthorities) {
+        this.addedAuthorities = addedAuthorities;
+    }
+
+    public Set<String> getRemovedAuthorities() {
+        return removedAuthorities;
+    }
+
+    public void setRemovedAuthorities(Set<String> removedAuthorities) {
+        this.removedAuthorities = removedAuthorities;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "BulkAuthoritiesDTO{" +
+            "logins=" +
+            logins +
+            ", addedAuthorities=" +
+            addedAuthorities +
+            ", removedAuthorities=" +
+            removedAuthorities +
+            "}"
+        );
+    }
+}
@@ -0,0 +1,440 @@
+package com.gateway.app.web.filter;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.RequestPath;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Responses of the services to {@code GET} requests, kept for as long as their {@code Cache-Control} header allows.
+ * <p>
+ * Responses are cached by route and URI, and by the values of the request headers named by their {@code Vary} header;
+ * the {@code Authorization} header is only kept as a digest. As the gateway is a shared cache, responses to requests
+ * with an {@code Authorization} header are only cached when they are {@code public}, have an {@code s-maxage}, or vary
+ * by {@code Authorization}. The bodies are bounded by {@code application.response-cache.max-size} bytes.
+ * <p>
+ * The hits and misses are counted by the {@value #REQUESTS_METER_NAME} meter, and the bytes of the bodies served from the
+ * cache by the {@value #SAVED_METER_NAME} one.
+ */
+@Component
+public class GatewayResponseCache {
+
+    public static final String REQUESTS_METER_NAME = "gateway.response-cache.requests";
+
+    public static final String SAVED_METER_NAME = "gateway.response-cache.saved";
+
+    public static final String SIZE_METER_NAME = "gateway.response-cache.size";
+
+    // estimated size of the headers and keys of a response
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private static final int MAX_VARIED_URIS = 10000;
+
+    // headers of the response that are not replayed, or that are set again when the response is served
+    private static final List<String> UNCACHED_HEADERS = List.of(
+        HttpHeaders.SET_COOKIE,
+        HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.TRANSFER_ENCODING,
+        HttpHeaders.CONNECTION,
+        "Keep-Alive",
+        "Age"
+    );
+
+    private final List<PathPattern> paths;
+
+    private final long maxEntrySize;
+
+    private final Cache<String, CachedResponse> responses;
+
+    private final Cache<String, List<String>> varyHeaders;
+
+    // incremented by each invalidation of a route, so that the responses to the requests sent before it are not cached
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter savedBytes;
+
+    public GatewayResponseCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.ResponseCache properties = applicationProperties.getResponseCache();
+        this.paths = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).collect(Collectors.toList());
+        this.maxEntrySize = properties.getMaxEntrySize().toBytes();
+        this.responses =
+            Caffeine
+                .newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.body.length + ENTRY_OVERHEAD)
+                .expireAfter(new UntilStale())
+                .build();
+        this.varyHeaders = Caffeine.newBuilder().maximumSize(MAX_VARIED_URIS).build();
+        this.hits = requestsCounter("hit", meterRegistry);
+        this.misses = requestsCounter("miss", meterRegistry);
+        this.savedBytes =
+            Counter
+                .builder(SAVED_METER_NAME)
+                .description("Bytes of the bodies served from the cache instead of by the services")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge
+            .builder(
+                SIZE_METER_NAME,
+                responses,
+                cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L)
+            )
+            .description("Size of the cached responses")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param path the path of a request.
+     * @return whether the responses to the requests of this path are cached.
+     */
+    public boolean isCachedPath(RequestPath path) {
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path.pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param path the path of a request changing a resource, {@code POST /services/carsapp/api/cars/_bulk} for instance.
+     * @return the beginning of the paths of the cached responses the request may have changed, which is the beginning of
+     * the cached paths pattern it matches, {@code /services/carsapp/api/cars} for {@code /services/carsapp/api/cars/**};
+     * {@code null} for all the paths when the pattern starts with a variable.
+     */
+    public String getChangedPathPrefix(RequestPath path) {
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(path.pathWithinApplication())) {
+                String patternString = pattern.getPatternString();
+                int variable = indexOfVariable(patternString);
+                String prefix = patternString.substring(0, variable < 0 ? patternString.length() : variable);
+                prefix = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+                return prefix.isEmpty() ? null : prefix;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param routeId the route of the request.
+     * @param request a {@code GET} request.
+     * @return the cached response to the request, {@code null} if there is none.
+     */
+    public CachedResponse get(String routeId, ServerHttpRequest request) {
+        String uriKey = uriKey(routeId, request);
+        List<String> vary = varyHeaders.getIfPresent(uriKey);
+        CachedResponse response = vary == null ? null : responses.getIfPresent(responseKey(uriKey, vary, request));
+        if (response == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        savedBytes.increment(response.body.length);
+        return response;
+    }
+
+    /**
+     * @param request a {@code GET} request.
+     * @param status the status of the response.
+     * @param headers the headers of the response.
+     * @return how long the response can be cached, {@code null} if it cannot be.
+     */
+    public Duration getFreshness(ServerHttpRequest request, HttpStatus status, HttpHeaders headers) {
+        if (status != HttpStatus.OK) {
+            return null;
+        }
+        Directives requestDirectives = Directives.of(request.getHeaders());
+        Directives responseDirectives = Directives.of(headers);
+        if (requestDirectives.noStore || responseDirectives.noStore || responseDirectives.noCache || responseDirectives.isPrivate) {
+            return null;
+        }
+        List<String> vary = headers.getVary();
+        if (vary.contains("*")) {
+            return null;
+        }
+        if (
+            request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION) &&
+            !responseDirectives.isPublic &&
+            responseDirectives.sMaxAge == null &&
+            vary.stream().noneMatch(HttpHeaders.AUTHORIZATION::equalsIgnoreCase)
+        ) {
+            return null;
+        }
+        Long maxAge = responseDirectives.sMaxAge != null ? responseDirectives.sMaxAge : responseDirectives.maxAge;
+        return maxAge == null || maxAge <= 0 ? null : Duration.ofSeconds(maxAge);
+    }
+
+    /**
+     * @param routeId a route.
+     * @return the generation of the cached responses of the route, to read before the request is sent to the service.
+     */
+    public long getGeneration(String routeId) {
+        return generation(routeId).get();
+    }
+
+    /**
+     * @return the maximum size of a cached body.
+     */
+    public long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Caches a response, unless its body is too large or the responses of its route were invalidated since the request
+     * was sent to the service.
+     *
+     * @param routeId the route of the request.
+     * @param generation the generation of the route when the request was sent to the service, see {@link #getGeneration}.
+     * @param request a {@code GET} request.
+     * @param headers the headers of the response.
+     * @param body the body of the response.
+     * @param freshness how long the response can be cached, as returned by {@link #getFreshness}.
+     */
+    public void put(String routeId, long generation, ServerHttpRequest request, HttpHeaders headers, byte[] body, Duration freshness) {
+        if (body.length > maxEntrySize || generation(routeId).get() != generation) {
+            return;
+        }
+        HttpHeaders cachedHeaders = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                cachedHeaders.put(name, List.copyOf(values));
+            }
+        });
+        String uriKey = uriKey(routeId, request);
+        List<String> vary = List.copyOf(headers.getVary());
+        varyHeaders.put(uriKey, vary);
+        String responseKey = responseKey(uriKey, vary, request);
+        CachedResponse response = new CachedResponse(
+            routeId,
+            request.getURI().getRawPath(),
+            HttpHeaders.readOnlyHttpHeaders(cachedHeaders),
+            body,
+            freshness
+        );
+        responses.put(responseKey, response);
+        // an invalidation that started meanwhile may not have seen the response
+        if (generation(routeId).get() != generation) {
+            responses.asMap().remove(responseKey, response);
+        }
+    }
+
+    /**
+     * Evicts cached responses.
+     *
+     * @param routeId the route of the evicted responses, all the routes if {@code null}.
+     * @param pathPrefix the beginning of the paths of the evicted responses, all the paths if {@code null}.
+     * @return the number of evicted responses.
+     */
+    public int invalidate(String routeId, String pathPrefix) {
+        if (routeId == null) {
+            generations.values().forEach(AtomicLong::incrementAndGet);
+        } else {
+            generation(routeId).incrementAndGet();
+        }
+        int invalidated = 0;
+        Map<String, CachedResponse> cachedResponses = responses.asMap();
+        for (Map.Entry<String, CachedResponse> entry : cachedResponses.entrySet()) {
+            CachedResponse response = entry.getValue();
+            if (
+                (routeId == null || routeId.equals(response.routeId)) &&
+                (pathPrefix == null || response.path.startsWith(pathPrefix)) &&
+                cachedResponses.remove(entry.getKey(), response)
+            ) {
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    private static int indexOfVariable(String patternString) {
+        for (int i = 0; i < patternString.length(); i++) {
+            char c = patternString.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private AtomicLong generation(String routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong());
+    }
+
+    private static Counter requestsCounter(String result, MeterRegistry meterRegistry) {
+        return Counter
+            .builder(REQUESTS_METER_NAME)
+            .description("Requests to the cached paths, served from the cache or not")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static String uriKey(String routeId, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return routeId + ' ' + request.getURI().getRawPath() + (query == null ? "" : '?' + query);
+    }
+
+    private static String responseKey(String uriKey, List<String> vary, ServerHttpRequest request) {
+        if (vary.isEmpty()) {
+            return uriKey;
+        }
+        StringBuilder values = new StringBuilder();
+        for (String name : vary) {
+            values.append(name.toLowerCase(Locale.ENGLISH)).append(':');
+            values.append(String.join(",", request.getHeaders().getOrEmpty(name))).append('\n');
+        }
+        return uriKey + '#' + digest(values.toString());
+    }
+
+    private static String digest(String values) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(values.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A response served from the cache.
+     */
+    public static final class CachedResponse {
+
+        private final String routeId;
+
+        private final String path;
+
+        private final HttpHeaders headers;
+
+        private final byte[] body;
+
+        private final long storedAtNanos = System.nanoTime();
+
+        private final Duration freshness;
+
+        private CachedResponse(String routeId, String path, HttpHeaders headers, byte[] body, Duration freshness) {
+            this.routeId = routeId;
+            this.path = path;
+            this.headers = headers;
+            this.body = body;
+            this.freshness = freshness;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * @return the time since the response was cached, in seconds.
+         */
+        public long getAge() {
+            return Duration.ofNanos(System.nanoTime() - storedAtNanos).toSeconds();
+        }
+    }
+
+    private static final class Directives {
+
+        private boolean noStore;
+
+        private boolean noCache;
+
+        private boolean isPrivate;
+
+        private boolean isPublic;
+
+        private Long maxAge;
+
+        private Long sMaxAge;
+
+        private static Directives of(HttpHeaders headers) {
+            Directives directives = new Directives();
+            for (String header : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+                for (String directive : header.split(",")) {
+                    String[] nameAndValue = directive.trim().toLowerCase(Locale.ENGLISH).split("=", 2);
+                    switch (nameAndValue[0]) {
+                        case "no-store":
+                            directives.noStore = true;
+                            break;
+                        case "no-cache":
+                            directives.noCache = true;
+                            break;
+                        case "private":
+                            directives.isPrivate = true;
+                            break;
+                        case "public":
+                            directives.isPublic = true;
+                            break;
+                        case "max-age":
+                            directives.maxAge = parseSeconds(nameAndValue);
+                            break;
+                        case "s-maxage":
+                            directives.sMaxAge = parseSeconds(nameAndValue);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            return directives;
+        }
+
+        private static Long parseSeconds(String[] nameAndValue) {
+            if (nameAndValue.length < 2) {
+                return null;
+            }
+            try {
+                return Long.parseLong(nameAndValue[1].replace("\"", "").trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private static class UntilStale implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return response.freshness.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return response.freshness.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.gateway.app.web.filter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
@@ -27,16 +30,30 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Replaces the {@code servers} of the OpenAPI documents of the services by their URL through the gateway.
+ * <p>
+ * The rewritten documents are cached by path and version of the upstream document: its {@code ETag}, or the MD5 digest
+ * of its body when it has none. The instances a route is load balanced between may serve different versions, which are
+ * then cached side by side. The upstream {@code ETag} is passed through unchanged. When the version is known, the
+ * cached bytes, plain and gzipped, are written without parsing the upstream body.
+ */
 @Component
 public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
 
     private static final String OPEN_API_PATH = "/v3/api-docs";
+    private static final String SERVERS_FIELD = "servers";
+    private static final int MAX_CACHED_DOCUMENTS = 256;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
     private static final Logger log = LoggerFactory.getLogger(ModifyServersOpenApiFilter.class);
 
+    private final Cache<String, RewrittenDocument> documents = Caffeine.newBuilder().maximumSize(MAX_CACHED_DOCUMENTS).build();
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
@@ -65,12 +82,53 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         return new ModifyServersOpenApiInterceptor(path, originalResponse, bufferFactory);
     }
 
+    /**
+     * Copies a JSON document token by token, replacing its top-level {@code servers} field, or adding it at the end of the
+     * document, without building its tree.
+     */
+    static byte[] rewriteServers(InputStream document, String serverUrl) throws IOException {
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        try (JsonParser parser = JSON_FACTORY.createParser(document); JsonGenerator generator = JSON_FACTORY.createGenerator(rewritten)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The OpenAPI document is not a JSON object");
+            }
+            generator.writeStartObject();
+            boolean serversWritten = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (SERVERS_FIELD.equals(fieldName)) {
+                    parser.skipChildren();
+                    writeServers(generator, serverUrl);
+                    serversWritten = true;
+                } else {
+                    generator.writeFieldName(fieldName);
+                    generator.copyCurrentStructure(parser);
+                }
+            }
+            if (!serversWritten) {
+                writeServers(generator, serverUrl);
+            }
+            generator.writeEndObject();
+        }
+        return rewritten.toByteArray();
+    }
+
+    private static void writeServers(JsonGenerator generator, String serverUrl) throws IOException {
+        generator.writeArrayFieldStart(SERVERS_FIELD);
+        generator.writeStartObject();
+        generator.writeStringField("url", serverUrl);
+        generator.writeStringField("description", "added by global filter");
+        generator.writeEndObject();
+        generator.writeEndArray();
+    }
+
     public class ModifyServersOpenApiInterceptor extends ServerHttpResponseDecorator {
 
         private final String path;
         private final ServerHttpResponse originalResponse;
         private final DataBufferFactory bufferFactory;
-        private String rewritedBody = "";
+        private RewrittenDocument document;
 
         private ModifyServersOpenApiInterceptor(String path, ServerHttpResponse originalResponse, DataBufferFactory bufferFactory) {
             super(originalResponse);
@@ -80,12 +138,12 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
         }
 
         public String getRewritedBody() {
-            return rewritedBody;
+            return document == null ? "" : new String(document.json, StandardCharsets.UTF_8);
         }
 
         @Override
         public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
-            rewritedBody = "";
+            document = null;
             if (body instanceof Flux) {
                 Flux<? extends DataBuffer> fluxBody = (Flux<? extends DataBuffer>) body;
 
@@ -103,45 +161,38 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
 
             // release memory
             DataBufferUtils.release(join);
-            String strBody = contentToString(content);
-
-            try {
-                // create custom server
-                ObjectMapper mapper = new ObjectMapper();
-                JsonNode jsonBody = mapper.readTree(strBody);
-                ObjectNode serversToJson = mapper.createObjectNode();
-                serversToJson.set("url", mapper.valueToTree(path.replaceFirst(OPEN_API_PATH + "(/.*)?$", "")));
-                serversToJson.set("description", mapper.valueToTree("added by global filter"));
-
-                // add custom server
-                ArrayNode servers = mapper.createArrayNode();
-                servers.add(serversToJson);
-                ((ObjectNode) jsonBody).set("servers", servers);
-
-                rewritedBody = jsonBody.toString();
-                return rewritedBodyToDataBuffer();
-            } catch (JsonProcessingException e) {
-                log.error("Error when modify servers from api-doc of {}: {}", path, e.getMessage());
-            }
-            return join;
-        }
 
-        private DataBuffer rewritedBodyToDataBuffer() {
-            if (isZippedResponse()) {
-                byte[] zippedBody = zipContent(rewritedBody);
-                originalResponse.getHeaders().setContentLength(zippedBody.length);
-                return bufferFactory.wrap(zippedBody);
+            boolean zipped = isZippedResponse();
+            String version = originalResponse.getHeaders().getETag();
+            if (version == null) {
+                version = DigestUtils.md5DigestAsHex(content);
             }
-            originalResponse.getHeaders().setContentLength(rewritedBody.getBytes().length);
-            return bufferFactory.wrap(rewritedBody.getBytes());
+            String key = path + ' ' + version;
+            RewrittenDocument cached = documents.getIfPresent(key);
+            if (cached != null) {
+                document = cached;
+            } else {
+                try {
+                    document = rewriteDocument(content, zipped);
+                    documents.put(key, document);
+                } catch (IOException e) {
+                    log.error("Error when modify servers from api-doc of {}: {}", path, e.getMessage());
+                    return bufferFactory.wrap(content);
+                }
+            }
+
+            byte[] rewrittenBody = zipped ? document.zippedJson : document.json;
+            originalResponse.getHeaders().setContentLength(rewrittenBody.length);
+            return bufferFactory.wrap(rewrittenBody);
         }
 
-        private String contentToString(byte[] content) {
-            if (isZippedResponse()) {
-                byte[] unzippedContent = unzipContent(content);
-                return new String(unzippedContent, StandardCharsets.UTF_8);
+        private RewrittenDocument rewriteDocument(byte[] content, boolean zipped) throws IOException {
+            InputStream upstreamDocument = new ByteArrayInputStream(content);
+            if (zipped) {
+                upstreamDocument = new GZIPInputStream(upstreamDocument);
             }
-            return new String(content, StandardCharsets.UTF_8);
+            byte[] json = rewriteServers(upstreamDocument, path.replaceFirst(OPEN_API_PATH + "(/.*)?$", ""));
+            return new RewrittenDocument(json, zipContent(json));
         }
 
         private boolean isZippedResponse() {
@@ -152,30 +203,23 @@ public class ModifyServersOpenApiFilter implements GlobalFilter, Ordered {
             );
         }
 
-        private byte[] unzipContent(byte[] content) {
-            try {
-                GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(content));
-                byte[] unzippedContent = gzipInputStream.readAllBytes();
-                gzipInputStream.close();
-                return unzippedContent;
-            } catch (IOException e) {
-                log.error("Error when unzip content during modify servers from api-doc of {}: {}", path, e.getMessage());
+        private byte[] zipContent(byte[] content) throws IOException {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+                gzipOutputStream.write(content);
             }
-            return content;
+            return byteArrayOutputStream.toByteArray();
         }
+    }
 
-        private byte[] zipContent(String content) {
-            try {
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(content.length());
-                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
-                gzipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
-                gzipOutputStream.flush();
-                gzipOutputStream.close();
-                return byteArrayOutputStream.toByteArray();
-            } catch (IOException e) {
-                log.error("Error when zip content during modify servers from api-doc of {}: {}", path, e.getMessage());
-            }
-            return content.getBytes();
+    private static final class RewrittenDocument {
+
+        private final byte[] json;
+        private final byte[] zippedJson;
+
+        private RewrittenDocument(byte[] json, byte[] zippedJson) {
+            this.json = json;
+            this.zippedJson = zippedJson;
         }
     }
 }
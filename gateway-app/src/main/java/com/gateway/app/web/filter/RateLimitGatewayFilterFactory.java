@@ -0,0 +1,205 @@
+package com.gateway.app.web.filter;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.gateway.app.security.jwt.JWTFilter;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Limits the requests of each client to a route with a token bucket.
+ * <p>
+ * Clients are told apart by the login {@link JWTFilter} authenticated them with, by their API key, or by their IP
+ * address; a request without a login or one of the {@code application.rate-limiting.api-keys} is limited by its IP
+ * address. The address is the one the request came from, unless {@code application.rate-limiting.trusted-proxies} is
+ * set for the load balancers the gateway is only reachable through: it is then read from their {@code X-Forwarded-For}
+ * entries. The limit is {@code jhipster.gateway.rate-limiting.limit} requests every
+ * {@code jhipster.gateway.rate-limiting.duration-in-seconds}, unless the route sets its own, and nothing is limited while
+ * {@code jhipster.gateway.rate-limiting.enabled} is false:
+ * <pre>
+ * filters:
+ *   - RateLimit=USER, 100, 1m
+ * </pre>
+ * Each response tells the remaining requests in the {@value #REMAINING_HEADER} header. A rejected request gets a
+ * {@code 429 (Too Many Requests)} response with a {@code Retry-After} header, and is counted by the
+ * {@value #REJECTED_METER_NAME} meter.
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+
+    public static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+
+    public static final String REJECTED_METER_NAME = "gateway.rate-limit.rejected";
+
+    private final ProxyManager<String> buckets;
+
+    private final JHipsterProperties.Gateway.RateLimiting rateLimiting;
+
+    private final Set<String> apiKeys;
+
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitGatewayFilterFactory(
+        ProxyManager<String> buckets,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        super(Config.class);
+        this.buckets = buckets;
+        this.rateLimiting = jHipsterProperties.getGateway().getRateLimiting();
+        this.apiKeys = Set.copyOf(applicationProperties.getRateLimiting().getApiKeys());
+        int trustedProxies = applicationProperties.getRateLimiting().getTrustedProxies();
+        this.remoteAddressResolver =
+            trustedProxies > 0 ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies) : new RemoteAddressResolver() {};
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("key", "limit", "duration");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (!rateLimiting.isEnabled()) {
+            return (exchange, chain) -> chain.filter(exchange);
+        }
+        long limit = config.getLimit() != null ? config.getLimit() : rateLimiting.getLimit();
+        Duration duration = config.getDuration() != null ? config.getDuration() : Duration.ofSeconds(rateLimiting.getDurationInSeconds());
+        BucketConfiguration bucketConfiguration = BucketConfiguration.builder().addLimit(Bandwidth.simple(limit, duration)).build();
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "";
+            return tryConsume(routeId + ':' + resolveKey(exchange, config), bucketConfiguration)
+                .flatMap(probe -> {
+                    HttpHeaders headers = exchange.getResponse().getHeaders();
+                    headers.set(REMAINING_HEADER, Long.toString(probe.getRemainingTokens()));
+                    if (probe.isConsumed()) {
+                        return chain.filter(exchange);
+                    }
+                    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999L));
+                    headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                    Counter
+                        .builder(REJECTED_METER_NAME)
+                        .description("Requests rejected as their client exceeded the rate limit of the route")
+                        .tag("route", routeId)
+                        .tag("key", config.getKey().name().toLowerCase())
+                        .register(meterRegistry)
+                        .increment();
+                    exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                    return exchange.getResponse().setComplete();
+                });
+        };
+    }
+
+    private Mono<ConsumptionProbe> tryConsume(String key, BucketConfiguration bucketConfiguration) {
+        if (buckets.isAsyncModeSupported()) {
+            return Mono.fromFuture(() -> buckets.asAsync().builder().build(key, bucketConfiguration).tryConsumeAndReturnRemaining(1));
+        }
+        // stores such as JCache are only reached through blocking calls
+        return Mono
+            .fromCallable(() -> buckets.builder().build(key, bucketConfiguration).tryConsumeAndReturnRemaining(1))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private String resolveKey(ServerWebExchange exchange, Config config) {
+        if (config.getKey() == Key.USER) {
+            Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+            if (authentication != null) {
+                return "user:" + authentication.getName();
+            }
+        } else if (config.getKey() == Key.API_KEY) {
+            String apiKey = exchange.getRequest().getHeaders().getFirst(config.getApiKeyHeader());
+            // any other key would get a bucket of its own
+            if (apiKey != null && apiKeys.contains(apiKey)) {
+                return "api-key:" + apiKey;
+            }
+        }
+        InetSocketAddress remoteAddress = remoteAddressResolver.resolve(exchange);
+        if (remoteAddress == null) {
+            return "ip:unknown";
+        }
+        // the addresses read from X-Forwarded-For are not resolved
+        return "ip:" + (remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString());
+    }
+
+    /**
+     * What the requests of a client are told apart by.
+     */
+    public enum Key {
+        USER,
+        API_KEY,
+        IP,
+    }
+
+    public static class Config {
+
+        private Key key = Key.USER;
+
+        /**
+         * Number of requests of a client every {@link #duration}, {@code jhipster.gateway.rate-limiting.limit} by default.
+         */
+        private Long limit;
+
+        private Duration duration;
+
+        private String apiKeyHeader = "X-API-Key";
+
+        public Key getKey() {
+            return key;
+        }
+
+        public void setKey(Key key) {
+            this.key = key;
+        }
+
+        public Long getLimit() {
+            return limit;
+        }
+
+        public void setLimit(Long limit) {
+            this.limit = limit;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Duration duration) {
+            this.duration = duration;
+        }
+
+        public String getApiKeyHeader() {
+            return apiKeyHeader;
+        }
+
+        public void setApiKeyHeader(String apiKeyHeader) {
+            this.apiKeyHeader = apiKeyHeader;
+        }
+    }
+}
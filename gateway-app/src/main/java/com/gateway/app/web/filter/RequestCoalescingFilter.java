@@ -0,0 +1,266 @@
+package com.gateway.app.web.filter;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.gateway.app.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Sends a single request to the service for the identical {@code GET} requests of the coalesced paths that are in flight
+ * together, and answers all of them with its response.
+ * <p>
+ * Requests are identical when they have the same route, URI, {@code Accept} and {@code Accept-Encoding} headers, and
+ * the same authorities. The response is shared once its body has been received, when it is successful and its body is
+ * at most {@code application.request-coalescing.max-size} bytes. Otherwise the waiting requests are sent to the service
+ * as soon as it is known, when the response status is not successful or its body has grown larger, as they are when the
+ * response is not received within {@code application.request-coalescing.timeout}.
+ * <p>
+ * The requests are counted by the {@value #REQUESTS_METER_NAME} meter, by whether they were sent to the service, answered
+ * with the response to another request, or sent to the service after waiting for it.
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    public static final String REQUESTS_METER_NAME = "gateway.request-coalescing.requests";
+
+    // headers of the response that are not shared, or that are set again for each request
+    private static final List<String> UNSHARED_HEADERS = List.of(
+        HttpHeaders.SET_COOKIE,
+        HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.TRANSFER_ENCODING,
+        HttpHeaders.CONNECTION,
+        "Keep-Alive"
+    );
+
+    private final List<PathPattern> paths;
+
+    private final long maxSize;
+
+    private final Duration timeout;
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+
+    private final Counter coalesced;
+
+    private final Counter fallbacks;
+
+    public RequestCoalescingFilter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.RequestCoalescing properties = applicationProperties.getRequestCoalescing();
+        this.paths = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).collect(Collectors.toList());
+        this.maxSize = properties.getMaxSize().toBytes();
+        this.timeout = properties.getTimeout();
+        this.leaders = requestsCounter("leader", meterRegistry);
+        this.coalesced = requestsCounter("coalesced", meterRegistry);
+        this.fallbacks = requestsCounter("fallback", meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || request.getMethod() != HttpMethod.GET || !isCoalescedPath(request)) {
+            return chain.filter(exchange);
+        }
+        String key = key(route.getId(), exchange);
+        return Mono.defer(() -> {
+            Flight flight = new Flight();
+            Flight inFlight = flights.putIfAbsent(key, flight);
+            if (inFlight != null) {
+                return await(exchange, chain, inFlight);
+            }
+            leaders.increment();
+            return chain
+                .filter(exchange.mutate().response(new SharingResponse(exchange, key, flight)).build())
+                .doFinally(signal -> {
+                    // the waiting requests are sent to the service when the response was not shared
+                    flights.remove(key, flight);
+                    flight.response.tryEmitEmpty();
+                });
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // after ResponseCacheFilter, and before NettyWriteResponseFilter, which writes the body of the response of the service
+        return -2;
+    }
+
+    private boolean isCoalescedPath(ServerHttpRequest request) {
+        for (PathPattern pattern : paths) {
+            if (pattern.matches(request.getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> await(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight) {
+        return flight.response
+            .asMono()
+            .timeout(timeout, Mono.empty())
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(sharedResponse -> {
+                if (sharedResponse.isEmpty()) {
+                    fallbacks.increment();
+                    return chain.filter(exchange);
+                }
+                coalesced.increment();
+                return writeSharedResponse(exchange, sharedResponse.get());
+            });
+    }
+
+    private Mono<Void> writeSharedResponse(ServerWebExchange exchange, SharedResponse sharedResponse) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(sharedResponse.status);
+        response.getHeaders().putAll(sharedResponse.headers);
+        response.getHeaders().setContentLength(sharedResponse.body.length);
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(sharedResponse.body)));
+    }
+
+    private static String key(String routeId, ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        Authentication authentication = exchange.getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE);
+        String authorities = authentication == null
+            ? ""
+            : authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().collect(Collectors.joining(","));
+        return (
+            routeId +
+            ' ' +
+            request.getURI().getRawPath() +
+            (query == null ? "" : '?' + query) +
+            '\n' +
+            authorities +
+            '\n' +
+            String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT)) +
+            '\n' +
+            String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING))
+        );
+    }
+
+    private static Counter requestsCounter(String result, MeterRegistry meterRegistry) {
+        return Counter
+            .builder(REQUESTS_METER_NAME)
+            .description("Requests to the coalesced paths, sent to the service or answered with the response to another request")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A request sent to the service, and the requests waiting for its response.
+     */
+    private static final class Flight {
+
+        private final Sinks.One<SharedResponse> response = Sinks.one();
+    }
+
+    private static final class SharedResponse {
+
+        private final HttpStatus status;
+
+        private final HttpHeaders headers;
+
+        private final byte[] body;
+
+        private SharedResponse(HttpStatus status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Copies the body of a successful response while it is written, and shares it with the waiting requests once it has
+     * been.
+     */
+    private class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final String key;
+
+        private final Flight flight;
+
+        private SharingResponse(ServerWebExchange exchange, String key, Flight flight) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatus status = getStatusCode();
+            HttpHeaders serviceHeaders = ResponseBodyCopy.getServiceHeaders(exchange, getHeaders());
+            if (status == null || !status.is2xxSuccessful() || serviceHeaders.getContentLength() > maxSize) {
+                releaseWaitingRequests();
+                return super.writeWith(body);
+            }
+            HttpHeaders sharedHeaders = new HttpHeaders();
+            serviceHeaders.forEach((name, values) -> {
+                if (UNSHARED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    sharedHeaders.put(name, List.copyOf(values));
+                }
+            });
+            ResponseBodyCopy copy = new ResponseBodyCopy(maxSize);
+            return super.writeWith(
+                Flux
+                    .from(body)
+                    .doOnNext(buffer -> {
+                        if (!copy.isTooLarge()) {
+                            copy.append(buffer);
+                            if (copy.isTooLarge()) {
+                                // a chunked response tells its size as it goes
+                                releaseWaitingRequests();
+                            }
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (!copy.isTooLarge()) {
+                            // later requests are sent to the service, as the response may have changed since
+                            flights.remove(key, flight);
+                            flight.response.tryEmitValue(new SharedResponse(status, sharedHeaders, copy.toByteArray()));
+                        }
+                    })
+            );
+        }
+
+        // sends the waiting requests to the service without waiting for the end of a response that will not be shared
+        private void releaseWaitingRequests() {
+            flights.remove(key, flight);
+            flight.response.tryEmitEmpty();
+        }
+    }
+}
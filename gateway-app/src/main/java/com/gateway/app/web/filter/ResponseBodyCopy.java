@@ -0,0 +1,70 @@
+package com.gateway.app.web.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Copy of the body of the response of a service, made while the body is written to the client, up to a maximum size.
+ */
+final class ResponseBodyCopy {
+
+    private final long maxSize;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    private boolean tooLarge;
+
+    ResponseBodyCopy(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    void append(DataBuffer buffer) {
+        if (tooLarge) {
+            return;
+        }
+        if (bytes.size() + buffer.readableByteCount() > maxSize) {
+            tooLarge = true;
+            bytes.reset();
+            return;
+        }
+        // a view of the readable bytes, leaving the read position of the buffer as it is
+        ByteBuffer readableBytes = buffer.asByteBuffer();
+        byte[] chunk = new byte[readableBytes.remaining()];
+        readableBytes.get(chunk);
+        bytes.write(chunk, 0, chunk.length);
+    }
+
+    boolean isTooLarge() {
+        return tooLarge;
+    }
+
+    byte[] toByteArray() {
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param exchange the exchange routed to the service.
+     * @param responseHeaders the headers of the response to the client.
+     * @return the headers of the response of the service, without the ones added by the gateway.
+     */
+    static HttpHeaders getServiceHeaders(ServerWebExchange exchange, HttpHeaders responseHeaders) {
+        Set<String> serviceHeaderNames = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_HEADER_NAMES);
+        if (serviceHeaderNames == null) {
+            return responseHeaders;
+        }
+        HttpHeaders serviceHeaders = new HttpHeaders();
+        for (String name : serviceHeaderNames) {
+            List<String> values = responseHeaders.get(name);
+            if (values != null) {
+                serviceHeaders.put(name, values);
+            }
+        }
+        return serviceHeaders;
+    }
+}
@@ -0,0 +1,139 @@
+package com.gateway.app.web.filter;
+
+import java.time.Duration;
+import java.util.Locale;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the {@code GET} requests of the cached paths from the {@link GatewayResponseCache}, and caches the responses of
+ * the services to the other ones.
+ * <p>
+ * A request whose {@code If-None-Match} header matches the {@code ETag} of the cached response gets a
+ * {@code 304 (Not Modified)} response. A request with a {@code no-cache} or {@code no-store} directive is sent to the
+ * service. A successful request with another method to a cached path evicts the cached responses of the collection it
+ * changed, all the responses of the {@code /services/carsapp/api/cars/**} paths for a {@code POST} to
+ * {@code /services/carsapp/api/cars/_bulk} for instance. The responses to the {@code GET} requests of the route sent to
+ * the service before that are not cached.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String AGE_HEADER = "Age";
+
+    private final GatewayResponseCache responseCache;
+
+    public ResponseCacheFilter(GatewayResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !responseCache.isCachedPath(request.getPath())) {
+            return chain.filter(exchange);
+        }
+        HttpMethod method = request.getMethod();
+        if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || method == HttpMethod.TRACE) {
+            return chain.filter(exchange);
+        }
+        if (method != HttpMethod.GET) {
+            return chain
+                .filter(exchange)
+                .doOnSuccess(done -> {
+                    HttpStatus status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        responseCache.invalidate(route.getId(), responseCache.getChangedPathPrefix(request.getPath()));
+                    }
+                });
+        }
+        String requestCacheControl = String
+            .join(",", request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL))
+            .toLowerCase(Locale.ENGLISH);
+        if (!requestCacheControl.contains("no-cache") && !requestCacheControl.contains("no-store")) {
+            GatewayResponseCache.CachedResponse cachedResponse = responseCache.get(route.getId(), request);
+            if (cachedResponse != null) {
+                return writeCachedResponse(exchange, cachedResponse);
+            }
+        }
+        long generation = responseCache.getGeneration(route.getId());
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange, route.getId(), generation)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // before RequestCoalescingFilter, so that cached responses are not coalesced,
+        // and before NettyWriteResponseFilter, which writes the body of the response of the service
+        return -3;
+    }
+
+    private Mono<Void> writeCachedResponse(ServerWebExchange exchange, GatewayResponseCache.CachedResponse cachedResponse) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cachedResponse.getHeaders());
+        response.getHeaders().set(AGE_HEADER, Long.toString(cachedResponse.getAge()));
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        String eTag = cachedResponse.getHeaders().getETag();
+        if (eTag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(eTag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(cachedResponse.getBody().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cachedResponse.getBody())));
+    }
+
+    /**
+     * Copies the body of a cacheable response while it is written, and caches it once it has been.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final String routeId;
+
+        private final long generation;
+
+        private CachingResponse(ServerWebExchange exchange, String routeId, long generation) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.routeId = routeId;
+            this.generation = generation;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = ResponseBodyCopy.getServiceHeaders(exchange, getHeaders());
+            Duration freshness = responseCache.getFreshness(exchange.getRequest(), getStatusCode(), headers);
+            if (freshness == null) {
+                return super.writeWith(body);
+            }
+            ResponseBodyCopy copy = new ResponseBodyCopy(responseCache.getMaxEntrySize());
+            return super.writeWith(
+                Flux
+                    .from(body)
+                    .doOnNext(copy::append)
+                    .doOnComplete(() -> {
+                        if (!copy.isTooLarge()) {
+                            responseCache.put(routeId, generation, exchange.getRequest(), headers, copy.toByteArray(), freshness);
+                        }
+                    })
+            );
+        }
+    }
+}
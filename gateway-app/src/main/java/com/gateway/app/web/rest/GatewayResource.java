@@ -1,17 +1,17 @@
 package com.gateway.app.web.rest;
 
 import com.gateway.app.security.AuthoritiesConstants;
+import com.gateway.app.web.filter.GatewayResponseCache;
 import com.gateway.app.web.rest.vm.RouteVM;
-import java.util.ArrayList;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.cloud.gateway.route.Route;
-import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.http.*;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.jhipster.web.util.HeaderUtil;
 
 /**
  * REST controller for managing Gateway configuration.
@@ -20,16 +20,18 @@ import reactor.core.publisher.Flux;
 @RequestMapping("/api/gateway")
 public class GatewayResource {
 
-    private final RouteLocator routeLocator;
+    private final Logger log = LoggerFactory.getLogger(GatewayResource.class);
 
-    private final DiscoveryClient discoveryClient;
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
 
-    @Value("${spring.application.name}")
-    private String appName;
+    private final RouteInventory routeInventory;
 
-    public GatewayResource(RouteLocator routeLocator, DiscoveryClient discoveryClient) {
-        this.routeLocator = routeLocator;
-        this.discoveryClient = discoveryClient;
+    private final GatewayResponseCache responseCache;
+
+    public GatewayResource(RouteInventory routeInventory, GatewayResponseCache responseCache) {
+        this.routeInventory = routeInventory;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -39,23 +41,30 @@ public class GatewayResource {
      */
     @GetMapping("/routes")
     @Secured(AuthoritiesConstants.ADMIN)
-    public ResponseEntity<List<RouteVM>> activeRoutes() {
-        Flux<Route> routes = routeLocator.getRoutes();
-        List<RouteVM> routeVMs = new ArrayList<>();
-        routes.subscribe(route -> {
-            RouteVM routeVM = new RouteVM();
-            // Manipulate strings to make Gateway routes look like Zuul's
-            String predicate = route.getPredicate().toString();
-            String path = predicate.substring(predicate.indexOf("[") + 1, predicate.indexOf("]"));
-            routeVM.setPath(path);
-            String serviceId = route.getId().substring(route.getId().indexOf("_") + 1).toLowerCase();
-            routeVM.setServiceId(serviceId);
-            // Exclude gateway app from routes
-            if (!serviceId.equalsIgnoreCase(appName)) {
-                routeVM.setServiceInstances(discoveryClient.getInstances(serviceId));
-                routeVMs.add(routeVM);
-            }
+    public Mono<ResponseEntity<List<RouteVM>>> activeRoutes() {
+        return routeInventory.getRoutes().map(ResponseEntity::ok);
+    }
+
+    /**
+     * {@code DELETE  /response-cache} : evict the cached responses of the services.
+     *
+     * @param routeId the id of the route of the evicted responses, all the routes if not set.
+     * @param pathPrefix the beginning of the paths of the evicted responses, all the paths if not set.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @DeleteMapping("/response-cache")
+    @Secured(AuthoritiesConstants.ADMIN)
+    public Mono<ResponseEntity<Void>> evictResponseCache(
+        @RequestParam(required = false) String routeId,
+        @RequestParam(required = false) String pathPrefix
+    ) {
+        log.debug("REST request to evict the cached responses of route {} under path {}", routeId, pathPrefix);
+        return Mono.fromSupplier(() -> {
+            int evicted = responseCache.invalidate(routeId, pathPrefix);
+            return ResponseEntity
+                .noContent()
+                .headers(HeaderUtil.createAlert(applicationName, "gateway.responseCacheEvicted", String.valueOf(evicted)))
+                .build();
         });
-        return ResponseEntity.ok(routeVMs);
     }
 }
@@ -0,0 +1,31 @@
+package com.gateway.app.web.rest;
+
+import com.gateway.app.security.jwt.JwtSigningKeys;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller publishing the public keys verifying the tokens issued by the gateway.
+ */
+@RestController
+public class JwksResource {
+
+    private final Optional<JwtSigningKeys> signingKeys;
+
+    public JwksResource(Optional<JwtSigningKeys> signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    /**
+     * {@code GET  /.well-known/jwks.json} : get the public keys of the tokens, by {@code kid}.
+     *
+     * @return the JSON Web Key Set, without keys when the tokens are signed with the JWT secret key.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public Map<String, Object> getJwks() {
+        return signingKeys.map(JwtSigningKeys::toJwks).orElseGet(() -> Map.of("keys", List.of()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.gateway.app.web.rest;
+
+import com.gateway.app.web.rest.vm.RouteVM;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.discovery.event.HeartbeatMonitor;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * The routes of the gateway with the instances of their services, kept as a snapshot so that reading them costs nothing.
+ * <p>
+ * The snapshot is built from the route definitions, without parsing the predicates of the routes, and from the
+ * non-blocking discovery client. It is built again when the routes are refreshed, and when the discovery client
+ * reports that the registry has changed.
+ */
+@Component
+public class RouteInventory {
+
+    private static final String PATH_PREDICATE = "Path";
+
+    private static final String LOAD_BALANCER_SCHEME = "lb";
+
+    private final Logger log = LoggerFactory.getLogger(RouteInventory.class);
+
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    private final HeartbeatMonitor heartbeatMonitor = new HeartbeatMonitor();
+
+    private final AtomicReference<List<RouteVM>> routes = new AtomicReference<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${spring.application.name}")
+    private String appName;
+
+    public RouteInventory(RouteDefinitionLocator routeDefinitionLocator, ReactiveDiscoveryClient discoveryClient) {
+        this.routeDefinitionLocator = routeDefinitionLocator;
+        this.discoveryClient = discoveryClient;
+    }
+
+    /**
+     * @return the last snapshot of the routes, built first if there is none yet.
+     */
+    public Mono<List<RouteVM>> getRoutes() {
+        List<RouteVM> snapshot = routes.get();
+        return snapshot != null ? Mono.just(snapshot) : refresh();
+    }
+
+    /**
+     * Builds a new snapshot of the routes. A snapshot never replaces one built by a later refresh.
+     *
+     * @return the new snapshot.
+     */
+    public Mono<List<RouteVM>> refresh() {
+        return Mono.defer(() -> {
+            long refreshGeneration = generation.incrementAndGet();
+            return routeDefinitionLocator
+                .getRouteDefinitions()
+                .filter(routeDefinition -> !getServiceId(routeDefinition).equalsIgnoreCase(appName))
+                .concatMap(this::toRouteVM)
+                .collectList()
+                .map(List::copyOf)
+                .doOnNext(snapshot -> {
+                    if (generation.get() == refreshGeneration) {
+                        routes.set(snapshot);
+                    }
+                });
+        });
+    }
+
+    @EventListener(RefreshRoutesEvent.class)
+    public void onRefreshRoutes() {
+        refreshInBackground();
+    }
+
+    @EventListener
+    public void onHeartbeat(HeartbeatEvent event) {
+        // heartbeats are sent on each fetch of the registry, the instances only change with the value of the heartbeat
+        if (heartbeatMonitor.update(event.getValue())) {
+            refreshInBackground();
+        }
+    }
+
+    private void refreshInBackground() {
+        refresh()
+            .subscribe(
+                snapshot -> log.debug("Refreshed {} gateway routes", snapshot.size()),
+                e -> log.warn("Could not refresh the gateway routes", e)
+            );
+    }
+
+    private Mono<RouteVM> toRouteVM(RouteDefinition routeDefinition) {
+        String serviceId = getServiceId(routeDefinition);
+        return discoveryClient
+            .getInstances(serviceId)
+            .collectList()
+            .map(serviceInstances -> {
+                RouteVM routeVM = new RouteVM();
+                routeVM.setPath(getPath(routeDefinition));
+                routeVM.setServiceId(serviceId);
+                routeVM.setServiceInstances(serviceInstances);
+                return routeVM;
+            });
+    }
+
+    private static String getServiceId(RouteDefinition routeDefinition) {
+        URI uri = routeDefinition.getUri();
+        if (uri != null && LOAD_BALANCER_SCHEME.equals(uri.getScheme()) && uri.getHost() != null) {
+            return uri.getHost().toLowerCase();
+        }
+        // Make Gateway routes look like Zuul's
+        String id = routeDefinition.getId();
+        return id.substring(id.indexOf('_') + 1).toLowerCase();
+    }
+
+    private static String getPath(RouteDefinition routeDefinition) {
+        return routeDefinition
+            .getPredicates()
+            .stream()
+            .filter(predicate -> PATH_PREDICATE.equals(predicate.getName()))
+            .findFirst()
+            .map(PredicateDefinition::getArgs)
+            .map(args -> String.join(", ", args.values()))
+            .orElse(null);
+    }
+}
@@ -7,6 +7,7 @@ import com.gateway.app.security.AuthoritiesConstants;
 import com.gateway.app.service.MailService;
 import com.gateway.app.service.UserService;
 import com.gateway.app.service.dto.AdminUserDTO;
+import com.gateway.app.service.dto.BulkAuthoritiesDTO;
 import com.gateway.app.web.rest.errors.BadRequestAlertException;
 import com.gateway.app.web.rest.errors.EmailAlreadyUsedException;
 import com.gateway.app.web.rest.errors.LoginAlreadyUsedException;
@@ -16,6 +17,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
 import javax.validation.constraints.Pattern;
 import org.slf4j.Logger;
@@ -185,6 +189,50 @@ public class UserResource {
             );
     }
 
+    /**
+     * {@code PUT /admin/users/_bulk-authorities} : Adds and removes authorities of many users, in one transaction.
+     *
+     * @param bulkAuthoritiesDTO the logins of the users, and the authorities to add and to remove.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a login or an authority does not exist, or if an authority is both added and removed.
+     */
+    @PutMapping("/users/_bulk-authorities")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<ResponseEntity<Void>> updateAuthorities(@Valid @RequestBody BulkAuthoritiesDTO bulkAuthoritiesDTO) {
+        log.debug("REST request to update the authorities of Users : {}", bulkAuthoritiesDTO);
+        Set<String> addedAuthorities = bulkAuthoritiesDTO.getAddedAuthorities();
+        Set<String> removedAuthorities = bulkAuthoritiesDTO.getRemovedAuthorities();
+        if (!Collections.disjoint(addedAuthorities, removedAuthorities)) {
+            throw new BadRequestAlertException("An authority cannot be both added and removed", "userManagement", "authorityconflict");
+        }
+        Set<String> logins = bulkAuthoritiesDTO
+            .getLogins()
+            .stream()
+            .map(login -> login.toLowerCase(Locale.ENGLISH))
+            .collect(Collectors.toSet());
+        return userService
+            .getAuthorities()
+            .collect(Collectors.toSet())
+            .flatMap(authorities -> {
+                if (!authorities.containsAll(addedAuthorities) || !authorities.containsAll(removedAuthorities)) {
+                    return Mono.error(new BadRequestAlertException("Authority not found", "userManagement", "authoritynotfound"));
+                }
+                return userRepository.findAllByLoginIn(logins).count();
+            })
+            .flatMap(userCount -> {
+                if (userCount < logins.size()) {
+                    return Mono.error(new BadRequestAlertException("User not found", "userManagement", "usernotfound"));
+                }
+                return userService.updateAuthorities(logins, addedAuthorities, removedAuthorities);
+            })
+            .map(userCount ->
+                ResponseEntity
+                    .noContent()
+                    .headers(HeaderUtil.createAlert(applicationName, "userManagement.authoritiesUpdated", String.valueOf(userCount)))
+                    .build()
+            );
+    }
+
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
      *
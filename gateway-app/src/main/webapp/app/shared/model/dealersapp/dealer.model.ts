@@ -2,6 +2,7 @@ export interface IDealer {
   id?: number;
   name?: string | null;
   address?: string | null;
+  version?: number;
 }
 
 export const defaultValue: Readonly<IDealer> = {};
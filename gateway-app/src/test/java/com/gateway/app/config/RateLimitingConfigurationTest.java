@@ -0,0 +1,84 @@
+package com.gateway.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link RateLimitingConfiguration} class, with an in-JVM Hazelcast member standing for the cluster
+ * keeping the buckets.
+ */
+class RateLimitingConfigurationTest {
+
+    private static final BucketConfiguration BUCKET_CONFIGURATION = BucketConfiguration
+        .builder()
+        .addLimit(Bandwidth.simple(2, Duration.ofMinutes(1)))
+        .build();
+
+    private HazelcastInstance member;
+
+    private RateLimitingConfiguration firstGateway;
+
+    private RateLimitingConfiguration secondGateway;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        Config config = new Config();
+        config.setClusterName("rate-limiting-" + UUID.randomUUID());
+        config.setProperty("hazelcast.local.localAddress", "127.0.0.1");
+        config.getNetworkConfig().setPortAutoIncrement(true);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        member = Hazelcast.newHazelcastInstance(config);
+        Address address = member.getCluster().getLocalMember().getAddress();
+
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getRateLimiting().setStore(ApplicationProperties.RateLimiting.Store.HAZELCAST);
+        applicationProperties.getRateLimiting().getHazelcast().setClusterName(config.getClusterName());
+        applicationProperties.getRateLimiting().getHazelcast().setAddresses(List.of(address.getHost() + ":" + address.getPort()));
+        firstGateway = new RateLimitingConfiguration();
+        secondGateway = new RateLimitingConfiguration();
+    }
+
+    @AfterEach
+    public void destroy() {
+        firstGateway.destroy();
+        secondGateway.destroy();
+        member.shutdown();
+    }
+
+    @Test
+    void testHazelcastBucketsAreSharedByTheGatewayInstances() {
+        ProxyManager<String> firstBuckets = firstGateway.rateLimitBuckets(applicationProperties);
+        ProxyManager<String> secondBuckets = secondGateway.rateLimitBuckets(applicationProperties);
+
+        assertThat(firstBuckets.builder().build("user", BUCKET_CONFIGURATION).tryConsume(1)).isTrue();
+        assertThat(secondBuckets.builder().build("user", BUCKET_CONFIGURATION).tryConsume(1)).isTrue();
+        assertThat(firstBuckets.builder().build("user", BUCKET_CONFIGURATION).tryConsume(1)).isFalse();
+        assertThat(secondBuckets.builder().build("other-user", BUCKET_CONFIGURATION).tryConsume(1)).isTrue();
+        assertThat(member.getCacheManager().getCache("rate-limit-buckets").size()).isEqualTo(2);
+    }
+
+    @Test
+    void testLocalBucketsAreUpdatedInPlace() {
+        applicationProperties.getRateLimiting().setStore(ApplicationProperties.RateLimiting.Store.LOCAL);
+        ProxyManager<String> buckets = firstGateway.rateLimitBuckets(applicationProperties);
+
+        assertThat(buckets.builder().build("user", BUCKET_CONFIGURATION).tryConsume(1)).isTrue();
+        assertThat(buckets.builder().build("user", BUCKET_CONFIGURATION).tryConsume(1)).isTrue();
+        assertThat(buckets.builder().build("user", BUCKET_CONFIGURATION).tryConsume(1)).isFalse();
+    }
+}
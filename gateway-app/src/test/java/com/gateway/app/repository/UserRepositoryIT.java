@@ -0,0 +1,175 @@
+package com.gateway.app.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gateway.app.IntegrationTest;
+import com.gateway.app.config.Constants;
+import com.gateway.app.domain.Authority;
+import com.gateway.app.domain.User;
+import com.gateway.app.security.AuthoritiesConstants;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Integration tests for {@link UserRepositoryInternalImpl}.
+ */
+@IntegrationTest
+class UserRepositoryIT {
+
+    private static final int USER_COUNT = 25;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRepositoryInternalImpl userRepositoryInternal;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @BeforeEach
+    public void init() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+        userRepository.deleteAllUserAuthorities().block();
+        userRepository.deleteAll().block();
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = new User();
+            user.setLogin(String.format("user-%02d", i));
+            user.setPassword(RandomStringUtils.random(60));
+            user.setActivated(true);
+            user.setEmail(user.getLogin() + "@localhost");
+            user.setLastName(i % 2 == 0 ? "even" : "odd");
+            user.setCreatedBy(Constants.SYSTEM);
+            User savedUser = userRepository.save(user).block();
+            userRepository.saveUserAuthority(savedUser.getId(), AuthoritiesConstants.USER).block();
+            if (i % 5 == 0) {
+                userRepository.saveUserAuthority(savedUser.getId(), AuthoritiesConstants.ADMIN).block();
+            }
+        }
+    }
+
+    @Test
+    void assertThatThePageIsSelectedByTheDatabase() {
+        String sql = userRepositoryInternal.createPageSelect(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "lastName")));
+
+        assertThat(sql).containsIgnoringCase("LIMIT 10").containsIgnoringCase("OFFSET 20");
+        assertThat(sql).containsIgnoringCase("ORDER BY e_last_name DESC, e_id ASC");
+        assertThat(sql).doesNotContainIgnoringCase("jhi_user_authority");
+    }
+
+    @Test
+    void assertThatUsersArePagedAndSortedWithTheirAuthorities() {
+        List<User> firstPage = userRepository
+            .findAllWithAuthorities(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "lastName")))
+            .collectList()
+            .block();
+        List<User> lastPage = userRepository
+            .findAllWithAuthorities(PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "lastName")))
+            .collectList()
+            .block();
+
+        assertThat(firstPage).extracting(User::getLastName).containsOnly("odd");
+        assertThat(firstPage).extracting(User::getLogin).isSorted();
+        assertThat(lastPage)
+            .extracting(User::getLastName)
+            .containsExactly("odd", "odd", "even", "even", "even", "even", "even", "even", "even", "even");
+        assertThat(firstPage).extracting(User::getCreatedBy).containsOnly(Constants.SYSTEM);
+        User admin = firstPage.stream().filter(user -> user.getLogin().equals("user-05")).findFirst().orElseThrow();
+        assertThat(admin.getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+        User user = firstPage.stream().filter(candidate -> candidate.getLogin().equals("user-01")).findFirst().orElseThrow();
+        assertThat(user.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void assertThatAPageAfterTheLastUserIsEmpty() {
+        assertThat(userRepository.findAllWithAuthorities(PageRequest.of(3, 10)).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void assertThatOnlyTheChangedAuthoritiesAreWritten() {
+        User admin = userRepository.findOneByLogin("user-05").block();
+        User user = userRepository.findOneByLogin("user-01").block();
+
+        userRepository.updateUserAuthorities(admin.getId(), List.of(AuthoritiesConstants.ADMIN)).block();
+        userRepository.updateUserAuthorities(user.getId(), List.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)).block();
+
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("user-05").block().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.ADMIN);
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("user-01").block().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    void assertThatAuthoritiesAreUpdatedForManyUsers() {
+        List<Long> userIds = userRepository
+            .findAllByLoginIn(List.of("user-00", "user-01", "user-02"))
+            .map(User::getId)
+            .collectList()
+            .block();
+
+        userRepository.updateAuthorities(userIds, List.of(AuthoritiesConstants.ADMIN), List.of(AuthoritiesConstants.USER)).block();
+
+        for (String login : List.of("user-00", "user-01", "user-02")) {
+            assertThat(userRepository.findOneWithAuthoritiesByLogin(login).block().getAuthorities())
+                .extracting(Authority::getName)
+                .containsExactly(AuthoritiesConstants.ADMIN);
+        }
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("user-03").block().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void assertThatOnlyTheUsersStillNotActivatedAreDeleted() {
+        LocalDateTime createdBefore = LocalDateTime.now(ZoneOffset.UTC).plusMinutes(1);
+        User activated = userRepository.findOneByLogin("user-00").block();
+        User notActivated = userRepository.findOneByLogin("user-01").block();
+        notActivated.setActivated(false);
+        userRepository.save(notActivated).block();
+
+        // user-00 was activated since it was selected
+        int deleted = userRepository
+            .deleteNotActivatedWithAuthorities(List.of(activated.getId(), notActivated.getId()), createdBefore)
+            .block();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(userRepository.findOneByLogin("user-01").blockOptional()).isEmpty();
+        assertThat(userRepository.findOneWithAuthoritiesByLogin("user-00").block().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    void assertThatUsersAreEvictedAgainOnceTheTransactionCommits() {
+        User user = userRepository.findOneWithAuthoritiesByLogin("user-00").block();
+        Cache cache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+
+        userRepository
+            .evictFromCaches(user)
+            // a concurrent lookup caches the user as it was before the commit
+            .then(Mono.fromRunnable(() -> cache.put(user.getLogin(), user)))
+            .as(transactionalOperator::transactional)
+            .block();
+
+        assertThat(cache.get(user.getLogin())).isNull();
+    }
+}
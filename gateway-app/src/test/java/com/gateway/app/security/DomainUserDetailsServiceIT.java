@@ -12,8 +12,13 @@ import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
  * Integrations tests for {@link DomainUserDetailsService}.
@@ -34,8 +39,19 @@ class DomainUserDetailsServiceIT {
     @Autowired
     private ReactiveUserDetailsService domainUserDetailsService;
 
+    @Autowired
+    private ReactiveAuthenticationManager authenticationManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @BeforeEach
     public void init() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
         userRepository.deleteAllUserAuthorities().block();
         userRepository.deleteAll().block();
 
@@ -113,4 +129,18 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.findByUsername(USER_THREE_LOGIN).block());
     }
+
+    @Test
+    void assertThatPasswordHashWithAnotherCostIsReplacedAtLogin() {
+        User userOne = userRepository.findOneByLogin(USER_ONE_LOGIN).block();
+        userOne.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        userRepository.save(userOne).block();
+
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(USER_ONE_LOGIN, "password")).block();
+
+        String upgradedHash = userRepository.findOneByLogin(USER_ONE_LOGIN).block().getPassword();
+        assertThat(upgradedHash).doesNotStartWith("$2a$04$");
+        assertThat(passwordEncoder.matches("password", upgradedHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgradedHash)).isFalse();
+    }
 }
@@ -0,0 +1,71 @@
+package com.gateway.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.gateway.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class PasswordHashingSchedulerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingScheduler passwordHashingScheduler;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getPasswordHashing().setThreads(1);
+        applicationProperties.getSecurity().getPasswordHashing().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingScheduler = new PasswordHashingScheduler(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordHashingScheduler.destroy();
+    }
+
+    @Test
+    void testHashingRunsOnItsOwnThreads() {
+        String threadName = Mono
+            .fromCallable(() -> Thread.currentThread().getName())
+            .subscribeOn(passwordHashingScheduler.getScheduler())
+            .block();
+
+        assertThat(threadName).startsWith("password-hashing-");
+    }
+
+    @Test
+    void testWorkIsRejectedWhenTheQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Mono.fromRunnable(() -> awaitRelease(started)).subscribeOn(passwordHashingScheduler.getScheduler()).subscribe();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Mono.empty().subscribeOn(passwordHashingScheduler.getScheduler()).subscribe();
+
+        assertThat(meterRegistry.get("executor.queued").tag("name", PasswordHashingScheduler.EXECUTOR_NAME).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.active").tag("name", PasswordHashingScheduler.EXECUTOR_NAME).gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> Mono.just("password").subscribeOn(passwordHashingScheduler.getScheduler()).block())
+            .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    private void awaitRelease(CountDownLatch started) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
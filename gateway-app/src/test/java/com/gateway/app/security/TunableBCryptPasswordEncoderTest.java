@@ -0,0 +1,37 @@
+package com.gateway.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class TunableBCryptPasswordEncoderTest {
+
+    private final TunableBCryptPasswordEncoder passwordEncoder = new TunableBCryptPasswordEncoder(5);
+
+    @Test
+    void testHashesWithTheConfiguredCost() {
+        String hash = passwordEncoder.encode("password");
+
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(passwordEncoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void testHashesWithAnotherCostAreUpgraded() {
+        String cheaper = new BCryptPasswordEncoder(4).encode("password");
+        String costlier = new BCryptPasswordEncoder(6).encode("password");
+
+        assertThat(passwordEncoder.matches("password", cheaper)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(cheaper)).isTrue();
+        assertThat(passwordEncoder.matches("password", costlier)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(costlier)).isTrue();
+    }
+
+    @Test
+    void testOtherHashesAreNotUpgraded() {
+        assertThat(passwordEncoder.upgradeEncoding(null)).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding("")).isFalse();
+        assertThat(passwordEncoder.upgradeEncoding("{noop}password")).isFalse();
+    }
+}
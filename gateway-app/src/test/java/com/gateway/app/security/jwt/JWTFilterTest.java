@@ -2,6 +2,7 @@ package com.gateway.app.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.gateway.app.config.ApplicationProperties;
 import com.gateway.app.management.SecurityMetersService;
 import com.gateway.app.security.AuthoritiesConstants;
 import io.jsonwebtoken.io.Decoders;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
@@ -38,7 +40,7 @@ class JWTFilterTest {
         ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
 
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", 60000);
-        jwtFilter = new JWTFilter(tokenProvider);
+        jwtFilter = new JWTFilter(new VerifiedTokenCache(tokenProvider, new ApplicationProperties(), new SimpleMeterRegistry()));
     }
 
     @Test
@@ -66,6 +68,7 @@ class JWTFilterTest {
                         .then()
             )
             .block();
+        assertThat(exchange.<Authentication>getAttribute(JWTFilter.AUTHENTICATION_ATTRIBUTE).getCredentials()).isEqualTo(jwt);
     }
 
     @Test
@@ -87,6 +90,7 @@ class JWTFilterTest {
                         .then()
             )
             .block();
+        assertThat(exchange.getAttributes()).doesNotContainKey(JWTFilter.AUTHENTICATION_ATTRIBUTE);
     }
 
     @Test
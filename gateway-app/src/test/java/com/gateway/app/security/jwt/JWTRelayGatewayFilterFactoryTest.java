@@ -0,0 +1,97 @@
+package com.gateway.app.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gateway.app.security.AuthoritiesConstants;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class JWTRelayGatewayFilterFactoryTest {
+
+    private GatewayFilter relayFilter;
+
+    private AtomicReference<ServerWebExchange> routedExchange;
+
+    @BeforeEach
+    public void setup() {
+        relayFilter = new JWTRelayGatewayFilterFactory().apply(new Object());
+        routedExchange = new AtomicReference<>();
+    }
+
+    @Test
+    void testAuthenticatedRequestIsRoutedWithItsToken() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/carsapp/api/cars").header(JWTFilter.AUTHORIZATION_HEADER, "Bearer token")
+        );
+        exchange.getAttributes().put(JWTFilter.AUTHENTICATION_ATTRIBUTE, authentication("token"));
+
+        route(exchange);
+
+        assertThat(routedExchange.get()).isSameAs(exchange);
+        assertThat(routedExchange.get().getRequest().getHeaders().getFirst(JWTFilter.AUTHORIZATION_HEADER)).isEqualTo("Bearer token");
+    }
+
+    @Test
+    void testTokenOfTheAuthenticationIsRelayed() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/carsapp/api/cars").header(JWTFilter.AUTHORIZATION_HEADER, "bearer token")
+        );
+        exchange.getAttributes().put(JWTFilter.AUTHENTICATION_ATTRIBUTE, authentication("token"));
+
+        route(exchange);
+
+        assertThat(routedExchange.get().getRequest().getHeaders().get(JWTFilter.AUTHORIZATION_HEADER)).containsExactly("Bearer token");
+    }
+
+    @Test
+    void testUnauthenticatedRequestIsRoutedAsItIs() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/carsapp/api/cars").header(JWTFilter.AUTHORIZATION_HEADER, "Bearer wrong_jwt")
+        );
+
+        route(exchange);
+
+        assertThat(routedExchange.get()).isSameAs(exchange);
+    }
+
+    @Test
+    void testOtherSchemeIsRoutedAsItIs() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.get("/services/carsapp/management/health").header(JWTFilter.AUTHORIZATION_HEADER, "Basic dXNlcjp1c2Vy")
+        );
+
+        route(exchange);
+
+        assertThat(routedExchange.get()).isSameAs(exchange);
+        assertThat(routedExchange.get().getRequest().getHeaders().getFirst(JWTFilter.AUTHORIZATION_HEADER)).isEqualTo("Basic dXNlcjp1c2Vy");
+    }
+
+    private void route(ServerWebExchange exchange) {
+        relayFilter
+            .filter(
+                exchange,
+                routed -> {
+                    routedExchange.set(routed);
+                    return Mono.empty();
+                }
+            )
+            .block();
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(String token) {
+        return new UsernamePasswordAuthenticationToken(
+            "test-user",
+            token,
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.gateway.app.security.jwt;
+
+import static com.gateway.app.security.jwt.JWTFilter.AUTHORIZATION_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gateway.app.IntegrationTest;
+import com.gateway.app.security.AuthoritiesConstants;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Integration tests for {@link JWTRelayGatewayFilterFactory}, routing requests to a local backend which records the
+ * {@code Authorization} header it receives.
+ */
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_TIMEOUT)
+@IntegrationTest
+class JWTRelayIT {
+
+    private static final Set<String> receivedAuthorizations = ConcurrentHashMap.newKeySet();
+
+    private static DisposableServer backend;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        backend =
+            HttpServer
+                .create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(
+                    (request, response) -> {
+                        String authorization = request.requestHeaders().get(AUTHORIZATION_HEADER);
+                        if (authorization != null) {
+                            receivedAuthorizations.add(authorization);
+                        }
+                        return response.sendString(Mono.just("ok"));
+                    }
+                )
+                .bindNow();
+        String uri = "http://127.0.0.1:" + backend.port();
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "relay");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/services/relay/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @BeforeEach
+    public void setup() {
+        token =
+            tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(
+                    "test-user",
+                    "test-password",
+                    Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                ),
+                false
+            );
+        receivedAuthorizations.clear();
+    }
+
+    @Test
+    void relayAuthenticatedToken() {
+        webTestClient
+            .get()
+            .uri("/services/relay/api/test")
+            .header(AUTHORIZATION_HEADER, "Bearer " + token)
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        assertThat(receivedAuthorizations).containsExactly("Bearer " + token);
+    }
+
+    @Test
+    void routeRequestWithAnotherScheme() {
+        // Microfrontend resources are public, so their requests reach the relay filter whatever their Authorization header
+        webTestClient
+            .get()
+            .uri("/services/relay/main.js")
+            .header(AUTHORIZATION_HEADER, "Basic dXNlcjp1c2Vy")
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        assertThat(receivedAuthorizations).containsExactly("Basic dXNlcjp1c2Vy");
+    }
+}
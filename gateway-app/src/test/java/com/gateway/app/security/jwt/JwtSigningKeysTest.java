@@ -0,0 +1,84 @@
+package com.gateway.app.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class JwtSigningKeysTest {
+
+    static final String KEY_STORE = "/config/jwt-signing-keys.p12";
+
+    static final char[] KEY_STORE_PASSWORD = "password".toCharArray();
+
+    static JwtSigningKeys loadTestKeys(String activeKeyId) throws Exception {
+        try (InputStream keyStore = JwtSigningKeysTest.class.getResourceAsStream(KEY_STORE)) {
+            return JwtSigningKeys.load(keyStore, "PKCS12", KEY_STORE_PASSWORD, activeKeyId);
+        }
+    }
+
+    @Test
+    void testLoadsEveryKeyOfTheKeyStore() throws Exception {
+        JwtSigningKeys signingKeys = loadTestKeys("es256-1");
+
+        assertThat(signingKeys.getActiveKeyId()).isEqualTo("es256-1");
+        assertThat(signingKeys.getActiveAlgorithm()).isEqualTo(SignatureAlgorithm.ES256);
+        assertThat(signingKeys.getActivePrivateKey().getAlgorithm()).isEqualTo("EC");
+        assertThat(signingKeys.getPublicKey("es256-1")).isInstanceOf(ECPublicKey.class);
+        assertThat(signingKeys.getPublicKey("rs256-1")).isInstanceOf(RSAPublicKey.class);
+        assertThat(signingKeys.getPublicKey("unknown")).isNull();
+        assertThat(loadTestKeys("rs256-1").getActiveAlgorithm()).isEqualTo(SignatureAlgorithm.RS256);
+    }
+
+    @Test
+    void testActiveKeyMustBeInTheKeyStore() {
+        assertThatThrownBy(() -> loadTestKeys("es256-2")).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("es256-2");
+    }
+
+    @Test
+    void testRejectsWeakKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        Map<String, KeyPair> keyPairs = Map.of("rs-1024", generator.generateKeyPair());
+
+        assertThatThrownBy(() -> new JwtSigningKeys(keyPairs, "rs-1024")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPublishesThePublicKeysAsJwks() throws Exception {
+        JwtSigningKeys signingKeys = loadTestKeys("es256-1");
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) signingKeys.toJwks().get("keys");
+
+        assertThat(keys).hasSize(2);
+        Map<String, Object> ec = keys.stream().filter(jwk -> "es256-1".equals(jwk.get("kid"))).findFirst().orElseThrow();
+        assertThat(ec).containsEntry("kty", "EC").containsEntry("crv", "P-256").containsEntry("alg", "ES256").containsEntry("use", "sig");
+        ECPublicKey ecPublicKey = (ECPublicKey) signingKeys.getPublicKey("es256-1");
+        assertThat(decode(ec.get("x"))).hasSize(32);
+        assertThat(new BigInteger(1, decode(ec.get("x")))).isEqualTo(ecPublicKey.getW().getAffineX());
+        assertThat(new BigInteger(1, decode(ec.get("y")))).isEqualTo(ecPublicKey.getW().getAffineY());
+        assertThat(ec).doesNotContainKeys("d");
+
+        Map<String, Object> rsa = keys.stream().filter(jwk -> "rs256-1".equals(jwk.get("kid"))).findFirst().orElseThrow();
+        assertThat(rsa).containsEntry("kty", "RSA").containsEntry("alg", "RS256");
+        RSAPublicKey rsaPublicKey = (RSAPublicKey) signingKeys.getPublicKey("rs256-1");
+        assertThat(new BigInteger(1, decode(rsa.get("n")))).isEqualTo(rsaPublicKey.getModulus());
+        assertThat(new BigInteger(1, decode(rsa.get("e")))).isEqualTo(rsaPublicKey.getPublicExponent());
+        assertThat(rsa).doesNotContainKeys("d", "p", "q");
+    }
+
+    private static byte[] decode(Object base64Url) {
+        return Base64.getUrlDecoder().decode((String) base64Url);
+    }
+}
@@ -11,6 +11,9 @@ import io.jsonwebtoken.security.Keys;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.spec.ECGenParameterSpec;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -88,6 +91,44 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testParseTokenReturnsClaimsAndAuthentication() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        ParsedToken parsedToken = tokenProvider.parseToken(token);
+
+        assertThat(parsedToken.isValid()).isTrue();
+        assertThat(parsedToken.getFailure()).isNull();
+        assertThat(parsedToken.getClaims().getSubject()).isEqualTo("anonymous");
+        assertThat(parsedToken.getAuthentication().getName()).isEqualTo("anonymous");
+        assertThat(parsedToken.getAuthentication().getCredentials()).isEqualTo(token);
+        assertThat(parsedToken.getAuthentication().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testParseTokenReusesTheAuthorities() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        GrantedAuthority first = tokenProvider.parseToken(token).getAuthentication().getAuthorities().iterator().next();
+        GrantedAuthority second = tokenProvider.parseToken(token).getAuthentication().getAuthorities().iterator().next();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void testParseTokenReturnsTheFailure() {
+        ParsedToken parsedToken = tokenProvider.parseToken(createTokenWithDifferentSignature());
+
+        assertThat(parsedToken.isValid()).isFalse();
+        assertThat(parsedToken.getFailure()).isEqualTo(ParsedToken.Failure.INVALID_SIGNATURE);
+        assertThat(parsedToken.getClaims()).isNull();
+        assertThat(parsedToken.getAuthentication()).isNull();
+        assertThat(tokenProvider.parseToken(createUnsupportedToken()).getFailure()).isEqualTo(ParsedToken.Failure.UNSUPPORTED);
+        assertThat(tokenProvider.parseToken("").getFailure()).isEqualTo(ParsedToken.Failure.ILLEGAL_ARGUMENT);
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -116,6 +157,70 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testTokenIsSignedWithTheActiveSigningKey() throws Exception {
+        TokenProvider signingTokenProvider = createSigningTokenProvider("es256-1", true);
+
+        String token = signingTokenProvider.createToken(createAuthentication(), false);
+
+        JwtSigningKeys signingKeys = JwtSigningKeysTest.loadTestKeys("es256-1");
+        assertThat(Jwts.parserBuilder().setSigningKey(signingKeys.getPublicKey("es256-1")).build().parseClaimsJws(token).getHeader())
+            .containsEntry("kid", "es256-1")
+            .containsEntry("alg", "ES256");
+        assertThat(signingTokenProvider.validateToken(token)).isTrue();
+        assertThat(createSigningTokenProvider("rs256-1", true).validateToken(token)).isTrue();
+    }
+
+    @Test
+    void testTokenSignedWithTheSecretIsAcceptedWhileTheSecretIsConfigured() throws Exception {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(createSigningTokenProvider("es256-1", true).validateToken(token)).isTrue();
+        assertThat(createSigningTokenProvider("es256-1", false).validateToken(token)).isFalse();
+    }
+
+    @Test
+    void testTokenSignedWithAnUnknownKeyIsRejected() throws Exception {
+        TokenProvider signingTokenProvider = createSigningTokenProvider("es256-1", false);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        PrivateKey otherKey = generator.generateKeyPair().getPrivate();
+
+        String unknownKid = Jwts
+            .builder()
+            .setHeaderParam("kid", "es256-2")
+            .setSubject("anonymous")
+            .signWith(otherKey, SignatureAlgorithm.ES256)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+        String knownKid = Jwts
+            .builder()
+            .setHeaderParam("kid", "es256-1")
+            .setSubject("anonymous")
+            .signWith(otherKey, SignatureAlgorithm.ES256)
+            .setExpiration(new Date(new Date().getTime() + ONE_MINUTE))
+            .compact();
+
+        assertThat(signingTokenProvider.parseToken(unknownKid).getFailure()).isEqualTo(ParsedToken.Failure.INVALID_SIGNATURE);
+        assertThat(signingTokenProvider.parseToken(knownKid).getFailure()).isEqualTo(ParsedToken.Failure.INVALID_SIGNATURE);
+    }
+
+    private TokenProvider createSigningTokenProvider(String activeKeyId, boolean withSecret) throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        if (withSecret) {
+            jHipsterProperties
+                .getSecurity()
+                .getAuthentication()
+                .getJwt()
+                .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        }
+        return new TokenProvider(
+            jHipsterProperties,
+            new SecurityMetersService(new SimpleMeterRegistry()),
+            Optional.of(JwtSigningKeysTest.loadTestKeys(activeKeyId))
+        );
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
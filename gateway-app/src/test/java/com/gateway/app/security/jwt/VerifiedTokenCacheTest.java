@@ -0,0 +1,121 @@
+package com.gateway.app.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.gateway.app.management.SecurityMetersService;
+import com.gateway.app.security.AuthoritiesConstants;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import tech.jhipster.config.JHipsterProperties;
+
+class VerifiedTokenCacheTest {
+
+    private static final long ONE_MINUTE = 60000;
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties applicationProperties;
+
+    private TokenProvider tokenProvider;
+
+    // time of the cache, in nanoseconds
+    private AtomicLong ticker;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        String base64Secret = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(base64Secret);
+
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new TokenProvider(jHipsterProperties, new SecurityMetersService(meterRegistry));
+        ReflectionTestUtils.setField(tokenProvider, "key", Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
+
+        applicationProperties = new ApplicationProperties();
+        ticker = new AtomicLong();
+        verifiedTokenCache = new VerifiedTokenCache(tokenProvider, applicationProperties, meterRegistry, ticker::get);
+    }
+
+    @Test
+    void testVerifiedTokenIsServedFromTheCache() {
+        String token = createToken("test-user");
+
+        Optional<Authentication> first = verifiedTokenCache.getAuthentication(token);
+        Optional<Authentication> second = verifiedTokenCache.getAuthentication(token);
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getName()).isEqualTo("test-user");
+        assertThat(first.get().getCredentials()).isEqualTo(token);
+        assertThat(second).containsSame(first.get());
+        assertThat(gets("miss")).isEqualTo(1);
+        assertThat(gets("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() {
+        String token = createToken("test-user").substring(1);
+
+        assertThat(verifiedTokenCache.getAuthentication(token)).isEmpty();
+        assertThat(verifiedTokenCache.getAuthentication(token)).isEmpty();
+
+        assertThat(verifiedTokenCache.estimatedSize()).isZero();
+        assertThat(gets("miss")).isEqualTo(2);
+        assertThat(meterRegistry.get(SecurityMetersService.INVALID_TOKENS_METER_NAME).tag("cause", "malformed").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testTokenIsEvictedWhenItExpires() {
+        String token = createToken("test-user");
+
+        assertThat(verifiedTokenCache.getAuthentication(token)).isPresent();
+        assertThat(verifiedTokenCache.estimatedSize()).isEqualTo(1);
+
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(ONE_MINUTE + 1));
+
+        assertThat(verifiedTokenCache.estimatedSize()).isZero();
+        verifiedTokenCache.getAuthentication(token);
+        assertThat(gets("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        applicationProperties.getSecurity().getVerifiedTokenCache().setMaxSize(2);
+        verifiedTokenCache = new VerifiedTokenCache(tokenProvider, applicationProperties, new SimpleMeterRegistry());
+
+        verifiedTokenCache.getAuthentication(createToken("user-1"));
+        verifiedTokenCache.getAuthentication(createToken("user-2"));
+        verifiedTokenCache.getAuthentication(createToken("user-3"));
+
+        assertThat(verifiedTokenCache.estimatedSize()).isEqualTo(2);
+    }
+
+    private String createToken(String login) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            login,
+            "test-password",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+        );
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", VerifiedTokenCache.CACHE_NAME).tag("result", result).functionCounter().count();
+    }
+}
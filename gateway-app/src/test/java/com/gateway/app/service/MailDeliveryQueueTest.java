@@ -0,0 +1,181 @@
+package com.gateway.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gateway.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+class MailDeliveryQueueTest {
+
+    private final BlockingQueue<List<MimeMessage>> sentBatches = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<String> sendingThreads = new LinkedBlockingQueue<>();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    private volatile boolean blockFirstSend;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private MailDeliveryQueue mailDeliveryQueue;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setThreads(1);
+        applicationProperties.getMail().setBatchSize(10);
+        applicationProperties.getMail().setRetryDelay(Duration.ofMillis(10));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        mailDeliveryQueue.destroy();
+    }
+
+    @Test
+    void testWaitingEmailsAreSentTogetherByTheDeliveryThread() throws InterruptedException {
+        blockFirstSend = true;
+        createMailDeliveryQueue();
+
+        assertThat(mailDeliveryQueue.submit("first@localhost", this::createMessage)).isTrue();
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(1);
+        for (int i = 0; i < 3; i++) {
+            mailDeliveryQueue.submit("waiting@localhost", this::createMessage);
+        }
+        assertThat(meterRegistry.get(MailDeliveryQueue.QUEUE_SIZE_METER_NAME).gauge().value()).isEqualTo(3);
+        release.countDown();
+
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(3);
+        assertThat(sendingThreads).allMatch(name -> name.startsWith("mail-delivery-"));
+        assertThat(meterRegistry.get(MailDeliveryQueue.QUEUE_SIZE_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testEmailIsRejectedWhenTheQueueIsFull() throws InterruptedException {
+        blockFirstSend = true;
+        applicationProperties.getMail().setQueueCapacity(1);
+        createMailDeliveryQueue();
+
+        mailDeliveryQueue.submit("first@localhost", this::createMessage);
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(1);
+
+        assertThat(mailDeliveryQueue.submit("waiting@localhost", this::createMessage)).isTrue();
+        assertThat(mailDeliveryQueue.submit("rejected@localhost", this::createMessage)).isFalse();
+        assertThat(meterRegistry.get(MailDeliveryQueue.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFailedEmailIsSentAgain() throws InterruptedException {
+        failuresLeft.set(1);
+        createMailDeliveryQueue();
+
+        mailDeliveryQueue.submit("retried@localhost", this::createMessage);
+
+        MimeMessage failed = sentBatches.poll(5, TimeUnit.SECONDS).get(0);
+        MimeMessage retried = sentBatches.poll(5, TimeUnit.SECONDS).get(0);
+        assertThat(retried).isSameAs(failed);
+        for (int i = 0; i < 50 && meterRegistry.get(MailDeliveryQueue.DELIVERY_METER_NAME).timer().count() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get(MailDeliveryQueue.DELIVERY_METER_NAME).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailDeliveryQueue.FAILED_METER_NAME).counter().count()).isZero();
+    }
+
+    @Test
+    void testEmailIsDroppedAfterItsLastAttempt() throws InterruptedException {
+        failuresLeft.set(Integer.MAX_VALUE);
+        applicationProperties.getMail().setMaxAttempts(2);
+        createMailDeliveryQueue();
+
+        mailDeliveryQueue.submit("failed@localhost", this::createMessage);
+
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(1);
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(1);
+        for (int i = 0; i < 50 && meterRegistry.get(MailDeliveryQueue.FAILED_METER_NAME).counter().count() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get(MailDeliveryQueue.FAILED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(sentBatches.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void testWaitingEmailsAreSentWhenTheApplicationStops() throws InterruptedException {
+        blockFirstSend = true;
+        createMailDeliveryQueue();
+        mailDeliveryQueue.submit("first@localhost", this::createMessage);
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(1);
+        mailDeliveryQueue.submit("waiting@localhost", this::createMessage);
+        release.countDown();
+
+        mailDeliveryQueue.destroy();
+
+        assertThat(sentBatches.poll()).hasSize(1);
+        assertThat(mailDeliveryQueue.submit("late@localhost", this::createMessage)).isFalse();
+        assertThat(meterRegistry.get(MailDeliveryQueue.FAILED_METER_NAME).counter().count()).isZero();
+    }
+
+    @Test
+    void testWaitingEmailsAreDroppedAfterTheShutdownTimeout() throws InterruptedException {
+        blockFirstSend = true;
+        applicationProperties.getMail().setShutdownTimeout(Duration.ofMillis(50));
+        createMailDeliveryQueue();
+        mailDeliveryQueue.submit("first@localhost", this::createMessage);
+        assertThat(sentBatches.poll(5, TimeUnit.SECONDS)).hasSize(1);
+        mailDeliveryQueue.submit("waiting@localhost", this::createMessage);
+        mailDeliveryQueue.submit("waiting@localhost", this::createMessage);
+
+        mailDeliveryQueue.destroy();
+
+        assertThat(meterRegistry.get(MailDeliveryQueue.FAILED_METER_NAME).counter().count()).isEqualTo(2);
+    }
+
+    private void createMailDeliveryQueue() {
+        mailDeliveryQueue = new MailDeliveryQueue(new RecordingMailSender(), applicationProperties, meterRegistry);
+    }
+
+    private MimeMessage createMessage() {
+        return new MimeMessage((Session) null);
+    }
+
+    private class RecordingMailSender extends JavaMailSenderImpl {
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            sendingThreads.add(Thread.currentThread().getName());
+            sentBatches.add(List.of(mimeMessages));
+            if (blockFirstSend) {
+                blockFirstSend = false;
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new MailSendException(Map.of(mimeMessages[0], new RuntimeException("Connection refused")));
+            }
+        }
+    }
+}
@@ -7,16 +7,19 @@ import com.gateway.app.config.Constants;
 import com.gateway.app.domain.User;
 import com.gateway.app.repository.UserRepository;
 import com.gateway.app.service.dto.AdminUserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageRequest;
 import tech.jhipster.security.RandomUtil;
 
@@ -44,10 +47,18 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private User user;
 
     @BeforeEach
     public void init() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
         userRepository.deleteAllUserAuthorities().block();
         userRepository.deleteAll().block();
         user = new User();
@@ -167,4 +178,109 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId()).blockOptional();
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    void assertThatNotActivatedUsersAreDeletedInBatches() {
+        double purgedUsers = meterRegistry.get(UserService.PURGED_USERS_METER_NAME).counter().count();
+        double purgeBatches = meterRegistry.get(UserService.PURGE_BATCHES_METER_NAME).counter().count();
+        List<String> logins = saveNotActivatedUsersCreatedBefore3Days(5);
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findAllByLoginIn(logins).collectList().block()).isEmpty();
+        assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN).blockOptional()).isPresent();
+        // the batch size is 2 in the tests
+        assertThat(meterRegistry.get(UserService.PURGED_USERS_METER_NAME).counter().count()).isEqualTo(purgedUsers + 5);
+        assertThat(meterRegistry.get(UserService.PURGE_BATCHES_METER_NAME).counter().count()).isEqualTo(purgeBatches + 3);
+    }
+
+    @Test
+    void assertThatScheduledRemovalDoesNotWaitForTheDeletion() throws InterruptedException {
+        List<String> logins = saveNotActivatedUsersCreatedBefore3Days(3);
+
+        userService.scheduleRemoveNotActivatedUsers();
+
+        for (int i = 0; i < 50 && userRepository.findAllByLoginIn(logins).hasElements().block(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(userRepository.findAllByLoginIn(logins).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void assertThatUserWithAuthoritiesIsCachedUntilItIsSaved() {
+        userService.saveUser(user).block();
+        User cachedUser = userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL.toUpperCase()).block()).isNotNull();
+
+        User dbUser = userRepository.findOneByLogin(DEFAULT_LOGIN).block();
+        dbUser.setFirstName("jane");
+        userRepository.save(dbUser).block();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block()).isSameAs(cachedUser);
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL).block().getFirstName())
+            .isEqualTo(DEFAULT_FIRSTNAME);
+
+        userService.saveUser(dbUser).block();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block().getFirstName()).isEqualTo("jane");
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL).block().getFirstName()).isEqualTo("jane");
+    }
+
+    @Test
+    void assertThatUpdatingTheLoginEvictsTheOldOne() {
+        User dbUser = userService.saveUser(user).block();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block()).isNotNull();
+
+        AdminUserDTO userDTO = new AdminUserDTO(dbUser);
+        userDTO.setLogin("janedoe");
+        userService.updateUser(userDTO).block();
+
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).blockOptional()).isEmpty();
+        assertThat(userService.getUserWithAuthoritiesByLogin("janedoe").block()).isNotNull();
+    }
+
+    @Test
+    void assertThatDeletedUserIsEvicted() {
+        userService.saveUser(user).block();
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block()).isNotNull();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL).block()).isNotNull();
+
+        userService.deleteUser(DEFAULT_LOGIN).block();
+
+        assertThat(userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).blockOptional()).isEmpty();
+        assertThat(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(DEFAULT_EMAIL).blockOptional()).isEmpty();
+    }
+
+    @Test
+    void assertThatUserCachesArePublishedAsMetrics() {
+        userService.saveUser(user).block();
+        double hits = cacheGets(UserRepository.USERS_BY_LOGIN_CACHE, "hit");
+        double misses = cacheGets(UserRepository.USERS_BY_LOGIN_CACHE, "miss");
+
+        userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block();
+        userService.getUserWithAuthoritiesByLogin(DEFAULT_LOGIN).block();
+
+        assertThat(cacheGets(UserRepository.USERS_BY_LOGIN_CACHE, "miss")).isEqualTo(misses + 1);
+        assertThat(cacheGets(UserRepository.USERS_BY_LOGIN_CACHE, "hit")).isEqualTo(hits + 1);
+        assertThat(meterRegistry.get("cache.size").tag("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge().value()).isEqualTo(1);
+    }
+
+    private List<String> saveNotActivatedUsersCreatedBefore3Days(int count) {
+        userRepository.save(user).block();
+        List<String> logins = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User notActivatedUser = new User();
+            notActivatedUser.setLogin("not-activated-" + i);
+            notActivatedUser.setPassword(RandomStringUtils.random(60));
+            notActivatedUser.setEmail("not-activated-" + i + "@localhost");
+            notActivatedUser.setActivationKey(RandomUtil.generateActivationKey());
+            notActivatedUser.setCreatedBy(Constants.SYSTEM);
+            notActivatedUser.setCreatedDate(Instant.now().minus(4, ChronoUnit.DAYS));
+            userRepository.save(notActivatedUser).block();
+            logins.add(notActivatedUser.getLogin());
+        }
+        return logins;
+    }
+
+    private double cacheGets(String cacheName, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cacheName).tag("result", result).functionCounter().count();
+    }
 }
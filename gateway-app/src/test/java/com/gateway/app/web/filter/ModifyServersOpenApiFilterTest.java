@@ -135,6 +135,97 @@ class ModifyServersOpenApiFilterTest {
             assertThat(interceptor.getRewritedBody()).isEmpty();
         }
 
+        @Test
+        void shouldReplaceExistingServersAndKeepOtherFields() {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+
+            byte[] bytes = "{\"openapi\":\"3.0.1\",\"servers\":[{\"url\":\"http://10.0.0.1:8081\"}],\"paths\":{\"/api/cars\":{}}}".getBytes();
+            DataBuffer body = exchange.getResponse().bufferFactory().wrap(bytes);
+            interceptor.writeWith(Flux.just(body)).subscribe();
+            assertThat(interceptor.getRewritedBody())
+                .isEqualTo(
+                    "{\"openapi\":\"3.0.1\"," +
+                    "\"servers\":[{\"url\":\"/services/service-test/instance-test\",\"description\":\"added by global filter\"}]," +
+                    "\"paths\":{\"/api/cars\":{}}}"
+                );
+            assertThat(exchange.getResponse().getHeaders().getContentLength()).isEqualTo(interceptor.getRewritedBody().length());
+        }
+
+        @Test
+        void shouldReuseRewrittenBodyWhileETagIsUnchanged() {
+            ServerWebExchange firstExchange = exchangeWithETag("\"v1\"");
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = writeBody(firstExchange, "{\"openapi\":\"3.0.1\"}");
+
+            // the body is not parsed again, the same version is known
+            ServerWebExchange cachedExchange = exchangeWithETag("\"v1\"");
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor cachedInterceptor = writeBody(cachedExchange, "not parsed");
+            assertThat(cachedInterceptor.getRewritedBody()).isEqualTo(interceptor.getRewritedBody()).startsWith("{\"openapi\":\"3.0.1\"");
+            assertThat(cachedExchange.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor newVersionInterceptor = writeBody(
+                exchangeWithETag("\"v2\""),
+                "{\"openapi\":\"3.0.3\"}"
+            );
+            assertThat(newVersionInterceptor.getRewritedBody()).startsWith("{\"openapi\":\"3.0.3\"");
+        }
+
+        @Test
+        void shouldKeepTheRewrittenBodiesOfTheVersionsOfLoadBalancedInstances() {
+            writeBody(exchangeWithETag("\"v1\""), "{\"openapi\":\"3.0.1\"}");
+            writeBody(exchangeWithETag("\"v2\""), "{\"openapi\":\"3.0.3\"}");
+
+            // neither body is parsed again while the instances take turns
+            assertThat(writeBody(exchangeWithETag("\"v1\""), "not parsed").getRewritedBody()).startsWith("{\"openapi\":\"3.0.1\"");
+            assertThat(writeBody(exchangeWithETag("\"v2\""), "not parsed").getRewritedBody()).startsWith("{\"openapi\":\"3.0.3\"");
+        }
+
+        @Test
+        void shouldReuseRewrittenBodyOfSameContentWithoutETag() {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = writeBody(
+                MockServerWebExchange.from(request),
+                "{\"openapi\":\"3.0.1\"}"
+            );
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor cachedInterceptor = writeBody(
+                MockServerWebExchange.from(request),
+                "{\"openapi\":\"3.0.1\"}"
+            );
+
+            assertThat(cachedInterceptor.getRewritedBody()).isEqualTo(interceptor.getRewritedBody()).contains("\"servers\"");
+        }
+
+        @Test
+        void shouldNotRewriteBodyWhenBodyIsNotJson() {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+
+            DataBuffer body = exchange.getResponse().bufferFactory().wrap("[]".getBytes());
+            interceptor.writeWith(Flux.just(body)).subscribe();
+            assertThat(interceptor.getRewritedBody()).isEmpty();
+        }
+
+        private ServerWebExchange exchangeWithETag(String eTag) {
+            ServerWebExchange exchangeWithETag = MockServerWebExchange.from(request);
+            exchangeWithETag.getResponse().getHeaders().setETag(eTag);
+            return exchangeWithETag;
+        }
+
+        private ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor writeBody(ServerWebExchange exchange, String body) {
+            ModifyServersOpenApiFilter.ModifyServersOpenApiInterceptor interceptor = modifyServersOpenApiFilter.createModifyServersOpenApiInterceptor(
+                path,
+                exchange.getResponse(),
+                exchange.getResponse().bufferFactory()
+            );
+            interceptor.writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap(body.getBytes()))).subscribe();
+            return interceptor;
+        }
+
         private byte[] zipContent() {
             try {
                 ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream("{}".length());
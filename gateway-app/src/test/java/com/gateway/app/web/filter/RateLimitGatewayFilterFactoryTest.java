@@ -0,0 +1,238 @@
+package com.gateway.app.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.gateway.app.config.RateLimitingConfiguration;
+import com.gateway.app.security.jwt.JWTFilter;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
+
+class RateLimitGatewayFilterFactoryTest {
+
+    private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+
+    private final Route route = Route.async().id("carsapp").uri(URI.create("lb://carsapp")).predicate(exchange -> true).build();
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitingConfiguration rateLimitingConfiguration;
+
+    private ProxyManager<String> buckets;
+
+    private RateLimitGatewayFilterFactory rateLimitGatewayFilterFactory;
+
+    @BeforeEach
+    public void setup() {
+        when(filterChain.filter(any())).thenReturn(Mono.empty());
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getGateway().getRateLimiting().setEnabled(true);
+        jHipsterProperties.getGateway().getRateLimiting().setLimit(2);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getRateLimiting().setApiKeys(List.of("first-key", "second-key"));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitingConfiguration = new RateLimitingConfiguration();
+        buckets = rateLimitingConfiguration.rateLimitBuckets(applicationProperties);
+        rateLimitGatewayFilterFactory = createFilterFactory();
+    }
+
+    @AfterEach
+    public void destroy() {
+        rateLimitingConfiguration.destroy();
+    }
+
+    @Test
+    void testRequestsBeyondTheLimitAreRejected() {
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(new RateLimitGatewayFilterFactory.Config());
+
+        ServerWebExchange first = userExchange("user");
+        filter.filter(first, filterChain).block();
+        ServerWebExchange second = userExchange("user");
+        filter.filter(second, filterChain).block();
+        ServerWebExchange rejected = userExchange("user");
+        filter.filter(rejected, filterChain).block();
+
+        assertThat(first.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER)).isEqualTo("1");
+        assertThat(second.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER)).isEqualTo("0");
+        assertThat(Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(1L, 1800L);
+        verify(filterChain, times(2)).filter(any());
+        assertThat(meterRegistry.get(RateLimitGatewayFilterFactory.REJECTED_METER_NAME).tag("route", "carsapp").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testEachUserHasItsOwnBucket() {
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(new RateLimitGatewayFilterFactory.Config());
+
+        filter.filter(userExchange("user"), filterChain).block();
+        filter.filter(userExchange("user"), filterChain).block();
+        ServerWebExchange admin = userExchange("admin");
+        filter.filter(admin, filterChain).block();
+
+        assertThat(admin.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(admin.getResponse().getHeaders().getFirst(RateLimitGatewayFilterFactory.REMAINING_HEADER)).isEqualTo("1");
+    }
+
+    @Test
+    void testRouteLimitOverridesTheDefaultOne() {
+        RateLimitGatewayFilterFactory.Config config = new RateLimitGatewayFilterFactory.Config();
+        config.setKey(RateLimitGatewayFilterFactory.Key.API_KEY);
+        config.setLimit(1L);
+        config.setDuration(Duration.ofMinutes(1));
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(config);
+
+        filter.filter(apiKeyExchange("first-key"), filterChain).block();
+        ServerWebExchange rejected = apiKeyExchange("first-key");
+        filter.filter(rejected, filterChain).block();
+        ServerWebExchange otherKey = apiKeyExchange("second-key");
+        filter.filter(otherKey, filterChain).block();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isBetween(1L, 60L);
+        assertThat(otherKey.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testRequestsWithAnUnknownApiKeyAreLimitedByAddress() {
+        RateLimitGatewayFilterFactory.Config config = new RateLimitGatewayFilterFactory.Config();
+        config.setKey(RateLimitGatewayFilterFactory.Key.API_KEY);
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(config);
+
+        filter.filter(apiKeyExchange("unknown-key"), filterChain).block();
+        filter.filter(apiKeyExchange("other-unknown-key"), filterChain).block();
+        ServerWebExchange rejected = apiKeyExchange("another-unknown-key");
+        filter.filter(rejected, filterChain).block();
+        ServerWebExchange knownKey = apiKeyExchange("first-key");
+        filter.filter(knownKey, filterChain).block();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(knownKey.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testAnonymousRequestsAreLimitedByAddress() {
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(new RateLimitGatewayFilterFactory.Config());
+
+        filter.filter(anonymousExchange("10.0.0.1"), filterChain).block();
+        filter.filter(anonymousExchange("10.0.0.1"), filterChain).block();
+        ServerWebExchange rejected = anonymousExchange("10.0.0.1");
+        filter.filter(rejected, filterChain).block();
+        ServerWebExchange otherAddress = anonymousExchange("10.0.0.2");
+        filter.filter(otherAddress, filterChain).block();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(otherAddress.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testForwardedForIsIgnoredWithoutTrustedProxies() {
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(new RateLimitGatewayFilterFactory.Config());
+
+        // a client reaching the gateway directly cannot get a new bucket by sending another address
+        filter.filter(forwardedExchange("10.0.0.3"), filterChain).block();
+        filter.filter(forwardedExchange("10.0.0.4"), filterChain).block();
+        ServerWebExchange rejected = forwardedExchange("10.0.0.5");
+        filter.filter(rejected, filterChain).block();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testForwardedRequestsAreLimitedByTheAddressTheTrustedProxyTells() {
+        applicationProperties.getRateLimiting().setTrustedProxies(1);
+        GatewayFilter filter = createFilterFactory().apply(new RateLimitGatewayFilterFactory.Config());
+
+        // the first entries are set by the client, only the last one is set by the trusted proxy
+        filter.filter(forwardedExchange("10.0.0.3, 192.168.0.1"), filterChain).block();
+        filter.filter(forwardedExchange("10.0.0.4, 192.168.0.1"), filterChain).block();
+        ServerWebExchange rejected = forwardedExchange("10.0.0.5, 192.168.0.1");
+        filter.filter(rejected, filterChain).block();
+        ServerWebExchange otherClient = forwardedExchange("192.168.0.2");
+        filter.filter(otherClient, filterChain).block();
+
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(otherClient.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void testNothingIsLimitedWhenRateLimitingIsDisabled() {
+        jHipsterProperties.getGateway().getRateLimiting().setEnabled(false);
+        GatewayFilter filter = rateLimitGatewayFilterFactory.apply(new RateLimitGatewayFilterFactory.Config());
+
+        for (int i = 0; i < 3; i++) {
+            ServerWebExchange exchange = userExchange("user");
+            filter.filter(exchange, filterChain).block();
+            assertThat(exchange.getResponse().getHeaders()).doesNotContainKey(RateLimitGatewayFilterFactory.REMAINING_HEADER);
+        }
+        verify(filterChain, times(3)).filter(any());
+    }
+
+    private RateLimitGatewayFilterFactory createFilterFactory() {
+        return new RateLimitGatewayFilterFactory(buckets, jHipsterProperties, applicationProperties, meterRegistry);
+    }
+
+    private ServerWebExchange userExchange(String login) {
+        ServerWebExchange exchange = anonymousExchange("10.0.0.1");
+        exchange.getAttributes().put(JWTFilter.AUTHENTICATION_ATTRIBUTE, new UsernamePasswordAuthenticationToken(login, "token"));
+        return exchange;
+    }
+
+    private ServerWebExchange apiKeyExchange(String apiKey) {
+        MockServerHttpRequest request = MockServerHttpRequest
+            .get("/services/carsapp/api/cars")
+            .header("X-API-Key", apiKey)
+            .remoteAddress(new InetSocketAddress("10.0.0.1", 4000))
+            .build();
+        return routedExchange(MockServerWebExchange.from(request));
+    }
+
+    private ServerWebExchange forwardedExchange(String forwardedFor) {
+        MockServerHttpRequest request = MockServerHttpRequest
+            .get("/services/carsapp/api/cars")
+            .header("X-Forwarded-For", forwardedFor)
+            .remoteAddress(new InetSocketAddress("10.0.0.1", 4000))
+            .build();
+        return routedExchange(MockServerWebExchange.from(request));
+    }
+
+    private ServerWebExchange anonymousExchange(String address) {
+        MockServerHttpRequest request = MockServerHttpRequest
+            .get("/services/carsapp/api/cars")
+            .remoteAddress(new InetSocketAddress(address, 4000))
+            .build();
+        return routedExchange(MockServerWebExchange.from(request));
+    }
+
+    private ServerWebExchange routedExchange(ServerWebExchange exchange) {
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,195 @@
+package com.gateway.app.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.gateway.app.config.ApplicationProperties;
+import com.gateway.app.security.AuthoritiesConstants;
+import com.gateway.app.security.jwt.JWTFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RequestCoalescingFilterTest {
+
+    private static final String CARS_PATH = "/services/carsapp/api/cars";
+
+    private static final String CARS = "[{\"id\":1}]";
+
+    private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+
+    private final Route route = Route.async().id("carsapp").uri(URI.create("lb://carsapp")).predicate(exchange -> true).build();
+
+    // completes the requests sent to the service
+    private final Sinks.Empty<Void> serviceResponse = Sinks.empty();
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private RequestCoalescingFilter requestCoalescingFilter;
+
+    @BeforeEach
+    public void setup() {
+        when(filterChain.filter(any()))
+            .thenAnswer(invocation -> {
+                ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+                return serviceResponse
+                    .asMono()
+                    .then(
+                        Mono.defer(() -> {
+                            response.setStatusCode(HttpStatus.OK);
+                            response.getHeaders().set("X-Total-Count", "1");
+                            return response.writeWith(Flux.just(response.bufferFactory().wrap(CARS.getBytes())));
+                        })
+                    );
+            });
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getRequestCoalescing().setPaths(List.of(CARS_PATH + "/**"));
+        meterRegistry = new SimpleMeterRegistry();
+        createRequestCoalescingFilter();
+    }
+
+    @Test
+    void testIdenticalRequestsInFlightAreSentOnce() {
+        MockServerWebExchange leader = exchange(AuthoritiesConstants.USER);
+        MockServerWebExchange follower = exchange(AuthoritiesConstants.USER);
+        CompletableFuture<Void> leaderDone = filter(leader);
+        CompletableFuture<Void> followerDone = filter(follower);
+
+        serviceResponse.tryEmitEmpty();
+        CompletableFuture.allOf(leaderDone, followerDone).join();
+
+        verify(filterChain, times(1)).filter(any());
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        assertThat(follower.getResponse().getHeaders().getFirst("X-Total-Count")).isEqualTo("1");
+        assertThat(follower.getResponse().getHeaders().getContentLength()).isEqualTo(CARS.length());
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("result", "leader").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("result", "coalesced").counter().count())
+            .isEqualTo(1);
+
+        filter(exchange(AuthoritiesConstants.USER)).join();
+        verify(filterChain, times(2)).filter(any());
+    }
+
+    @Test
+    void testRequestsWithOtherAuthoritiesAreNotCoalesced() {
+        CompletableFuture<Void> userDone = filter(exchange(AuthoritiesConstants.USER));
+        CompletableFuture<Void> adminDone = filter(exchange(AuthoritiesConstants.ADMIN));
+
+        serviceResponse.tryEmitEmpty();
+        CompletableFuture.allOf(userDone, adminDone).join();
+
+        verify(filterChain, times(2)).filter(any());
+    }
+
+    @Test
+    void testWaitingRequestsAreSentWhenTheResponseIsTooLarge() {
+        applicationProperties.getRequestCoalescing().setMaxSize(DataSize.ofBytes(4));
+        createRequestCoalescingFilter();
+        MockServerWebExchange follower = exchange(AuthoritiesConstants.USER);
+        CompletableFuture<Void> leaderDone = filter(exchange(AuthoritiesConstants.USER));
+        CompletableFuture<Void> followerDone = filter(follower);
+
+        serviceResponse.tryEmitEmpty();
+        CompletableFuture.allOf(leaderDone, followerDone).join();
+
+        verify(filterChain, times(2)).filter(any());
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("result", "fallback").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void testWaitingRequestsAreSentOnceAChunkedResponseIsTooLarge() {
+        applicationProperties.getRequestCoalescing().setMaxSize(DataSize.ofBytes(4));
+        applicationProperties.getRequestCoalescing().setTimeout(Duration.ofMinutes(1));
+        createRequestCoalescingFilter();
+        // the body of the response to the first request is still being received when it grows too large
+        Sinks.Many<String> chunks = Sinks.many().unicast().onBackpressureBuffer();
+        Answer<Mono<Void>> chunkedResponse = invocation -> {
+            ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(chunks.asFlux().map(chunk -> response.bufferFactory().wrap(chunk.getBytes())));
+        };
+        Answer<Mono<Void>> serviceAnswer = invocation -> {
+            ServerHttpResponse response = ((ServerWebExchange) invocation.getArgument(0)).getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Flux.just(response.bufferFactory().wrap(CARS.getBytes())));
+        };
+        doAnswer(chunkedResponse).doAnswer(serviceAnswer).when(filterChain).filter(any());
+        MockServerWebExchange follower = exchange(AuthoritiesConstants.USER);
+        CompletableFuture<Void> leaderDone = filter(exchange(AuthoritiesConstants.USER));
+        CompletableFuture<Void> followerDone = filter(follower);
+
+        chunks.tryEmitNext("[{\"id\"");
+        followerDone.orTimeout(5, TimeUnit.SECONDS).join();
+
+        verify(filterChain, times(2)).filter(any());
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        assertThat(leaderDone).isNotDone();
+        chunks.tryEmitNext(":1}]");
+        chunks.tryEmitComplete();
+        leaderDone.join();
+    }
+
+    @Test
+    void testWaitingRequestsAreSentAfterTheTimeout() {
+        applicationProperties.getRequestCoalescing().setTimeout(Duration.ofMillis(50));
+        createRequestCoalescingFilter();
+        MockServerWebExchange follower = exchange(AuthoritiesConstants.USER);
+        CompletableFuture<Void> leaderDone = filter(exchange(AuthoritiesConstants.USER));
+        CompletableFuture<Void> followerDone = filter(follower);
+
+        verify(filterChain, timeout(5000).times(2)).filter(any());
+        serviceResponse.tryEmitEmpty();
+        CompletableFuture.allOf(leaderDone, followerDone).join();
+
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        assertThat(meterRegistry.get(RequestCoalescingFilter.REQUESTS_METER_NAME).tag("result", "coalesced").counter().count()).isZero();
+    }
+
+    private void createRequestCoalescingFilter() {
+        requestCoalescingFilter = new RequestCoalescingFilter(applicationProperties, meterRegistry);
+    }
+
+    private MockServerWebExchange exchange(String authority) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(CARS_PATH).build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange
+            .getAttributes()
+            .put(
+                JWTFilter.AUTHENTICATION_ATTRIBUTE,
+                new UsernamePasswordAuthenticationToken("user", "token", List.of(new SimpleGrantedAuthority(authority)))
+            );
+        return exchange;
+    }
+
+    private CompletableFuture<Void> filter(MockServerWebExchange exchange) {
+        return requestCoalescingFilter.filter(exchange, filterChain).toFuture();
+    }
+}
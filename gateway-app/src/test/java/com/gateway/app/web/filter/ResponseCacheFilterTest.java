@@ -0,0 +1,255 @@
+package com.gateway.app.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.gateway.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ResponseCacheFilterTest {
+
+    private static final String CARS_PATH = "/services/carsapp/api/cars";
+
+    private static final String CARS = "[{\"id\":1}]";
+
+    private static final String DEALERS_PATH = "/services/carsapp/api/dealers";
+
+    private final GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+
+    private final Route route = Route.async().id("carsapp").uri(URI.create("lb://carsapp")).predicate(exchange -> true).build();
+
+    private final HttpHeaders serviceHeaders = new HttpHeaders();
+
+    private HttpStatus serviceStatus = HttpStatus.OK;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private GatewayResponseCache responseCache;
+
+    private ResponseCacheFilter responseCacheFilter;
+
+    @BeforeEach
+    public void setup() {
+        when(filterChain.filter(any())).thenAnswer(invocation -> writeServiceResponse(invocation.getArgument(0)));
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getResponseCache().setPaths(List.of(CARS_PATH + "/**", DEALERS_PATH + "/**"));
+        meterRegistry = new SimpleMeterRegistry();
+        createResponseCacheFilter();
+    }
+
+    @Test
+    void testCacheableResponseIsServedFromTheCache() {
+        serviceHeaders.setCacheControl("max-age=60");
+
+        get(CARS_PATH);
+        MockServerWebExchange cached = get(CARS_PATH);
+
+        verify(filterChain, times(1)).filter(any());
+        assertThat(cached.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cached.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        assertThat(cached.getResponse().getHeaders().getCacheControl()).isEqualTo("max-age=60");
+        assertThat(cached.getResponse().getHeaders().getFirst("Age")).isEqualTo("0");
+        assertThat(cached.getResponse().getHeaders().getFirst("X-Total-Count")).isEqualTo("1");
+        assertThat(meterRegistry.get(GatewayResponseCache.REQUESTS_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(GatewayResponseCache.REQUESTS_METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(GatewayResponseCache.SAVED_METER_NAME).counter().count()).isEqualTo(CARS.length());
+    }
+
+    @Test
+    void testResponseIsNotCachedWhenItsCacheControlForbidsIt() {
+        serviceHeaders.setCacheControl("no-cache, no-store, max-age=0, must-revalidate");
+
+        get(CARS_PATH);
+        get(CARS_PATH);
+
+        verify(filterChain, times(2)).filter(any());
+    }
+
+    @Test
+    void testResponseIsNotCachedForOtherPaths() {
+        serviceHeaders.setCacheControl("max-age=60");
+
+        get("/services/carsapp/api/drivers");
+        get("/services/carsapp/api/drivers");
+
+        verify(filterChain, times(2)).filter(any());
+    }
+
+    @Test
+    void testAuthorizedResponseIsCachedByAuthorizationWhenItVaries() {
+        serviceHeaders.setCacheControl("max-age=60");
+
+        get(CARS_PATH, "Bearer user");
+        get(CARS_PATH, "Bearer user");
+        verify(filterChain, times(2)).filter(any());
+
+        serviceHeaders.setVary(List.of(HttpHeaders.AUTHORIZATION));
+        get(CARS_PATH, "Bearer user");
+        get(CARS_PATH, "Bearer user");
+        verify(filterChain, times(3)).filter(any());
+        get(CARS_PATH, "Bearer admin");
+        verify(filterChain, times(4)).filter(any());
+    }
+
+    @Test
+    void testNotModifiedWhenTheETagMatches() {
+        serviceHeaders.setCacheControl("max-age=60");
+        serviceHeaders.setETag("\"v1\"");
+        get(CARS_PATH);
+
+        MockServerHttpRequest request = MockServerHttpRequest.get(CARS_PATH).ifNoneMatch("\"v1\"").build();
+        MockServerWebExchange notModified = filter(MockServerWebExchange.from(request));
+
+        assertThat(notModified.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(notModified.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+        verify(filterChain, times(1)).filter(any());
+    }
+
+    @Test
+    void testUpdateEvictsTheResponsesOfTheRoute() {
+        serviceHeaders.setCacheControl("max-age=60");
+        get(CARS_PATH);
+
+        filter(MockServerWebExchange.from(MockServerHttpRequest.post(CARS_PATH).build()));
+        get(CARS_PATH);
+
+        verify(filterChain, times(3)).filter(any());
+    }
+
+    @Test
+    void testUpdateOnlyEvictsTheResponsesOfItsCollection() {
+        serviceHeaders.setCacheControl("max-age=60");
+        get(CARS_PATH);
+        get(CARS_PATH + "/1");
+        get(DEALERS_PATH);
+
+        filter(MockServerWebExchange.from(MockServerHttpRequest.put(CARS_PATH + "/1").build()));
+        get(CARS_PATH);
+        get(CARS_PATH + "/1");
+        get(DEALERS_PATH);
+
+        verify(filterChain, times(6)).filter(any());
+    }
+
+    @Test
+    void testBulkUpdateEvictsTheResponsesOfItsCollection() {
+        serviceHeaders.setCacheControl("max-age=60");
+        get(CARS_PATH);
+        get(CARS_PATH + "/1");
+
+        filter(MockServerWebExchange.from(MockServerHttpRequest.post(CARS_PATH + "/_bulk").build()));
+        get(CARS_PATH);
+        get(CARS_PATH + "/1");
+
+        verify(filterChain, times(5)).filter(any());
+    }
+
+    @Test
+    void testFailedUpdateEvictsNothing() {
+        serviceHeaders.setCacheControl("max-age=60");
+        get(CARS_PATH);
+
+        serviceStatus = HttpStatus.BAD_REQUEST;
+        filter(MockServerWebExchange.from(MockServerHttpRequest.post(CARS_PATH).build()));
+        get(CARS_PATH);
+
+        verify(filterChain, times(2)).filter(any());
+    }
+
+    @Test
+    void testResponseToARequestSentBeforeAnUpdateIsNotCached() {
+        serviceHeaders.setCacheControl("max-age=60");
+        Sinks.Empty<Void> serviceResponse = Sinks.empty();
+        doAnswer(invocation -> serviceResponse.asMono().then(Mono.defer(() -> writeServiceResponse(invocation.getArgument(0)))))
+            .when(filterChain)
+            .filter(argThat(exchange -> exchange.getRequest().getMethod() == HttpMethod.GET));
+        MockServerWebExchange stale = MockServerWebExchange.from(MockServerHttpRequest.get(CARS_PATH).build());
+        stale.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        CompletableFuture<Void> staleDone = responseCacheFilter.filter(stale, filterChain).toFuture();
+
+        filter(MockServerWebExchange.from(MockServerHttpRequest.post(CARS_PATH).build()));
+        serviceResponse.tryEmitEmpty();
+        staleDone.join();
+        assertThat(stale.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        get(CARS_PATH);
+
+        verify(filterChain, times(3)).filter(any());
+    }
+
+    @Test
+    void testResponsesAreEvictedByRouteAndPathPrefix() {
+        serviceHeaders.setCacheControl("max-age=60");
+        get(CARS_PATH);
+        get(CARS_PATH + "/1");
+        get(CARS_PATH + "/2");
+
+        assertThat(responseCache.invalidate("dealersapp", null)).isZero();
+        assertThat(responseCache.invalidate("carsapp", CARS_PATH + "/")).isEqualTo(2);
+        get(CARS_PATH);
+        verify(filterChain, times(3)).filter(any());
+        assertThat(responseCache.invalidate(null, null)).isEqualTo(1);
+    }
+
+    @Test
+    void testLargeResponseIsNotCached() {
+        applicationProperties.getResponseCache().setMaxEntrySize(DataSize.ofBytes(4));
+        createResponseCacheFilter();
+        serviceHeaders.setCacheControl("max-age=60");
+
+        MockServerWebExchange exchange = get(CARS_PATH);
+        get(CARS_PATH);
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(CARS);
+        verify(filterChain, times(2)).filter(any());
+    }
+
+    private void createResponseCacheFilter() {
+        responseCache = new GatewayResponseCache(applicationProperties, meterRegistry);
+        responseCacheFilter = new ResponseCacheFilter(responseCache);
+    }
+
+    private Mono<Void> writeServiceResponse(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(serviceStatus);
+        response.getHeaders().putAll(serviceHeaders);
+        response.getHeaders().set("X-Total-Count", "1");
+        return response.writeWith(Flux.just(response.bufferFactory().wrap(CARS.getBytes())));
+    }
+
+    private MockServerWebExchange get(String path) {
+        return filter(MockServerWebExchange.from(MockServerHttpRequest.get(path).build()));
+    }
+
+    private MockServerWebExchange get(String path, String authorization) {
+        return filter(MockServerWebExchange.from(MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, authorization).build()));
+    }
+
+    private MockServerWebExchange filter(MockServerWebExchange exchange) {
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        responseCacheFilter.filter(exchange, filterChain).block();
+        return exchange;
+    }
+}
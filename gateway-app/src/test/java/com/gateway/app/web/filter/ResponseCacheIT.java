@@ -0,0 +1,139 @@
+package com.gateway.app.web.filter;
+
+import static com.gateway.app.security.jwt.JWTFilter.AUTHORIZATION_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gateway.app.IntegrationTest;
+import com.gateway.app.security.AuthoritiesConstants;
+import com.gateway.app.security.jwt.TokenProvider;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Integration tests for {@link ResponseCacheFilter}, routing requests to a local backend which answers with the
+ * {@code Cache-Control} and {@code Vary} headers of the car listing of car-app.
+ */
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_TIMEOUT)
+@IntegrationTest
+class ResponseCacheIT {
+
+    private static final AtomicInteger receivedGets = new AtomicInteger();
+
+    private static DisposableServer backend;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private GatewayResponseCache responseCache;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @DynamicPropertySource
+    static void routes(DynamicPropertyRegistry registry) {
+        backend =
+            HttpServer
+                .create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(
+                    (request, response) -> {
+                        if (!"GET".equals(request.method().name())) {
+                            return response.status(201).send();
+                        }
+                        receivedGets.incrementAndGet();
+                        return response
+                            .header(HttpHeaders.CACHE_CONTROL, "max-age=0, s-maxage=10")
+                            .header(HttpHeaders.VARY, "Origin")
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                            .header(HttpHeaders.ETAG, "\"1\"")
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .sendString(Mono.just("[{\"id\":1}]"));
+                    }
+                )
+                .bindNow();
+        String uri = "http://127.0.0.1:" + backend.port();
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "cached");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> uri);
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/services/cached/**");
+        registry.add("spring.cloud.gateway.routes[0].filters[0]", () -> "StripPrefix=2");
+        registry.add("application.response-cache.paths[0]", () -> "/services/cached/api/cars/**");
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @BeforeEach
+    public void setup() {
+        token =
+            tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(
+                    "test-user",
+                    "test-password",
+                    Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                ),
+                false
+            );
+        responseCache.invalidate(null, null);
+        receivedGets.set(0);
+    }
+
+    @Test
+    void sharedResponsesAreServedFromTheCacheUntilAWrite() {
+        getCars(MediaType.APPLICATION_JSON).expectHeader().doesNotExist("Age");
+        getCars(MediaType.APPLICATION_JSON).expectHeader().exists("Age").expectBody(String.class).isEqualTo("[{\"id\":1}]");
+        assertThat(receivedGets).hasValue(1);
+
+        webTestClient
+            .post()
+            .uri("/services/cached/api/cars/_bulk")
+            .header(AUTHORIZATION_HEADER, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("[]")
+            .exchange()
+            .expectStatus()
+            .isCreated();
+        getCars(MediaType.APPLICATION_JSON);
+        assertThat(receivedGets).hasValue(2);
+    }
+
+    @Test
+    void responsesAreCachedByAccept() {
+        getCars(MediaType.APPLICATION_JSON);
+        getCars(MediaType.APPLICATION_NDJSON);
+        getCars(MediaType.APPLICATION_NDJSON);
+
+        assertThat(receivedGets).hasValue(2);
+    }
+
+    private WebTestClient.ResponseSpec getCars(MediaType accept) {
+        return webTestClient
+            .get()
+            .uri("/services/cached/api/cars")
+            .header(AUTHORIZATION_HEADER, "Bearer " + token)
+            .accept(accept)
+            .exchange()
+            .expectStatus()
+            .isOk();
+    }
+}
@@ -0,0 +1,46 @@
+package com.gateway.app.web.rest;
+
+import com.gateway.app.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link JwksResource} REST controller.
+ */
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_TIMEOUT)
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.security.jwt-signing.key-store=classpath:config/jwt-signing-keys.p12",
+        "application.security.jwt-signing.key-store-password=password",
+        "application.security.jwt-signing.active-key=es256-1",
+    }
+)
+class JwksResourceIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @WithUnauthenticatedMockUser
+    void getJwksWithoutAuthentication() {
+        webTestClient
+            .get()
+            .uri("/.well-known/jwks.json")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.keys[?(@.kid == 'es256-1')].alg")
+            .isEqualTo("ES256")
+            .jsonPath("$.keys[?(@.kid == 'rs256-1')].kty")
+            .isEqualTo("RSA")
+            .jsonPath("$.keys[*].d")
+            .doesNotExist();
+    }
+}
@@ -0,0 +1,92 @@
+package com.gateway.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.gateway.app.web.rest.vm.RouteVM;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+class RouteInventoryTest {
+
+    private final RouteDefinitionLocator routeDefinitionLocator = mock(RouteDefinitionLocator.class);
+
+    private final ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+
+    private final ServiceInstance carsAppInstance = new DefaultServiceInstance("carsapp-1", "carsapp", "localhost", 8081, false);
+
+    private RouteInventory routeInventory;
+
+    @BeforeEach
+    public void setup() {
+        when(routeDefinitionLocator.getRouteDefinitions())
+            .thenReturn(Flux.just(routeDefinition("carsapp"), routeDefinition("gateway")))
+            .thenReturn(Flux.just(routeDefinition("carsapp"), routeDefinition("dealersapp"), routeDefinition("gateway")));
+        when(discoveryClient.getInstances("carsapp")).thenReturn(Flux.just(carsAppInstance));
+        when(discoveryClient.getInstances("dealersapp")).thenReturn(Flux.empty());
+        routeInventory = new RouteInventory(routeDefinitionLocator, discoveryClient);
+        ReflectionTestUtils.setField(routeInventory, "appName", "gateway");
+    }
+
+    @Test
+    void testRoutesOfTheServicesAreListedWithTheirInstances() {
+        List<RouteVM> routes = routeInventory.getRoutes().block();
+
+        assertThat(routes).hasSize(1);
+        assertThat(routes.get(0).getServiceId()).isEqualTo("carsapp");
+        assertThat(routes.get(0).getPath()).isEqualTo("/services/carsapp/**");
+        assertThat(routes.get(0).getServiceInstances()).containsExactly(carsAppInstance);
+    }
+
+    @Test
+    void testRoutesAreReadFromTheSnapshot() {
+        List<RouteVM> routes = routeInventory.getRoutes().block();
+
+        assertThat(routeInventory.getRoutes().block()).isSameAs(routes);
+        verify(routeDefinitionLocator, times(1)).getRouteDefinitions();
+    }
+
+    @Test
+    void testRoutesAreRefreshedWhenTheRegistryChanges() {
+        routeInventory.getRoutes().block();
+
+        routeInventory.onHeartbeat(new HeartbeatEvent(this, 1L));
+        routeInventory.onHeartbeat(new HeartbeatEvent(this, 1L));
+
+        assertThat(routeInventory.getRoutes().block()).extracting(RouteVM::getServiceId).containsExactly("carsapp", "dealersapp");
+        verify(routeDefinitionLocator, times(2)).getRouteDefinitions();
+    }
+
+    @Test
+    void testRoutesAreRefreshedWhenTheRoutesAreRefreshed() {
+        routeInventory.getRoutes().block();
+
+        routeInventory.onRefreshRoutes();
+
+        assertThat(routeInventory.getRoutes().block()).extracting(RouteVM::getServiceId).containsExactly("carsapp", "dealersapp");
+    }
+
+    private static RouteDefinition routeDefinition(String serviceId) {
+        // as built by the discovery client route definition locator
+        RouteDefinition routeDefinition = new RouteDefinition();
+        routeDefinition.setId("ReactiveCompositeDiscoveryClient_" + serviceId.toUpperCase());
+        routeDefinition.setUri(URI.create("lb://" + serviceId.toUpperCase()));
+        PredicateDefinition path = new PredicateDefinition();
+        path.setName("Path");
+        path.setArgs(Map.of("pattern", "/services/" + serviceId + "/**"));
+        routeDefinition.setPredicates(List.of(path));
+        return routeDefinition;
+    }
+}
@@ -11,6 +11,7 @@ import com.gateway.app.repository.EntityManager;
 import com.gateway.app.repository.UserRepository;
 import com.gateway.app.security.AuthoritiesConstants;
 import com.gateway.app.service.dto.AdminUserDTO;
+import com.gateway.app.service.dto.BulkAuthoritiesDTO;
 import com.gateway.app.service.dto.UserDTO;
 import com.gateway.app.service.mapper.UserMapper;
 import com.gateway.app.web.rest.vm.ManagedUserVM;
@@ -22,6 +23,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -72,6 +74,9 @@ class UserResourceIT {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private User user;
 
     /**
@@ -120,6 +125,8 @@ class UserResourceIT {
 
     @BeforeEach
     public void initTest() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
         user = initTestUser(userRepository, em);
     }
 
@@ -529,6 +536,71 @@ class UserResourceIT {
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeDelete - 1));
     }
 
+    @Test
+    void updateAuthorities() throws Exception {
+        // Initialize the database
+        userRepository.save(user).block();
+        userRepository.saveUserAuthority(user.getId(), AuthoritiesConstants.USER).block();
+        User otherUser = createEntity(em);
+        userRepository.save(otherUser).block();
+        userRepository.saveUserAuthority(otherUser.getId(), AuthoritiesConstants.ADMIN).block();
+        userRepository.saveUserAuthority(otherUser.getId(), AuthoritiesConstants.USER).block();
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).block().getAuthorities()).hasSize(1);
+
+        BulkAuthoritiesDTO bulkAuthoritiesDTO = new BulkAuthoritiesDTO(
+            Set.of(DEFAULT_LOGIN.toUpperCase(), otherUser.getLogin()),
+            Set.of(AuthoritiesConstants.ADMIN),
+            Set.of(AuthoritiesConstants.USER)
+        );
+
+        webTestClient
+            .put()
+            .uri("/api/admin/users/_bulk-authorities")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(TestUtil.convertObjectToJsonBytes(bulkAuthoritiesDTO))
+            .exchange()
+            .expectStatus()
+            .isNoContent()
+            .expectHeader()
+            .valueEquals("X-gatewayApp-params", "2");
+
+        // Validate the authorities in the database, and that the cached user was evicted
+        for (String login : List.of(DEFAULT_LOGIN, otherUser.getLogin())) {
+            assertThat(userRepository.findOneWithAuthoritiesByLogin(login).block().getAuthorities())
+                .extracting(Authority::getName)
+                .containsExactly(AuthoritiesConstants.ADMIN);
+        }
+    }
+
+    @Test
+    void updateAuthoritiesWithUnknownLoginOrAuthority() throws Exception {
+        // Initialize the database
+        userRepository.save(user).block();
+        userRepository.saveUserAuthority(user.getId(), AuthoritiesConstants.USER).block();
+
+        List<BulkAuthoritiesDTO> invalidRequests = List.of(
+            new BulkAuthoritiesDTO(Set.of(DEFAULT_LOGIN, "unknown"), Set.of(AuthoritiesConstants.ADMIN), Set.of()),
+            new BulkAuthoritiesDTO(Set.of(DEFAULT_LOGIN), Set.of("ROLE_UNKNOWN"), Set.of()),
+            new BulkAuthoritiesDTO(Set.of(DEFAULT_LOGIN), Set.of(AuthoritiesConstants.USER), Set.of(AuthoritiesConstants.USER)),
+            new BulkAuthoritiesDTO(Set.of(), Set.of(AuthoritiesConstants.ADMIN), Set.of())
+        );
+        for (BulkAuthoritiesDTO bulkAuthoritiesDTO : invalidRequests) {
+            webTestClient
+                .put()
+                .uri("/api/admin/users/_bulk-authorities")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(TestUtil.convertObjectToJsonBytes(bulkAuthoritiesDTO))
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+        }
+
+        // Validate the User in the database is unchanged
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN).block().getAuthorities())
+            .extracting(Authority::getName)
+            .containsExactly(AuthoritiesConstants.USER);
+    }
+
     @Test
     void testUserEquals() throws Exception {
         TestUtil.equalsVerifier(User.class);
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -157,6 +158,23 @@ class ExceptionTranslatorIT {
             .isEqualTo("test response status");
     }
 
+    @Test
+    void testTooManyRequests() {
+        webTestClient
+            .get()
+            .uri("/api/exception-translator-test/too-many-requests")
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+            .expectHeader()
+            .valueEquals(HttpHeaders.RETRY_AFTER, "1")
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+            .expectBody()
+            .jsonPath("$.message")
+            .isEqualTo(ErrorConstants.ERR_TOO_MANY_REQUESTS);
+    }
+
     @Test
     void testInternalServerError() {
         webTestClient
@@ -1,5 +1,6 @@
 package com.gateway.app.web.rest.errors;
 
+import java.util.concurrent.RejectedExecutionException;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -41,6 +42,11 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @GetMapping("/too-many-requests")
+    public void tooManyRequests() {
+        throw new RejectedExecutionException("test too many requests");
+    }
+
     @GetMapping("/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();